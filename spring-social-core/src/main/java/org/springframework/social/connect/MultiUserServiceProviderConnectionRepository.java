@@ -18,11 +18,19 @@ package org.springframework.social.connect;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.util.MultiValueMap;
+
 public interface MultiUserServiceProviderConnectionRepository {
 
 	String findLocalUserIdConnectedTo(ServiceProviderConnectionKey connectionKey);
 
 	Set<String> findLocalUserIdsConnectedTo(String providerId, List<String> providerUserIds);
+
+	MultiValueMap<String, ServiceProviderConnection<?>> findConnectionsForLocalUsers(String providerId, List<String> localUserIds);
+
+	void findConnectionsForLocalUsers(String providerId, List<String> localUserIds, ServiceProviderConnectionHandler handler);
+
+	void findConnectionsExpiringBetween(long fromTime, long toTime, int maxConnections, ServiceProviderConnectionHandler handler);
 	
 	ServiceProviderConnectionRepository createConnectionRepository(String localUserId);
 	
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect;
+
+/**
+ * Callback for processing connections one at a time as they are read from a MultiUserServiceProviderConnectionRepository,
+ * so large result sets need not be held in memory.
+ * @author agent
+ * @see MultiUserServiceProviderConnectionRepository#findConnectionsForLocalUsers(String, java.util.List, ServiceProviderConnectionHandler)
+ */
+public interface ServiceProviderConnectionHandler {
+
+	/**
+	 * Process a connection.
+	 * @param localUserId the local user the connection belongs to
+	 * @param connection the connection
+	 */
+	void handleConnection(String localUserId, ServiceProviderConnection<?> connection);
+
+}
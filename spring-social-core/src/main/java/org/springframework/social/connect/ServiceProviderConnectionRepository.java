@@ -37,10 +37,16 @@ public interface ServiceProviderConnectionRepository {
 
 	void addConnection(ServiceProviderConnection<?> connection);
 
+	void addConnections(List<ServiceProviderConnection<?>> connections);
+
 	void updateConnection(ServiceProviderConnection<?> connection);
+
+	void updateConnections(List<ServiceProviderConnection<?>> connections);
 	
 	void removeConnectionsToProvider(String providerId);
 
 	void removeConnection(ServiceProviderConnectionKey connectionKey);
+
+	void removeConnections(List<ServiceProviderConnectionKey> connectionKeys);
 	
 }
\ No newline at end of file
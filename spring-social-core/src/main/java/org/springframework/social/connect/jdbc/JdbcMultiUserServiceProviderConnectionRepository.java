@@ -17,36 +17,76 @@ package org.springframework.social.connect.jdbc;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import javax.sql.DataSource;
 
-import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.security.crypto.encrypt.TextEncryptor;
 import org.springframework.social.connect.MultiUserServiceProviderConnectionRepository;
+import org.springframework.social.connect.ServiceProviderConnection;
 import org.springframework.social.connect.ServiceProviderConnectionFactoryLocator;
+import org.springframework.social.connect.ServiceProviderConnectionHandler;
 import org.springframework.social.connect.ServiceProviderConnectionKey;
 import org.springframework.social.connect.ServiceProviderConnectionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
 public class JdbcMultiUserServiceProviderConnectionRepository implements MultiUserServiceProviderConnectionRepository {
 
 	private final JdbcTemplate jdbcTemplate;
+
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 	
 	private final ServiceProviderConnectionFactoryLocator connectionFactoryLocator;
 
 	private final TextEncryptor textEncryptor;
 
+	private final ServiceProviderConnectionMapper connectionMapper;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private int inClauseChunkSize = DEFAULT_IN_CLAUSE_CHUNK_SIZE;
+
+	private int pageSize = DEFAULT_PAGE_SIZE;
+
 	public JdbcMultiUserServiceProviderConnectionRepository(DataSource dataSource, ServiceProviderConnectionFactoryLocator connectionFactoryLocator, TextEncryptor textEncryptor) {
 		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
 		this.connectionFactoryLocator = connectionFactoryLocator;
 		this.textEncryptor = textEncryptor;
+		this.connectionMapper = new ServiceProviderConnectionMapper(connectionFactoryLocator, textEncryptor);
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	/**
+	 * The maximum number of ids bound to a single IN clause by the bulk lookups; larger id lists are queried in chunks of this size.
+	 * Defaults to 500, which keeps statements within the bind variable limits of common databases.
+	 */
+	public void setInClauseChunkSize(int inClauseChunkSize) {
+		Assert.isTrue(inClauseChunkSize > 0, "The IN clause chunk size must be greater than zero");
+		this.inClauseChunkSize = inClauseChunkSize;
+	}
+
+	/**
+	 * The number of rows read per query by {@link #findAllConnectionsToProvider(String, ServiceProviderConnectionHandler)}, also used as the JDBC fetch size.
+	 * Defaults to 1000.
+	 */
+	public void setPageSize(int pageSize) {
+		Assert.isTrue(pageSize > 0, "The page size must be greater than zero");
+		this.pageSize = pageSize;
 	}
 
 	public String findLocalUserIdConnectedTo(ServiceProviderConnectionKey connectionKey) {
@@ -58,23 +98,137 @@ public class JdbcMultiUserServiceProviderConnectionRepository implements MultiUs
 	}
 
 	public Set<String> findLocalUserIdsConnectedTo(String providerId, List<String> providerUserIds) {
-		MapSqlParameterSource parameters = new MapSqlParameterSource();
-		parameters.addValue("providerId", providerId);
-		parameters.addValue("providerUserIds", providerUserIds);
 		final Set<String> localUserIds = new HashSet<String>();
-		return new NamedParameterJdbcTemplate(jdbcTemplate).query("select localUserId from ServiceProviderConnection where providerId = :providerId and providerUserId in (:providerUserIds)", parameters,
-			new ResultSetExtractor<Set<String>>() {
-				public Set<String> extractData(ResultSet rs) throws SQLException, DataAccessException {
-					while (rs.next()) {
-						localUserIds.add(rs.getString("localUserId"));
-					}
-					return localUserIds;
+		RowCallbackHandler localUserIdCollector = new RowCallbackHandler() {
+			public void processRow(ResultSet rs) throws SQLException {
+				localUserIds.add(rs.getString("localUserId"));
+			}
+		};
+		List<String> distinctProviderUserIds = new ArrayList<String>(new LinkedHashSet<String>(providerUserIds));
+		for (int from = 0; from < distinctProviderUserIds.size(); from += inClauseChunkSize) {
+			MapSqlParameterSource parameters = new MapSqlParameterSource();
+			parameters.addValue("providerId", providerId);
+			parameters.addValue("providerUserIds", distinctProviderUserIds.subList(from, Math.min(from + inClauseChunkSize, distinctProviderUserIds.size())));
+			namedParameterJdbcTemplate.query("select localUserId from ServiceProviderConnection where providerId = :providerId and providerUserId in (:providerUserIds)", parameters, localUserIdCollector);
+		}
+		return localUserIds;
+	}
+
+	public MultiValueMap<String, ServiceProviderConnection<?>> findConnectionsForLocalUsers(String providerId, List<String> localUserIds) {
+		final MultiValueMap<String, ServiceProviderConnection<?>> connections = new LinkedMultiValueMap<String, ServiceProviderConnection<?>>();
+		findConnectionsForLocalUsers(providerId, localUserIds, new ServiceProviderConnectionHandler() {
+			public void handleConnection(String localUserId, ServiceProviderConnection<?> connection) {
+				connections.add(localUserId, connection);
+			}
+		});
+		return connections;
+	}
+
+	public void findConnectionsForLocalUsers(String providerId, List<String> localUserIds, final ServiceProviderConnectionHandler handler) {
+		List<String> sortedLocalUserIds = new ArrayList<String>(new TreeSet<String>(localUserIds));
+		RowCallbackHandler rowHandler = new RowCallbackHandler() {
+			private int rowNum;
+			public void processRow(ResultSet rs) throws SQLException {
+				handler.handleConnection(rs.getString("localUserId"), connectionMapper.mapRow(rs, rowNum++));
+			}
+		};
+		for (int from = 0; from < sortedLocalUserIds.size(); from += inClauseChunkSize) {
+			MapSqlParameterSource parameters = new MapSqlParameterSource();
+			parameters.addValue("providerId", providerId);
+			parameters.addValue("localUserIds", sortedLocalUserIds.subList(from, Math.min(from + inClauseChunkSize, sortedLocalUserIds.size())));
+			namedParameterJdbcTemplate.query(JdbcServiceProviderConnectionRepository.SELECT_FROM_SERVICE_PROVIDER_CONNECTION + " where localUserId in (:localUserIds) and providerId = :providerId order by localUserId, rank",
+					parameters, rowHandler);
+		}
+	}
+
+	/**
+	 * Hands the connections to registered providers that expire in the given window and can be refreshed, soonest first, to the handler.
+	 * Connections that expired before the window opened are left out, so connections that can no longer be refreshed do not sort ahead of live ones forever.
+	 * All matching connections are read before the first is handed over, so the handler may refresh them without holding a database connection open.
+	 * @param fromTime the time, in milliseconds since the epoch, at or after which connections expire
+	 * @param toTime the time, in milliseconds since the epoch, before which connections expire
+	 * @param maxConnections the maximum number of connections handed over
+	 * @param handler receives each expiring connection
+	 */
+	public void findConnectionsExpiringBetween(long fromTime, long toTime, int maxConnections, ServiceProviderConnectionHandler handler) {
+		Assert.isTrue(maxConnections > 0, "maxConnections must be greater than zero");
+		Set<String> providerIds = connectionFactoryLocator.registeredProviderIds();
+		if (providerIds.isEmpty()) {
+			return;
+		}
+		JdbcTemplate limitedTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		limitedTemplate.setMaxRows(maxConnections);
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+		parameters.addValue("providerIds", providerIds);
+		parameters.addValue("fromTime", fromTime);
+		parameters.addValue("toTime", toTime);
+		final List<String> localUserIds = new ArrayList<String>();
+		final List<ServiceProviderConnection<?>> connections = new ArrayList<ServiceProviderConnection<?>>();
+		new NamedParameterJdbcTemplate(limitedTemplate).query(JdbcServiceProviderConnectionRepository.SELECT_FROM_SERVICE_PROVIDER_CONNECTION + " where providerId in (:providerIds) and expireTime >= :fromTime and expireTime < :toTime and refreshToken is not null order by expireTime",
+			parameters, new RowCallbackHandler() {
+				public void processRow(ResultSet rs) throws SQLException {
+					localUserIds.add(rs.getString("localUserId"));
+					connections.add(connectionMapper.mapRow(rs, connections.size()));
 				}
 			});
+		for (int i = 0; i < connections.size(); i++) {
+			handler.handleConnection(localUserIds.get(i), connections.get(i));
+		}
+	}
+
+	/**
+	 * Streams every stored connection to the provider, across all local users, to the handler.
+	 * The table is walked in primary key order one page at a time, each page starting after the last key of the previous one,
+	 * so memory use does not depend on the number of connections and no page is re-read from the start of the table.
+	 * Connections added or removed during the walk may or may not be seen.
+	 * @param providerId the provider id
+	 * @param handler receives each connection as its row is read
+	 */
+	public void findAllConnectionsToProvider(String providerId, ServiceProviderConnectionHandler handler) {
+		JdbcTemplate pageTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		pageTemplate.setMaxRows(pageSize);
+		pageTemplate.setFetchSize(pageSize);
+		ConnectionPage page = new ConnectionPage(handler);
+		pageTemplate.query(JdbcServiceProviderConnectionRepository.SELECT_FROM_SERVICE_PROVIDER_CONNECTION + " where providerId = ? order by localUserId, providerUserId", page, providerId);
+		while (page.rowCount == pageSize) {
+			String lastLocalUserId = page.lastLocalUserId;
+			String lastProviderUserId = page.lastProviderUserId;
+			page.rowCount = 0;
+			pageTemplate.query(JdbcServiceProviderConnectionRepository.SELECT_FROM_SERVICE_PROVIDER_CONNECTION + " where providerId = ? and (localUserId > ? or (localUserId = ? and providerUserId > ?)) order by localUserId, providerUserId",
+					page, providerId, lastLocalUserId, lastLocalUserId, lastProviderUserId);
+		}
 	}
 
 	public ServiceProviderConnectionRepository createConnectionRepository(String localUserId) {
-		return new JdbcServiceProviderConnectionRepository(localUserId, jdbcTemplate, connectionFactoryLocator, textEncryptor);
+		return new JdbcServiceProviderConnectionRepository(localUserId, jdbcTemplate, connectionFactoryLocator, textEncryptor, connectionMapper, namedParameterJdbcTemplate, inClauseChunkSize, transactionTemplate);
+	}
+
+	// internal helpers
+
+	private static final int DEFAULT_IN_CLAUSE_CHUNK_SIZE = 500;
+
+	private static final int DEFAULT_PAGE_SIZE = 1000;
+
+	private final class ConnectionPage implements RowCallbackHandler {
+
+		private final ServiceProviderConnectionHandler handler;
+
+		private int rowCount;
+
+		private String lastLocalUserId;
+
+		private String lastProviderUserId;
+
+		public ConnectionPage(ServiceProviderConnectionHandler handler) {
+			this.handler = handler;
+		}
+
+		public void processRow(ResultSet rs) throws SQLException {
+			lastLocalUserId = rs.getString("localUserId");
+			lastProviderUserId = rs.getString("providerUserId");
+			handler.handleConnection(lastLocalUserId, connectionMapper.mapRow(rs, rowCount++));
+		}
+
 	}
 
 }
\ No newline at end of file
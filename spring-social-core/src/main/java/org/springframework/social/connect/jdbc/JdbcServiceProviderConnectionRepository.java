@@ -18,17 +18,21 @@ package org.springframework.social.connect.jdbc;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.crypto.encrypt.TextEncryptor;
@@ -36,10 +40,12 @@ import org.springframework.social.connect.DuplicateServiceProviderConnectionExce
 import org.springframework.social.connect.NoSuchServiceProviderConnectionException;
 import org.springframework.social.connect.ServiceProviderConnection;
 import org.springframework.social.connect.ServiceProviderConnectionData;
-import org.springframework.social.connect.ServiceProviderConnectionFactory;
 import org.springframework.social.connect.ServiceProviderConnectionFactoryLocator;
 import org.springframework.social.connect.ServiceProviderConnectionKey;
 import org.springframework.social.connect.ServiceProviderConnectionRepository;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -53,11 +59,24 @@ class JdbcServiceProviderConnectionRepository implements ServiceProviderConnecti
 
 	private final TextEncryptor textEncryptor;
 
-	public JdbcServiceProviderConnectionRepository(String localUserId, JdbcTemplate jdbcTemplate, ServiceProviderConnectionFactoryLocator connectionFactoryLocator, TextEncryptor textEncryptor) {
+	private final ServiceProviderConnectionMapper connectionMapper;
+
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	private final int inClauseChunkSize;
+
+	private final TransactionTemplate transactionTemplate;
+
+	public JdbcServiceProviderConnectionRepository(String localUserId, JdbcTemplate jdbcTemplate, ServiceProviderConnectionFactoryLocator connectionFactoryLocator, TextEncryptor textEncryptor,
+			ServiceProviderConnectionMapper connectionMapper, NamedParameterJdbcTemplate namedParameterJdbcTemplate, int inClauseChunkSize, TransactionTemplate transactionTemplate) {
 		this.localUserId = localUserId;
 		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.inClauseChunkSize = inClauseChunkSize;
 		this.connectionFactoryLocator = connectionFactoryLocator;
 		this.textEncryptor = textEncryptor;
+		this.connectionMapper = connectionMapper;
 	}
 	
 	public MultiValueMap<String, ServiceProviderConnection<?>> findConnectionsToProviders() {
@@ -85,35 +104,33 @@ class JdbcServiceProviderConnectionRepository implements ServiceProviderConnecti
 		if (providerUsers.isEmpty()) {
 			throw new IllegalArgumentException("Unable to execute find: no providerUsers provided");
 		}
-		StringBuilder providerUsersCriteriaSql = new StringBuilder();
-		MapSqlParameterSource parameters = new MapSqlParameterSource();
-		parameters.addValue("localUserId", localUserId);
-		for (Iterator<Entry<String, List<String>>> it = providerUsers.entrySet().iterator(); it.hasNext();) {
-			Entry<String, List<String>> entry = it.next();
+		MultiValueMap<String, ServiceProviderConnection<?>> connectionsForUsers = new LinkedMultiValueMap<String, ServiceProviderConnection<?>>();
+		for (Entry<String, List<String>> entry : providerUsers.entrySet()) {
 			String providerId = entry.getKey();
-			providerUsersCriteriaSql.append("providerId = :providerId_").append(providerId).append(" and providerUserId in (:providerUserIds_").append(providerId).append(")");
-			parameters.addValue("providerId_" + providerId, providerId);
-			parameters.addValue("providerUserIds_" + providerId, entry.getValue());
-			if (it.hasNext()) {
-				providerUsersCriteriaSql.append(" or " );
+			List<String> userIds = entry.getValue();
+			ConnectionPlacer connectionPlacer = new ConnectionPlacer(userIds);
+			List<String> distinctUserIds = connectionPlacer.getDistinctUserIds();
+			boolean rangeBounded = isNumeric(distinctUserIds);
+			if (rangeBounded) {
+				Collections.sort(distinctUserIds);
 			}
-		}
-		List<ServiceProviderConnection<?>> resultList = new NamedParameterJdbcTemplate(jdbcTemplate).query(SELECT_FROM_SERVICE_PROVIDER_CONNECTION + " where localUserId = :localUserId and " + providerUsersCriteriaSql + " order by providerId, rank", parameters, connectionMapper);
-		MultiValueMap<String, ServiceProviderConnection<?>> connectionsForUsers = new LinkedMultiValueMap<String, ServiceProviderConnection<?>>();
-		for (ServiceProviderConnection<?> connection : resultList) {
-			String providerId = connection.getKey().getProviderId();
-			List<String> userIds = providerUsers.get(providerId);
-			List<ServiceProviderConnection<?>> connections = connectionsForUsers.get(providerId);
-			if (connections == null) {
-				connections = new ArrayList<ServiceProviderConnection<?>>(userIds.size());
-				for (int i = 0; i < userIds.size(); i++) {
-					connections.add(null);
+			for (int from = 0; from < distinctUserIds.size(); from += inClauseChunkSize) {
+				List<String> chunk = distinctUserIds.subList(from, Math.min(from + inClauseChunkSize, distinctUserIds.size()));
+				MapSqlParameterSource parameters = new MapSqlParameterSource();
+				parameters.addValue("localUserId", localUserId);
+				parameters.addValue("providerId", providerId);
+				parameters.addValue("providerUserIds", chunk);
+				String where = " where localUserId = :localUserId and providerId = :providerId and providerUserId in (:providerUserIds)";
+				if (rangeBounded) {
+					parameters.addValue("firstProviderUserId", chunk.get(0));
+					parameters.addValue("lastProviderUserId", chunk.get(chunk.size() - 1));
+					where += " and providerUserId between :firstProviderUserId and :lastProviderUserId";
 				}
-				connectionsForUsers.put(providerId, connections);
+				namedParameterJdbcTemplate.query(SELECT_FROM_SERVICE_PROVIDER_CONNECTION + where, parameters, connectionPlacer);
+			}
+			if (connectionPlacer.rowCount > 0) {
+				connectionsForUsers.put(providerId, new ArrayList<ServiceProviderConnection<?>>(Arrays.asList(connectionPlacer.connections)));
 			}
-			String providerUserId = connection.getKey().getProviderUserId();
-			int connectionIndex = userIds.indexOf(providerUserId);
-			connections.set(connectionIndex, connection);
 		}
 		return connectionsForUsers;
 	}
@@ -151,7 +168,7 @@ class JdbcServiceProviderConnectionRepository implements ServiceProviderConnecti
 	public void addConnection(ServiceProviderConnection<?> connection) {
 		try {
 			ServiceProviderConnectionData data = connection.createData();
-			jdbcTemplate.update("insert into ServiceProviderConnection (localUserId, providerId, providerUserId, rank, profileName, profileUrl, profilePictureUrl, accessToken, secret, refreshToken, expireTime) values (?, ?, ?, (select ifnull(max(rank) + 1, 1) from ServiceProviderConnection where localUserId = ? and providerId = ?), ?, ?, ?, ?, ?, ?, ?)",
+			jdbcTemplate.update(INSERT_SERVICE_PROVIDER_CONNECTION,
 					localUserId, data.getProviderId(), data.getProviderUserId(), localUserId, data.getProviderId(), data.getProfileName(), data.getProfileUrl(), data.getProfilePictureUrl(),
 					encrypt(data.getAccessToken()), encrypt(data.getSecret()), encrypt(data.getRefreshToken()), data.getExpireTime());
 		} catch (DuplicateKeyException e) {
@@ -159,6 +176,48 @@ class JdbcServiceProviderConnectionRepository implements ServiceProviderConnecti
 		}
 	}
 	
+	public void addConnections(List<ServiceProviderConnection<?>> connections) {
+		if (connections.isEmpty()) {
+			return;
+		}
+		Map<String, Set<String>> providerUserIds = new LinkedHashMap<String, Set<String>>();
+		final List<Object[]> batchArgs = new ArrayList<Object[]>(connections.size());
+		for (ServiceProviderConnection<?> connection : connections) {
+			ServiceProviderConnectionData data = connection.createData();
+			Set<String> userIds = providerUserIds.get(data.getProviderId());
+			if (userIds == null) {
+				userIds = new LinkedHashSet<String>();
+				providerUserIds.put(data.getProviderId(), userIds);
+			}
+			if (!userIds.add(data.getProviderUserId())) {
+				throw new DuplicateServiceProviderConnectionException(connection.getKey());
+			}
+			batchArgs.add(new Object[] { localUserId, data.getProviderId(), data.getProviderUserId(), localUserId, data.getProviderId(), data.getProfileName(), data.getProfileUrl(), data.getProfilePictureUrl(),
+					encrypt(data.getAccessToken()), encrypt(data.getSecret()), encrypt(data.getRefreshToken()), data.getExpireTime() });
+		}
+		for (int attempt = 1; ; attempt++) {
+			final boolean[] newTransaction = new boolean[1];
+			try {
+				transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+					protected void doInTransactionWithoutResult(TransactionStatus status) {
+						newTransaction[0] = status.isNewTransaction();
+						jdbcTemplate.batchUpdate(INSERT_SERVICE_PROVIDER_CONNECTION, batchArgs);
+					}
+				});
+				return;
+			} catch (DuplicateKeyException e) {
+				ServiceProviderConnectionKey existingKey = findExistingConnectionKey(providerUserIds);
+				if (existingKey != null) {
+					throw new DuplicateServiceProviderConnectionException(existingKey);
+				}
+				// a concurrent add took a rank this batch computed; the batch was rolled back, so it can be run again unless an enclosing transaction is now doomed
+				if (!newTransaction[0] || attempt == MAX_ADD_CONNECTIONS_ATTEMPTS) {
+					throw e;
+				}
+			}
+		}
+	}
+
 	public void updateConnection(ServiceProviderConnection<?> connection) {
 		ServiceProviderConnectionData data = connection.createData();
 		jdbcTemplate.update("update ServiceProviderConnection set profileName = ?, profileUrl = ?, profilePictureUrl = ?, accessToken = ?, secret = ?, refreshToken = ?, expireTime = ? where localUserId = ? and providerId = ? and providerUserId = ?",
@@ -166,6 +225,18 @@ class JdbcServiceProviderConnectionRepository implements ServiceProviderConnecti
 				localUserId, data.getProviderId(), data.getProviderUserId());
 	}
 
+	public void updateConnections(List<ServiceProviderConnection<?>> connections) {
+		List<Object[]> batchArgs = new ArrayList<Object[]>(connections.size());
+		for (ServiceProviderConnection<?> connection : connections) {
+			ServiceProviderConnectionData data = connection.createData();
+			batchArgs.add(new Object[] { data.getProfileName(), data.getProfileUrl(), data.getProfilePictureUrl(), encrypt(data.getAccessToken()), encrypt(data.getSecret()), encrypt(data.getRefreshToken()), data.getExpireTime(),
+					localUserId, data.getProviderId(), data.getProviderUserId() });
+		}
+		if (!batchArgs.isEmpty()) {
+			jdbcTemplate.batchUpdate("update ServiceProviderConnection set profileName = ?, profileUrl = ?, profilePictureUrl = ?, accessToken = ?, secret = ?, refreshToken = ?, expireTime = ? where localUserId = ? and providerId = ? and providerUserId = ?", batchArgs);
+		}
+	}
+
 	public void removeConnectionsToProvider(String providerId) {
 		jdbcTemplate.update("delete from ServiceProviderConnection where localUserId = ? and providerId = ?", localUserId, providerId);
 	}
@@ -174,34 +245,103 @@ class JdbcServiceProviderConnectionRepository implements ServiceProviderConnecti
 		jdbcTemplate.update("delete from ServiceProviderConnection where localUserId = ? and providerId = ? and providerUserId = ?", localUserId, connectionKey.getProviderId(), connectionKey.getProviderUserId());		
 	}
 
+	public void removeConnections(List<ServiceProviderConnectionKey> connectionKeys) {
+		List<Object[]> batchArgs = new ArrayList<Object[]>(connectionKeys.size());
+		for (ServiceProviderConnectionKey connectionKey : connectionKeys) {
+			batchArgs.add(new Object[] { localUserId, connectionKey.getProviderId(), connectionKey.getProviderUserId() });
+		}
+		if (!batchArgs.isEmpty()) {
+			jdbcTemplate.batchUpdate("delete from ServiceProviderConnection where localUserId = ? and providerId = ? and providerUserId = ?", batchArgs);
+		}
+	}
+
 	// internal helpers
 	
-	private final static String SELECT_FROM_SERVICE_PROVIDER_CONNECTION = "select localUserId, providerId, providerUserId, profileName, profileUrl, profilePictureUrl, accessToken, secret, refreshToken, expireTime from ServiceProviderConnection";
+	final static String SELECT_FROM_SERVICE_PROVIDER_CONNECTION = "select localUserId, providerId, providerUserId, profileName, profileUrl, profilePictureUrl, accessToken, secret, refreshToken, expireTime from ServiceProviderConnection";
 	
-	
-	private final ServiceProviderConnectionMapper connectionMapper = new ServiceProviderConnectionMapper();
-	
-	private final class ServiceProviderConnectionMapper implements RowMapper<ServiceProviderConnection<?>> {
-		
-		public ServiceProviderConnection<?> mapRow(ResultSet rs, int rowNum) throws SQLException {
-			ServiceProviderConnectionData connectionData = mapConnectionData(rs);
-			ServiceProviderConnectionFactory<?> connectionFactory = connectionFactoryLocator.getConnectionFactory(connectionData.getProviderId());
-			return connectionFactory.createConnection(connectionData);
-		}
-		
-		private ServiceProviderConnectionData mapConnectionData(ResultSet rs) throws SQLException {
-			return new ServiceProviderConnectionData(rs.getString("providerId"), rs.getString("providerUserId"), rs.getString("profileName"), rs.getString("profileUrl"), rs.getString("profilePictureUrl"),
-					decrypt(rs.getString("accessToken")), decrypt(rs.getString("secret")), decrypt(rs.getString("refreshToken")), expireTime(rs.getLong("expireTime")));
-		}
-		
-		private String decrypt(String encryptedText) {
-			return encryptedText != null ? textEncryptor.decrypt(encryptedText) : encryptedText;
-		}
-		
-		private Long expireTime(long expireTime) {
-			return expireTime == 0 ? null : expireTime;
-		}
-		
+	final static String INSERT_SERVICE_PROVIDER_CONNECTION = "insert into ServiceProviderConnection (localUserId, providerId, providerUserId, rank, profileName, profileUrl, profilePictureUrl, accessToken, secret, refreshToken, expireTime) values (?, ?, ?, (select ifnull(max(rank) + 1, 1) from ServiceProviderConnection where localUserId = ? and providerId = ?), ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final int MAX_ADD_CONNECTIONS_ATTEMPTS = 3;
+
+	/**
+	 * Returns the key of the first of the given connections the local user already has, or null if none is stored.
+	 * Looks the provider user ids up with one IN query per provider and chunk, rather than one query per connection.
+	 */
+	private ServiceProviderConnectionKey findExistingConnectionKey(Map<String, Set<String>> providerUserIds) {
+		for (Entry<String, Set<String>> entry : providerUserIds.entrySet()) {
+			String providerId = entry.getKey();
+			List<String> userIds = new ArrayList<String>(entry.getValue());
+			final Set<String> existingUserIds = new HashSet<String>();
+			for (int from = 0; from < userIds.size(); from += inClauseChunkSize) {
+				MapSqlParameterSource parameters = new MapSqlParameterSource();
+				parameters.addValue("localUserId", localUserId);
+				parameters.addValue("providerId", providerId);
+				parameters.addValue("providerUserIds", userIds.subList(from, Math.min(from + inClauseChunkSize, userIds.size())));
+				namedParameterJdbcTemplate.query("select providerUserId from ServiceProviderConnection where localUserId = :localUserId and providerId = :providerId and providerUserId in (:providerUserIds)", parameters, new RowCallbackHandler() {
+					public void processRow(ResultSet rs) throws SQLException {
+						existingUserIds.add(rs.getString("providerUserId"));
+					}
+				});
+			}
+			for (String userId : userIds) {
+				if (existingUserIds.contains(userId)) {
+					return new ServiceProviderConnectionKey(providerId, userId);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Places the connections read by {@link #findConnectionsForUsers(MultiValueMap)} at the position of their provider user id in the requested list,
+	 * looking positions up in a hash index rather than searching the list for each row.
+	 */
+	private final class ConnectionPlacer implements RowCallbackHandler {
+
+		private final Map<String, Integer> userIdIndexes;
+
+		private final ServiceProviderConnection<?>[] connections;
+
+		private int rowCount;
+
+		public ConnectionPlacer(List<String> userIds) {
+			userIdIndexes = new LinkedHashMap<String, Integer>(userIds.size() * 4 / 3 + 1);
+			for (int i = 0; i < userIds.size(); i++) {
+				if (!userIdIndexes.containsKey(userIds.get(i))) {
+					userIdIndexes.put(userIds.get(i), i);
+				}
+			}
+			connections = new ServiceProviderConnection<?>[userIds.size()];
+		}
+
+		public List<String> getDistinctUserIds() {
+			return new ArrayList<String>(userIdIndexes.keySet());
+		}
+
+		public void processRow(ResultSet rs) throws SQLException {
+			connections[userIdIndexes.get(rs.getString("providerUserId"))] = connectionMapper.mapRow(rs, rowCount++);
+		}
+
+	}
+
+	/*
+	 * Numeric ids, as Facebook and Twitter issue, are sorted before chunking so each chunk can also be bounded by a key range.
+	 * That lets databases that match an IN list against every row of the (localUserId, providerId) prefix, such as H2, scan only the chunk's slice of the primary key.
+	 * Other ids are left unbounded: a collation may order letters differently than Java does, and the range could then exclude matches.
+	 */
+	private boolean isNumeric(List<String> providerUserIds) {
+		for (String providerUserId : providerUserIds) {
+			if (providerUserId == null || providerUserId.length() == 0) {
+				return false;
+			}
+			for (int i = 0; i < providerUserId.length(); i++) {
+				char c = providerUserId.charAt(i);
+				if (c < '0' || c > '9') {
+					return false;
+				}
+			}
+		}
+		return true;
 	}
 
 	private <S> String getProviderId(Class<S> serviceApiType) {
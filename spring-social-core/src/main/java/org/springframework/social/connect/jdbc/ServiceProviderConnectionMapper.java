@@ -0,0 +1,65 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.crypto.encrypt.TextEncryptor;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionData;
+import org.springframework.social.connect.ServiceProviderConnectionFactory;
+import org.springframework.social.connect.ServiceProviderConnectionFactoryLocator;
+
+/**
+ * Maps a row of the ServiceProviderConnection table to a ServiceProviderConnection, decrypting its tokens.
+ * Stateless; one instance is shared by a JdbcMultiUserServiceProviderConnectionRepository and the per-user repositories it creates.
+ * @author agent
+ */
+class ServiceProviderConnectionMapper implements RowMapper<ServiceProviderConnection<?>> {
+
+	private final ServiceProviderConnectionFactoryLocator connectionFactoryLocator;
+
+	private final TextEncryptor textEncryptor;
+
+	public ServiceProviderConnectionMapper(ServiceProviderConnectionFactoryLocator connectionFactoryLocator, TextEncryptor textEncryptor) {
+		this.connectionFactoryLocator = connectionFactoryLocator;
+		this.textEncryptor = textEncryptor;
+	}
+
+	public ServiceProviderConnection<?> mapRow(ResultSet rs, int rowNum) throws SQLException {
+		ServiceProviderConnectionData connectionData = mapConnectionData(rs);
+		ServiceProviderConnectionFactory<?> connectionFactory = connectionFactoryLocator.getConnectionFactory(connectionData.getProviderId());
+		return connectionFactory.createConnection(connectionData);
+	}
+
+	// internal helpers
+
+	private ServiceProviderConnectionData mapConnectionData(ResultSet rs) throws SQLException {
+		return new ServiceProviderConnectionData(rs.getString("providerId"), rs.getString("providerUserId"), rs.getString("profileName"), rs.getString("profileUrl"), rs.getString("profilePictureUrl"),
+				decrypt(rs.getString("accessToken")), decrypt(rs.getString("secret")), decrypt(rs.getString("refreshToken")), expireTime(rs.getLong("expireTime")));
+	}
+
+	private String decrypt(String encryptedText) {
+		return encryptedText != null ? textEncryptor.decrypt(encryptedText) : encryptedText;
+	}
+
+	private Long expireTime(long expireTime) {
+		return expireTime == 0 ? null : expireTime;
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.social.connect.MultiUserServiceProviderConnectionRepository;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionFactoryLocator;
+import org.springframework.social.connect.ServiceProviderConnectionHandler;
+import org.springframework.social.connect.ServiceProviderConnectionKey;
+import org.springframework.social.connect.ServiceProviderConnectionRepository;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * A MultiUserServiceProviderConnectionRepository decorator whose per-user repositories cache the connections they load.
+ * All repositories it creates share one {@link ServiceProviderConnectionCache}, so connections loaded while serving one request for a local user
+ * are reused by the next. Lookups of local users by provider user and bulk lookups across local users are always delegated.
+ * @author agent
+ * @see CachingServiceProviderConnectionRepository
+ */
+public class CachingMultiUserServiceProviderConnectionRepository implements MultiUserServiceProviderConnectionRepository {
+
+	private final MultiUserServiceProviderConnectionRepository targetRepository;
+
+	private final ServiceProviderConnectionFactoryLocator connectionFactoryLocator;
+
+	private final ServiceProviderConnectionCache connectionCache;
+
+	/**
+	 * Creates a caching repository backed by a {@link ServiceProviderConnectionCache} with default limits.
+	 */
+	public CachingMultiUserServiceProviderConnectionRepository(MultiUserServiceProviderConnectionRepository targetRepository, ServiceProviderConnectionFactoryLocator connectionFactoryLocator) {
+		this(targetRepository, connectionFactoryLocator, new ServiceProviderConnectionCache());
+	}
+
+	public CachingMultiUserServiceProviderConnectionRepository(MultiUserServiceProviderConnectionRepository targetRepository, ServiceProviderConnectionFactoryLocator connectionFactoryLocator,
+			ServiceProviderConnectionCache connectionCache) {
+		this.targetRepository = targetRepository;
+		this.connectionFactoryLocator = connectionFactoryLocator;
+		this.connectionCache = connectionCache;
+	}
+
+	/**
+	 * The cache shared by the repositories this repository creates; exposes hit and miss counts for monitoring.
+	 */
+	public ServiceProviderConnectionCache getConnectionCache() {
+		return connectionCache;
+	}
+
+	public String findLocalUserIdConnectedTo(ServiceProviderConnectionKey connectionKey) {
+		return targetRepository.findLocalUserIdConnectedTo(connectionKey);
+	}
+
+	public Set<String> findLocalUserIdsConnectedTo(String providerId, List<String> providerUserIds) {
+		return targetRepository.findLocalUserIdsConnectedTo(providerId, providerUserIds);
+	}
+
+	public MultiValueMap<String, ServiceProviderConnection<?>> findConnectionsForLocalUsers(String providerId, List<String> localUserIds) {
+		return targetRepository.findConnectionsForLocalUsers(providerId, localUserIds);
+	}
+
+	public void findConnectionsForLocalUsers(String providerId, List<String> localUserIds, ServiceProviderConnectionHandler handler) {
+		targetRepository.findConnectionsForLocalUsers(providerId, localUserIds, handler);
+	}
+
+	public void findConnectionsExpiringBetween(long fromTime, long toTime, int maxConnections, ServiceProviderConnectionHandler handler) {
+		targetRepository.findConnectionsExpiringBetween(fromTime, toTime, maxConnections, handler);
+	}
+
+	public ServiceProviderConnectionRepository createConnectionRepository(String localUserId) {
+		return new CachingServiceProviderConnectionRepository(localUserId, targetRepository.createConnectionRepository(localUserId), connectionFactoryLocator, connectionCache);
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.social.connect.NoSuchServiceProviderConnectionException;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionFactoryLocator;
+import org.springframework.social.connect.ServiceProviderConnectionKey;
+import org.springframework.social.connect.ServiceProviderConnectionRepository;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * A ServiceProviderConnectionRepository decorator that answers lookups by provider from a {@link ServiceProviderConnectionCache}.
+ * The first lookup of a local user's connections to a provider loads them from the target repository; subsequent lookups are served from the cache
+ * until the entry expires or is evicted. Adding, updating or removing a connection through this repository invalidates the cached connections to its provider.
+ * {@link #findConnectionsForUsers(MultiValueMap)} is always delegated.
+ * @author agent
+ */
+public class CachingServiceProviderConnectionRepository implements ServiceProviderConnectionRepository {
+
+	private final String localUserId;
+
+	private final ServiceProviderConnectionRepository targetRepository;
+
+	private final ServiceProviderConnectionFactoryLocator connectionFactoryLocator;
+
+	private final ServiceProviderConnectionCache connectionCache;
+
+	public CachingServiceProviderConnectionRepository(String localUserId, ServiceProviderConnectionRepository targetRepository, ServiceProviderConnectionFactoryLocator connectionFactoryLocator,
+			ServiceProviderConnectionCache connectionCache) {
+		this.localUserId = localUserId;
+		this.targetRepository = targetRepository;
+		this.connectionFactoryLocator = connectionFactoryLocator;
+		this.connectionCache = connectionCache;
+	}
+
+	public MultiValueMap<String, ServiceProviderConnection<?>> findConnectionsToProviders() {
+		Set<String> registeredProviderIds = connectionFactoryLocator.registeredProviderIds();
+		MultiValueMap<String, ServiceProviderConnection<?>> connections = new LinkedMultiValueMap<String, ServiceProviderConnection<?>>();
+		for (String registeredProviderId : registeredProviderIds) {
+			List<ServiceProviderConnection<?>> cachedConnections = connectionCache.get(localUserId, registeredProviderId);
+			if (cachedConnections == null) {
+				return loadConnectionsToProviders(registeredProviderIds);
+			}
+			if (cachedConnections.isEmpty()) {
+				connections.put(registeredProviderId, Collections.<ServiceProviderConnection<?>>emptyList());
+			} else {
+				connections.put(registeredProviderId, new LinkedList<ServiceProviderConnection<?>>(cachedConnections));
+			}
+		}
+		return connections;
+	}
+
+	public List<ServiceProviderConnection<?>> findConnectionsToProvider(String providerId) {
+		return new ArrayList<ServiceProviderConnection<?>>(getConnectionsToProvider(providerId));
+	}
+
+	public MultiValueMap<String, ServiceProviderConnection<?>> findConnectionsForUsers(MultiValueMap<String, String> providerUsers) {
+		return targetRepository.findConnectionsForUsers(providerUsers);
+	}
+
+	public ServiceProviderConnection<?> findConnection(ServiceProviderConnectionKey connectionKey) {
+		for (ServiceProviderConnection<?> connection : getConnectionsToProvider(connectionKey.getProviderId())) {
+			if (ObjectUtils.nullSafeEquals(connection.getKey().getProviderUserId(), connectionKey.getProviderUserId())) {
+				return connection;
+			}
+		}
+		throw new NoSuchServiceProviderConnectionException(connectionKey);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <S> ServiceProviderConnection<S> findConnectionByServiceApi(Class<S> serviceApiType) {
+		List<ServiceProviderConnection<?>> connections = getConnectionsToProvider(getProviderId(serviceApiType));
+		return connections.isEmpty() ? null : (ServiceProviderConnection<S>) connections.get(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <S> List<ServiceProviderConnection<S>> findConnectionsByServiceApi(Class<S> serviceApiType) {
+		List<?> connections = findConnectionsToProvider(getProviderId(serviceApiType));
+		return (List<ServiceProviderConnection<S>>) connections;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <S> ServiceProviderConnection<S> findConnectionByServiceApiForUser(Class<S> serviceApiType, String providerUserId) {
+		return (ServiceProviderConnection<S>) findConnection(new ServiceProviderConnectionKey(getProviderId(serviceApiType), providerUserId));
+	}
+
+	public void addConnection(ServiceProviderConnection<?> connection) {
+		try {
+			targetRepository.addConnection(connection);
+		} finally {
+			connectionCache.invalidate(localUserId, connection.getKey().getProviderId());
+		}
+	}
+
+	public void addConnections(List<ServiceProviderConnection<?>> connections) {
+		try {
+			targetRepository.addConnections(connections);
+		} finally {
+			invalidateConnections(connections);
+		}
+	}
+
+	public void updateConnection(ServiceProviderConnection<?> connection) {
+		try {
+			targetRepository.updateConnection(connection);
+		} finally {
+			connectionCache.invalidate(localUserId, connection.getKey().getProviderId());
+		}
+	}
+
+	public void updateConnections(List<ServiceProviderConnection<?>> connections) {
+		try {
+			targetRepository.updateConnections(connections);
+		} finally {
+			invalidateConnections(connections);
+		}
+	}
+
+	public void removeConnectionsToProvider(String providerId) {
+		try {
+			targetRepository.removeConnectionsToProvider(providerId);
+		} finally {
+			connectionCache.invalidate(localUserId, providerId);
+		}
+	}
+
+	public void removeConnection(ServiceProviderConnectionKey connectionKey) {
+		try {
+			targetRepository.removeConnection(connectionKey);
+		} finally {
+			connectionCache.invalidate(localUserId, connectionKey.getProviderId());
+		}
+	}
+
+	public void removeConnections(List<ServiceProviderConnectionKey> connectionKeys) {
+		try {
+			targetRepository.removeConnections(connectionKeys);
+		} finally {
+			Set<String> providerIds = new HashSet<String>();
+			for (ServiceProviderConnectionKey connectionKey : connectionKeys) {
+				if (providerIds.add(connectionKey.getProviderId())) {
+					connectionCache.invalidate(localUserId, connectionKey.getProviderId());
+				}
+			}
+		}
+	}
+
+	// internal helpers
+
+	private List<ServiceProviderConnection<?>> getConnectionsToProvider(String providerId) {
+		List<ServiceProviderConnection<?>> connections = connectionCache.get(localUserId, providerId);
+		if (connections == null) {
+			long stamp = connectionCache.stamp();
+			connections = targetRepository.findConnectionsToProvider(providerId);
+			connectionCache.put(localUserId, providerId, connections, stamp);
+		}
+		return connections;
+	}
+
+	private MultiValueMap<String, ServiceProviderConnection<?>> loadConnectionsToProviders(Set<String> registeredProviderIds) {
+		long stamp = connectionCache.stamp();
+		MultiValueMap<String, ServiceProviderConnection<?>> connections = targetRepository.findConnectionsToProviders();
+		for (String registeredProviderId : registeredProviderIds) {
+			List<ServiceProviderConnection<?>> providerConnections = connections.get(registeredProviderId);
+			if (providerConnections == null) {
+				providerConnections = Collections.emptyList();
+			}
+			connectionCache.put(localUserId, registeredProviderId, providerConnections, stamp);
+		}
+		return connections;
+	}
+
+	private void invalidateConnections(List<ServiceProviderConnection<?>> connections) {
+		Set<String> providerIds = new HashSet<String>();
+		for (ServiceProviderConnection<?> connection : connections) {
+			if (providerIds.add(connection.getKey().getProviderId())) {
+				connectionCache.invalidate(localUserId, connection.getKey().getProviderId());
+			}
+		}
+	}
+
+	private String getProviderId(Class<?> serviceApiType) {
+		return connectionFactoryLocator.getConnectionFactory(serviceApiType).getProviderId();
+	}
+
+}
@@ -36,7 +36,7 @@ public class OAuth1ServiceProviderConnection<S> implements ServiceProviderConnec
 	
 	private String secret;
 
-	private S serviceApi;
+	private volatile S serviceApi;
 
 	private final Object monitor = new Object();
 	
@@ -44,7 +44,6 @@ public class OAuth1ServiceProviderConnection<S> implements ServiceProviderConnec
 		this.serviceProvider = serviceProvider;
 		this.serviceApiAdapter = serviceApiAdapter;
 		initAccessTokens(accessToken, secret);
-		initServiceApi();
 		this.key = createKey(providerId, providerUserId);
 	}
 
@@ -54,7 +53,6 @@ public class OAuth1ServiceProviderConnection<S> implements ServiceProviderConnec
 		this.serviceProvider = serviceProvider;
 		this.serviceApiAdapter = serviceApiAdapter;
 		initAccessTokens(accessToken, secret);
-		initServiceApi();
 	}
 
 	public ServiceProviderConnectionKey getKey() {
@@ -68,7 +66,7 @@ public class OAuth1ServiceProviderConnection<S> implements ServiceProviderConnec
 	}
 
 	public boolean test() {
-		return serviceApiAdapter.test(serviceApi);
+		return serviceApiAdapter.test(getServiceApi());
 	}
 
 	public boolean hasExpired() {
@@ -80,7 +78,7 @@ public class OAuth1ServiceProviderConnection<S> implements ServiceProviderConnec
 	}
 
 	public void updateStatus(String message) {
-		serviceApiAdapter.updateStatus(serviceApi, message);
+		serviceApiAdapter.updateStatus(getServiceApi(), message);
 	}
 
 	public void sync() {
@@ -90,6 +88,15 @@ public class OAuth1ServiceProviderConnection<S> implements ServiceProviderConnec
 	}
 
 	public S getServiceApi() {
+		S serviceApi = this.serviceApi;
+		if (serviceApi == null) {
+			synchronized (monitor) {
+				if (this.serviceApi == null) {
+					initServiceApi();
+				}
+				serviceApi = this.serviceApi;
+			}
+		}
 		return serviceApi;
 	}
 
@@ -132,7 +139,7 @@ public class OAuth1ServiceProviderConnection<S> implements ServiceProviderConnec
 	}
 	
 	private void initUser() {
-		user = serviceApiAdapter.getUser(serviceApi);
+		user = serviceApiAdapter.getUser(getServiceApi());
 	}
 
 }
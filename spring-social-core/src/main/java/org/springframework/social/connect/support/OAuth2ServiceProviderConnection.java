@@ -16,11 +16,9 @@
 package org.springframework.social.connect.support;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 
-import org.springframework.core.GenericTypeResolver;
-import org.springframework.social.ServiceProvider;
 import org.springframework.social.connect.ServiceProviderConnection;
 import org.springframework.social.connect.ServiceProviderConnectionData;
 import org.springframework.social.connect.ServiceProviderConnectionKey;
@@ -39,37 +37,39 @@ public class OAuth2ServiceProviderConnection<S> implements ServiceProviderConnec
 
 	private ServiceProviderUser user;
 
-	private String accessToken;
+	private volatile AccessState<S> accessState;
 	
-	private String refreshToken;
-	
-	private Long expireTime;
-
-	private S serviceApi;
-	
-	private S serviceApiProxy;
+	private final S serviceApiProxy;
 
 	private final Object monitor = new Object();
 
 	public OAuth2ServiceProviderConnection(String providerId, String providerUserId, String accessToken, String refreshToken, Long expireTime,
 			OAuth2ServiceProvider<S> serviceProvider, ServiceApiAdapter<S> serviceApiAdapter) {
-		this.serviceProvider = serviceProvider;
-		this.serviceApiAdapter = serviceApiAdapter;
-		initAccessTokens(accessToken, refreshToken, expireTime);
-		initServiceApi();
-		initServiceApiProxy();
-		this.key = createKey(providerId, providerUserId);
+		this(providerId, providerUserId, accessToken, refreshToken, expireTime, serviceProvider, serviceApiAdapter, new ServiceApiProxyFactory<S>(serviceProvider.getClass()));
 	}
 	
 	public OAuth2ServiceProviderConnection(ServiceProviderConnectionKey key, ServiceProviderUser user, String accessToken, String refreshToken, Long expireTime,
 			OAuth2ServiceProvider<S> serviceProvider, ServiceApiAdapter<S> serviceApiAdapter) {
+		this(key, user, accessToken, refreshToken, expireTime, serviceProvider, serviceApiAdapter, new ServiceApiProxyFactory<S>(serviceProvider.getClass()));
+	}
+
+	OAuth2ServiceProviderConnection(String providerId, String providerUserId, String accessToken, String refreshToken, Long expireTime,
+			OAuth2ServiceProvider<S> serviceProvider, ServiceApiAdapter<S> serviceApiAdapter, ServiceApiProxyFactory<S> serviceApiProxyFactory) {
+		this.serviceProvider = serviceProvider;
+		this.serviceApiAdapter = serviceApiAdapter;
+		initAccessState(accessToken, refreshToken, expireTime);
+		this.serviceApiProxy = serviceApiProxyFactory.createProxy(new ServiceApiInvocationHandler());
+		this.key = createKey(providerId, providerUserId);
+	}
+
+	OAuth2ServiceProviderConnection(ServiceProviderConnectionKey key, ServiceProviderUser user, String accessToken, String refreshToken, Long expireTime,
+			OAuth2ServiceProvider<S> serviceProvider, ServiceApiAdapter<S> serviceApiAdapter, ServiceApiProxyFactory<S> serviceApiProxyFactory) {
 		this.key = key;
 		this.user = user;
 		this.serviceProvider = serviceProvider;
 		this.serviceApiAdapter = serviceApiAdapter;
-		initAccessTokens(accessToken, refreshToken, expireTime);
-		initServiceApi();
-		initServiceApiProxy();
+		initAccessState(accessToken, refreshToken, expireTime);
+		this.serviceApiProxy = serviceApiProxyFactory.createProxy(new ServiceApiInvocationHandler());
 	}
 
 	public ServiceProviderConnectionKey getKey() {
@@ -90,16 +90,13 @@ public class OAuth2ServiceProviderConnection<S> implements ServiceProviderConnec
 	}
 
 	public boolean hasExpired() {
-		synchronized (monitor) {
-			return expireTime != null && System.currentTimeMillis() >= expireTime;
-		}
+		return accessState.hasExpired();
 	}
 
 	public void refresh() {
 		synchronized (monitor) {
-			AccessGrant accessGrant = serviceProvider.getOAuthOperations().refreshAccess(refreshToken, null, null);
-			initAccessTokens(accessGrant.getAccessToken(), accessGrant.getRefreshToken(), accessGrant.getExpireTime());
-			initServiceApi();
+			AccessGrant accessGrant = serviceProvider.getOAuthOperations().refreshAccess(accessState.refreshToken, null, null);
+			initAccessState(accessGrant.getAccessToken(), accessGrant.getRefreshToken(), accessGrant.getExpireTime());
 		}
 	}
 
@@ -114,18 +111,14 @@ public class OAuth2ServiceProviderConnection<S> implements ServiceProviderConnec
 	}
 
 	public S getServiceApi() {
-		if (serviceApiProxy != null) {
-			return serviceApiProxy;
-		} else {
-			synchronized (monitor) {
-				return serviceApi;
-			}
-		}
+		return serviceApiProxy != null ? serviceApiProxy : accessState.getServiceApi();
 	}
 
 	public ServiceProviderConnectionData createData() {
 		synchronized (monitor) {
-			return new ServiceProviderConnectionData(key.getProviderId(), key.getProviderUserId(), user.getProfileName(), user.getProfileUrl(), user.getProfilePictureUrl(), accessToken, null, refreshToken, expireTime);
+			AccessState<S> accessState = this.accessState;
+			return new ServiceProviderConnectionData(key.getProviderId(), key.getProviderUserId(), user.getProfileName(), user.getProfileUrl(), user.getProfilePictureUrl(),
+					accessState.accessToken, null, accessState.refreshToken, accessState.expireTime);
 		}
 	}
 
@@ -146,32 +139,64 @@ public class OAuth2ServiceProviderConnection<S> implements ServiceProviderConnec
 	
 	// internal helpers
 	
-	private void initAccessTokens(String accessToken, String refreshToken, Long expireTime) {
-		this.accessToken = accessToken;
-		this.refreshToken = refreshToken;
-		this.expireTime = expireTime;		
-	}
-	
-	private void initServiceApi() {
-		serviceApi = serviceProvider.getServiceApi(accessToken);
+	private void initAccessState(String accessToken, String refreshToken, Long expireTime) {
+		accessState = new AccessState<S>(accessToken, refreshToken, expireTime, serviceProvider);
 	}
 	
-	@SuppressWarnings("unchecked")
-	private void initServiceApiProxy() {
-		Class<?> serviceApiType = GenericTypeResolver.resolveTypeArgument(serviceProvider.getClass(), ServiceProvider.class);
-		if (serviceApiType.isInterface()) {
-			serviceApiProxy = (S) Proxy.newProxyInstance(serviceApiType.getClassLoader(), new Class[] { serviceApiType }, new ServiceApiInvocationHandler());
-		}		
+	/**
+	 * The access grant of this connection and the service API bound to it.
+	 * A refresh replaces the whole state, so a caller that reads the state once sees a token and service API that belong together.
+	 * The service API is only built the first time it is needed, so connections that are loaded but never used cost no more than their tokens.
+	 */
+	private static final class AccessState<S> {
+
+		private final String accessToken;
+
+		private final String refreshToken;
+
+		private final Long expireTime;
+
+		private final OAuth2ServiceProvider<S> serviceProvider;
+
+		private volatile S serviceApi;
+
+		public AccessState(String accessToken, String refreshToken, Long expireTime, OAuth2ServiceProvider<S> serviceProvider) {
+			this.accessToken = accessToken;
+			this.refreshToken = refreshToken;
+			this.expireTime = expireTime;
+			this.serviceProvider = serviceProvider;
+		}
+
+		public boolean hasExpired() {
+			return expireTime != null && System.currentTimeMillis() >= expireTime;
+		}
+
+		public S getServiceApi() {
+			S serviceApi = this.serviceApi;
+			if (serviceApi == null) {
+				synchronized (this) {
+					if (this.serviceApi == null) {
+						this.serviceApi = serviceProvider.getServiceApi(accessToken);
+					}
+					serviceApi = this.serviceApi;
+				}
+			}
+			return serviceApi;
+		}
+
 	}
-	
+
 	private class ServiceApiInvocationHandler implements InvocationHandler {
 
 		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-			synchronized (monitor) {
-				if (OAuth2ServiceProviderConnection.this.hasExpired()) {
-					throw new IllegalStateException("This OAuth2-based ServiceProviderConnection has expired: it is not possible to invoke the service API");
-				}
-				return method.invoke(OAuth2ServiceProviderConnection.this.serviceApi, args);				
+			AccessState<S> accessState = OAuth2ServiceProviderConnection.this.accessState;
+			if (accessState.hasExpired()) {
+				throw new IllegalStateException("This OAuth2-based ServiceProviderConnection has expired: it is not possible to invoke the service API");
+			}
+			try {
+				return method.invoke(accessState.getServiceApi(), args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
 			}
 		}
 	}
@@ -185,7 +210,7 @@ public class OAuth2ServiceProviderConnection<S> implements ServiceProviderConnec
 	}
 	
 	private void initUser() {
-		user = serviceApiAdapter.getUser(serviceApi);
+		user = serviceApiAdapter.getUser(accessState.getServiceApi());
 	}
 
 }
\ No newline at end of file
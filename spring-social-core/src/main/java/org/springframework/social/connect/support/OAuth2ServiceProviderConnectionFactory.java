@@ -27,8 +27,11 @@ import org.springframework.social.oauth2.OAuth2ServiceProvider;
 
 public class OAuth2ServiceProviderConnectionFactory<S> extends ServiceProviderConnectionFactory<S> {
 	
+	private final ServiceApiProxyFactory<S> serviceApiProxyFactory;
+
 	public OAuth2ServiceProviderConnectionFactory(String providerId, OAuth2ServiceProvider<S> serviceProvider, ServiceApiAdapter<S> serviceApiAdapter) {
 		super(providerId, serviceProvider, serviceApiAdapter);
+		this.serviceApiProxyFactory = new ServiceApiProxyFactory<S>(serviceProvider.getClass());
 	}
 
 	public OAuth2Operations getOAuthOperations() {
@@ -37,13 +40,13 @@ public class OAuth2ServiceProviderConnectionFactory<S> extends ServiceProviderCo
 	
 	public ServiceProviderConnection<S> createConnection(AccessGrant accessGrant) {
 		return new OAuth2ServiceProviderConnection<S>(getProviderId(), extractProviderUserId(accessGrant),
-				accessGrant.getAccessToken(), accessGrant.getRefreshToken(), accessGrant.getExpireTime(), getOAuth2ServiceProvider(), getServiceApiAdapter());		
+				accessGrant.getAccessToken(), accessGrant.getRefreshToken(), accessGrant.getExpireTime(), getOAuth2ServiceProvider(), getServiceApiAdapter(), serviceApiProxyFactory);		
 	}
 	
 	public ServiceProviderConnection<S> createConnection(ServiceProviderConnectionData data) {
 		ServiceProviderConnectionKey key = new ServiceProviderConnectionKey(data.getProviderId(), data.getProviderUserId());
 		ServiceProviderUser user = new ServiceProviderUser(data.getProviderUserId(), data.getProfileName(), data.getProfileUrl(), data.getProfilePictureUrl());
-		return new OAuth2ServiceProviderConnection<S>(key, user, data.getAccessToken(), data.getRefreshToken(), data.getExpireTime(), getOAuth2ServiceProvider(), getServiceApiAdapter());
+		return new OAuth2ServiceProviderConnection<S>(key, user, data.getAccessToken(), data.getRefreshToken(), data.getExpireTime(), getOAuth2ServiceProvider(), getServiceApiAdapter(), serviceApiProxyFactory);
 	}
 	
 	// subclassing hooks
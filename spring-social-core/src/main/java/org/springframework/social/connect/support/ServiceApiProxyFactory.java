@@ -0,0 +1,71 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.social.ServiceProvider;
+
+/**
+ * Creates the proxies that OAuth2ServiceProviderConnection places in front of its service API.
+ * Resolving the service API type and generating the proxy class is done once, when the factory is constructed;
+ * creating a proxy for a connection is then a single constructor call.
+ * An OAuth2ServiceProviderConnectionFactory holds one for all the connections it creates.
+ * @author agent
+ */
+class ServiceApiProxyFactory<S> {
+
+	private final Constructor<?> proxyConstructor;
+
+	/**
+	 * Creates a proxy factory for the service API of the given type of service provider.
+	 * If the service API type is not an interface, no proxies are created.
+	 */
+	public ServiceApiProxyFactory(Class<?> serviceProviderType) {
+		Class<?> serviceApiType = GenericTypeResolver.resolveTypeArgument(serviceProviderType, ServiceProvider.class);
+		if (serviceApiType != null && serviceApiType.isInterface()) {
+			try {
+				proxyConstructor = Proxy.getProxyClass(serviceApiType.getClassLoader(), new Class[] { serviceApiType }).getConstructor(InvocationHandler.class);
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException("Unable to create a proxy class for " + serviceApiType, e);
+			}
+		} else {
+			proxyConstructor = null;
+		}
+	}
+
+	/**
+	 * Creates a service API proxy that dispatches to the given handler, or returns null if the service API type is not an interface.
+	 */
+	@SuppressWarnings("unchecked")
+	public S createProxy(InvocationHandler invocationHandler) {
+		if (proxyConstructor == null) {
+			return null;
+		}
+		try {
+			return (S) proxyConstructor.newInstance(invocationHandler);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException("Unable to create service API proxy", e.getTargetException());
+		} catch (Exception e) {
+			throw new IllegalStateException("Unable to create service API proxy", e);
+		}
+	}
+
+}
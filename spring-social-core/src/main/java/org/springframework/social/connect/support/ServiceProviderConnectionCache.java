@@ -0,0 +1,258 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.social.connect.ServiceProviderConnection;
+
+/**
+ * A bounded, time-limited cache of the connections a local user has to a provider, keyed by (localUserId, providerId).
+ * Holds fully built connections, so a cache hit skips the database query, the token decryption and the construction of the service API binding.
+ * Shared by the {@link CachingServiceProviderConnectionRepository} instances of a {@link CachingMultiUserServiceProviderConnectionRepository}.
+ * <p>
+ * Entries are evicted least recently used first once the cache holds maxEntries, and are treated as absent once older than timeToLive.
+ * Hit, miss and eviction counts are kept for monitoring.
+ * </p>
+ * @author agent
+ */
+public class ServiceProviderConnectionCache {
+
+	/**
+	 * The default maximum number of (localUserId, providerId) entries held.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+	/**
+	 * The default time, in milliseconds, an entry is served before it is reloaded.
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE = 5 * 60 * 1000;
+
+	private final long timeToLive;
+
+	private final Map<CacheKey, CacheEntry> entries;
+
+	private final int maxEntries;
+
+	// local user ID to the sequence number of the user's latest invalidation
+	private final Map<String, Long> invalidations = new HashMap<String, Long>();
+
+	private long sequence;
+
+	// stamps taken before this may predate invalidations no longer recorded
+	private long oldestValidStamp;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private final Object monitor = new Object();
+
+	/**
+	 * Creates a cache holding up to {@link #DEFAULT_MAX_ENTRIES} entries for {@link #DEFAULT_TIME_TO_LIVE} milliseconds each.
+	 */
+	public ServiceProviderConnectionCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_TIME_TO_LIVE);
+	}
+
+	/**
+	 * Creates a cache.
+	 * @param maxEntries the maximum number of (localUserId, providerId) entries held
+	 * @param timeToLive the time, in milliseconds, an entry is served before it is reloaded
+	 */
+	public ServiceProviderConnectionCache(final int maxEntries, long timeToLive) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be greater than 0");
+		}
+		if (timeToLive <= 0) {
+			throw new IllegalArgumentException("timeToLive must be greater than 0");
+		}
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+		this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+				if (size() > maxEntries) {
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * The number of lookups answered from the cache.
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * The number of lookups that had to be loaded from the underlying repository.
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * The number of entries evicted to keep the cache within its maximum size.
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * The fraction of lookups answered from the cache; 0 if there have been no lookups.
+	 */
+	public double getHitRatio() {
+		long hits = hitCount.get();
+		long lookups = hits + missCount.get();
+		return lookups > 0 ? (double) hits / lookups : 0;
+	}
+
+	/**
+	 * The number of entries currently held, including any that have expired but not yet been replaced.
+	 */
+	public int size() {
+		synchronized (monitor) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		synchronized (monitor) {
+			entries.clear();
+			forgetInvalidations();
+		}
+	}
+
+	// package private cache operations used by CachingServiceProviderConnectionRepository
+
+	/**
+	 * Returns the cached connections of the local user to the provider, in rank order, or null if not cached.
+	 */
+	List<ServiceProviderConnection<?>> get(String localUserId, String providerId) {
+		CacheKey key = new CacheKey(localUserId, providerId);
+		synchronized (monitor) {
+			CacheEntry entry = entries.get(key);
+			if (entry != null && System.currentTimeMillis() - entry.loadTime < timeToLive) {
+				hitCount.incrementAndGet();
+				return entry.connections;
+			}
+			if (entry != null) {
+				entries.remove(key);
+			}
+		}
+		missCount.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Returns a stamp to be taken before loading connections and handed to {@link #put(String, String, List, long)}.
+	 */
+	long stamp() {
+		synchronized (monitor) {
+			return sequence;
+		}
+	}
+
+	/**
+	 * Caches connections loaded from the underlying repository.
+	 * The connections are discarded if the local user's entries were invalidated since the stamp was taken, as they may have been loaded
+	 * before the write that caused it. Invalidations for other users do not affect the put.
+	 */
+	void put(String localUserId, String providerId, List<ServiceProviderConnection<?>> connections, long stamp) {
+		CacheEntry entry = new CacheEntry(connections, System.currentTimeMillis());
+		synchronized (monitor) {
+			Long invalidated = invalidations.get(localUserId);
+			if (stamp >= oldestValidStamp && (invalidated == null || invalidated <= stamp)) {
+				entries.put(new CacheKey(localUserId, providerId), entry);
+			}
+		}
+	}
+
+	/**
+	 * Removes the cached connections of the local user to the provider.
+	 */
+	void invalidate(String localUserId, String providerId) {
+		synchronized (monitor) {
+			entries.remove(new CacheKey(localUserId, providerId));
+			invalidations.put(localUserId, ++sequence);
+			if (invalidations.size() > maxEntries) {
+				forgetInvalidations();
+			}
+		}
+	}
+
+	// internal helpers
+
+	// keeps the invalidation record bounded; loads in flight when it is forgotten are simply not cached
+	private void forgetInvalidations() {
+		invalidations.clear();
+		oldestValidStamp = ++sequence;
+	}
+
+	private static final class CacheKey {
+
+		private final String localUserId;
+
+		private final String providerId;
+
+		public CacheKey(String localUserId, String providerId) {
+			this.localUserId = localUserId;
+			this.providerId = providerId;
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey other = (CacheKey) o;
+			return localUserId.equals(other.localUserId) && providerId.equals(other.providerId);
+		}
+
+		public int hashCode() {
+			return localUserId.hashCode() * 31 + providerId.hashCode();
+		}
+
+	}
+
+	private static final class CacheEntry {
+
+		private final List<ServiceProviderConnection<?>> connections;
+
+		private final long loadTime;
+
+		public CacheEntry(List<ServiceProviderConnection<?>> connections, long loadTime) {
+			this.connections = Collections.unmodifiableList(new ArrayList<ServiceProviderConnection<?>>(connections));
+			this.loadTime = loadTime;
+		}
+
+	}
+
+}
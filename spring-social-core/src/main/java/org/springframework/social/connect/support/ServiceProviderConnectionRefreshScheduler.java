@@ -0,0 +1,226 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.social.connect.MultiUserServiceProviderConnectionRepository;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionHandler;
+import org.springframework.social.connect.ServiceProviderConnectionKey;
+import org.springframework.util.Assert;
+
+/**
+ * Refreshes stored connections ahead of their expiry so callers of the service API do not find them expired.
+ * <p>
+ * Every refresh interval, connections that expire within the refresh lead time are refreshed, soonest first, and the new access grant is saved with
+ * {@link org.springframework.social.connect.ServiceProviderConnectionRepository#updateConnection(ServiceProviderConnection)}.
+ * At most maxRefreshesPerRun connections are refreshed per run, limiting the rate of requests made to providers.
+ * A connection whose refresh fails is not retried for one refresh lead time, so connections whose refresh token has been revoked cannot
+ * use up every run, and a connection that expired more than the maximum expired age ago is no longer tried at all.
+ * The query for each run is limited to the connections the run may refresh plus those it will skip while they back off,
+ * so a backlog of dead connections neither starves live ones nor makes each run read the whole backlog.
+ * </p>
+ * <p>
+ * Scheduling starts when the scheduler is initialized as a bean, or when {@link #start()} is called, and runs on a daemon thread until it is destroyed.
+ * </p>
+ * @author agent
+ */
+public class ServiceProviderConnectionRefreshScheduler implements InitializingBean, DisposableBean {
+
+	/**
+	 * The time, in milliseconds, between runs.
+	 */
+	public static final long DEFAULT_REFRESH_INTERVAL = 60 * 1000;
+
+	/**
+	 * How long, in milliseconds, before it expires a connection is refreshed.
+	 */
+	public static final long DEFAULT_REFRESH_LEAD_TIME = 10 * 60 * 1000;
+
+	/**
+	 * The maximum number of connections refreshed per run.
+	 */
+	public static final int DEFAULT_MAX_REFRESHES_PER_RUN = 100;
+
+	/**
+	 * How long, in milliseconds, after it has expired a connection is still refreshed.
+	 */
+	public static final long DEFAULT_MAX_EXPIRED_AGE = 24 * 60 * 60 * 1000;
+
+	private static final Log logger = LogFactory.getLog(ServiceProviderConnectionRefreshScheduler.class);
+
+	private final MultiUserServiceProviderConnectionRepository connectionRepository;
+
+	private long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+	private long refreshLeadTime = DEFAULT_REFRESH_LEAD_TIME;
+
+	private int maxRefreshesPerRun = DEFAULT_MAX_REFRESHES_PER_RUN;
+
+	private long maxExpiredAge = DEFAULT_MAX_EXPIRED_AGE;
+
+	private final Map<String, Long> failedRefreshes = new ConcurrentHashMap<String, Long>();
+
+	private Timer timer;
+
+	public ServiceProviderConnectionRefreshScheduler(MultiUserServiceProviderConnectionRepository connectionRepository) {
+		Assert.notNull(connectionRepository, "connectionRepository must not be null");
+		this.connectionRepository = connectionRepository;
+	}
+
+	/**
+	 * Set the time, in milliseconds, between runs. Takes effect the next time the scheduler is started.
+	 */
+	public void setRefreshInterval(long refreshInterval) {
+		Assert.isTrue(refreshInterval > 0, "The refresh interval must be greater than zero");
+		this.refreshInterval = refreshInterval;
+	}
+
+	/**
+	 * Set how long, in milliseconds, before it expires a connection is refreshed.
+	 * Should exceed the refresh interval, or connections may expire between runs.
+	 */
+	public void setRefreshLeadTime(long refreshLeadTime) {
+		Assert.isTrue(refreshLeadTime >= 0, "The refresh lead time must not be negative");
+		this.refreshLeadTime = refreshLeadTime;
+	}
+
+	/**
+	 * Set the maximum number of connections refreshed per run.
+	 */
+	public void setMaxRefreshesPerRun(int maxRefreshesPerRun) {
+		Assert.isTrue(maxRefreshesPerRun > 0, "The maximum refreshes per run must be greater than zero");
+		this.maxRefreshesPerRun = maxRefreshesPerRun;
+	}
+
+	/**
+	 * Set how long, in milliseconds, after it has expired a connection is still refreshed.
+	 * Connections that expired longer ago are left for their users to reconnect.
+	 */
+	public void setMaxExpiredAge(long maxExpiredAge) {
+		Assert.isTrue(maxExpiredAge >= 0, "The maximum expired age must not be negative");
+		this.maxExpiredAge = maxExpiredAge;
+	}
+
+	/**
+	 * Start running refreshes at the refresh interval, the first immediately. Has no effect if already started.
+	 */
+	public synchronized void start() {
+		if (timer != null) {
+			return;
+		}
+		timer = new Timer("spring-social-connection-refresh", true);
+		timer.schedule(new TimerTask() {
+			public void run() {
+				try {
+					refreshExpiringConnections();
+				} catch (RuntimeException e) {
+					logger.warn("Unable to refresh expiring connections", e);
+				}
+			}
+		}, 0, refreshInterval);
+	}
+
+	/**
+	 * Stop running refreshes. A run in progress completes.
+	 */
+	public synchronized void stop() {
+		if (timer != null) {
+			timer.cancel();
+			timer = null;
+		}
+	}
+
+	public void afterPropertiesSet() {
+		start();
+	}
+
+	public void destroy() {
+		stop();
+	}
+
+	/**
+	 * Refresh the connections that expire within the refresh lead time, up to the maximum refreshes per run.
+	 * Called at each run; may also be called directly, e.g. from an application's own scheduler.
+	 * @return the number of connections refreshed and saved
+	 */
+	public int refreshExpiringConnections() {
+		RefreshRun run = new RefreshRun(System.currentTimeMillis());
+		pruneFailedRefreshes(run.startTime);
+		connectionRepository.findConnectionsExpiringBetween(run.startTime - maxExpiredAge, run.startTime + refreshLeadTime, maxRefreshesPerRun + failedRefreshes.size(), run);
+		return run.refreshCount;
+	}
+
+	// internal helpers
+
+	private void pruneFailedRefreshes(long now) {
+		Iterator<Long> failedTimes = failedRefreshes.values().iterator();
+		while (failedTimes.hasNext()) {
+			if (now - failedTimes.next() >= refreshLeadTime) {
+				failedTimes.remove();
+			}
+		}
+	}
+
+	private final class RefreshRun implements ServiceProviderConnectionHandler {
+
+		private final long startTime;
+
+		private int attemptCount;
+
+		private int refreshCount;
+
+		public RefreshRun(long startTime) {
+			this.startTime = startTime;
+		}
+
+		public void handleConnection(String localUserId, ServiceProviderConnection<?> connection) {
+			if (attemptCount >= maxRefreshesPerRun) {
+				return;
+			}
+			String failedRefreshKey = failedRefreshKey(localUserId, connection.getKey());
+			Long failedTime = failedRefreshes.get(failedRefreshKey);
+			if (failedTime != null && startTime - failedTime < refreshLeadTime) {
+				return;
+			}
+			attemptCount++;
+			try {
+				connection.refresh();
+				connectionRepository.createConnectionRepository(localUserId).updateConnection(connection);
+				failedRefreshes.remove(failedRefreshKey);
+				refreshCount++;
+			} catch (RuntimeException e) {
+				failedRefreshes.put(failedRefreshKey, startTime);
+				logger.warn("Unable to refresh connection " + connection.getKey().getProviderId() + ":" + connection.getKey().getProviderUserId() + " of local user " + localUserId, e);
+			}
+		}
+
+		private String failedRefreshKey(String localUserId, ServiceProviderConnectionKey connectionKey) {
+			return localUserId + ":" + connectionKey.getProviderId() + ":" + connectionKey.getProviderUserId();
+		}
+
+	}
+
+}
@@ -23,6 +23,8 @@ import org.springframework.web.client.RestTemplate;
 /**
  * Factory for RestTemplate instances that execute requests for resources protected by the OAuth 1 protocol.
  * Encapsulates the configuration of the interceptor that adds the necessary Authorization header to each request before it is executed.
+ * The returned RestTemplate executes requests through the {@link ClientHttpRequestFactorySelector#getRequestFactory() shared request factory},
+ * so its connections are pooled with those of every other client; only the interceptor is specific to the access token.
  * Also hides the differences between Spring 3.0.x and 3.1 implementation.
  * 
  * <h4>Parameter Encoding</h4>
@@ -15,7 +15,6 @@
  */
 package org.springframework.social.oauth1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -23,9 +22,7 @@ import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -42,14 +39,16 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.ClientHttpRequest;
-import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 class SigningSupport {
 	
 	private TimestampGenerator timestampGenerator = new DefaultTimestampGenerator();
+
+	private volatile SigningKey signingKey;
 	
 	/**
 	 * Builds the authorization header.
@@ -59,14 +58,16 @@ class SigningSupport {
 		StringBuilder header = new StringBuilder();
 		header.append("OAuth ");
 		for (Entry<String, String> entry : oauthParameters.entrySet()) {
-			header.append(oauthEncode(entry.getKey())).append("=\"").append(oauthEncode(entry.getValue())).append("\", ");
+			appendOAuthEncoded(header, entry.getKey()).append("=\"");
+			appendOAuthEncoded(header, entry.getValue()).append("\", ");
 		}
 		MultiValueMap<String, String> collectedParameters = new LinkedMultiValueMap<String, String>((int) ((oauthParameters.size() + additionalParameters.size()) / .75 + 1));
 		collectedParameters.setAll(oauthParameters);
 		collectedParameters.putAll(additionalParameters);		
 		String baseString = buildBaseString(method, getBaseStringUri(targetUrl), collectedParameters);
 		String signature = calculateSignature(baseString, consumerSecret, tokenSecret);		
-		header.append(oauthEncode("oauth_signature")).append("=\"").append(oauthEncode(signature)).append("\"");
+		header.append("oauth_signature=\"");
+		appendOAuthEncoded(header, signature).append("\"");
 		return header.toString();
 	}
 
@@ -105,9 +106,19 @@ class SigningSupport {
 	}
 	
 	String buildBaseString(HttpMethod method, String targetUrl, MultiValueMap<String, String> collectedParameters) {
-		StringBuilder builder = new StringBuilder();
-		builder.append(method.name()).append('&').append(oauthEncode(targetUrl)).append('&');		
-		builder.append(oauthEncode(normalizeParameters(collectedParameters)));
+		EncodedParameter[] parameters = sortEncodedParameters(collectedParameters);
+		StringBuilder builder = new StringBuilder(estimateBaseStringLength(targetUrl, parameters));
+		builder.append(method.name()).append('&');
+		appendOAuthEncoded(builder, targetUrl).append('&');
+		// the normalized parameter string is itself encoded, per http://tools.ietf.org/html/rfc5849#section-3.4.1.1
+		// its names and values are already encoded, so encoding them again is just a matter of escaping each '%' as "%25"
+		for (int i = 0; i < parameters.length; i++) {
+			if (i > 0) {
+				builder.append("%26");
+			}
+			appendReencoded(builder, parameters[i].name).append("%3D");
+			appendReencoded(builder, parameters[i].value);
+		}
 		return builder.toString();
 	}
 
@@ -143,60 +154,128 @@ class SigningSupport {
 
 	// internal helpers
 	
-	private String normalizeParameters(MultiValueMap<String, String> collectedParameters) {
+	private EncodedParameter[] sortEncodedParameters(MultiValueMap<String, String> collectedParameters) {
 		// Normalizes the collected parameters for baseString calculation, per http://tools.ietf.org/html/rfc5849#section-3.4.1.3.2
-		MultiValueMap<String, String> sortedEncodedParameters = new TreeMultiValueMap<String, String>();
-		for (Iterator<Entry<String, List<String>>> entryIt = collectedParameters.entrySet().iterator(); entryIt.hasNext();) {
-			Entry<String, List<String>> entry = entryIt.next();
-			String collectedName = entry.getKey();
-			List<String> collectedValues = entry.getValue();	
-			List<String> encodedValues = new ArrayList<String>(collectedValues.size());
-			sortedEncodedParameters.put(oauthEncode(collectedName), encodedValues);
-			for (Iterator<String> valueIt = collectedValues.iterator(); valueIt.hasNext();) {
-				String value = valueIt.next();
-				encodedValues.add(value != null ? oauthEncode(value) : "");
-			}
-			Collections.sort(encodedValues);
+		int parameterCount = 0;
+		for (List<String> values : collectedParameters.values()) {
+			parameterCount += values.size();
 		}
-		StringBuilder paramsBuilder = new StringBuilder();
-		for (Iterator<Entry<String, List<String>>> entryIt = sortedEncodedParameters.entrySet().iterator(); entryIt.hasNext();) {
-			Entry<String, List<String>> entry = entryIt.next();
-			String name = entry.getKey();
-			List<String> values = entry.getValue();
-			for (Iterator<String> valueIt = values.iterator(); valueIt.hasNext();) {
-				String value = valueIt.next();
-				paramsBuilder.append(name).append('=').append(value);
-				if (valueIt.hasNext()) {
-					paramsBuilder.append("&");
-				}
-			}
-			if (entryIt.hasNext()) {
-				paramsBuilder.append("&");
+		EncodedParameter[] parameters = new EncodedParameter[parameterCount];
+		int i = 0;
+		for (Entry<String, List<String>> entry : collectedParameters.entrySet()) {
+			String encodedName = oauthEncode(entry.getKey());
+			for (String value : entry.getValue()) {
+				parameters[i++] = new EncodedParameter(encodedName, value != null ? oauthEncode(value) : "");
 			}
 		}
-		return paramsBuilder.toString();
+		Arrays.sort(parameters);
+		return parameters;
+	}
+
+	private int estimateBaseStringLength(String targetUrl, EncodedParameter[] parameters) {
+		int length = 16 + targetUrl.length() * 2;
+		for (EncodedParameter parameter : parameters) {
+			length += (parameter.name.length() + parameter.value.length()) * 2 + 6;
+		}
+		return length;
+	}
+
+	private static final class EncodedParameter implements Comparable<EncodedParameter> {
+
+		private final String name;
+
+		private final String value;
+
+		public EncodedParameter(String name, String value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		public int compareTo(EncodedParameter other) {
+			int result = name.compareTo(other.name);
+			return result != 0 ? result : value.compareTo(other.value);
+		}
+
 	}
 
 	private String calculateSignature(String baseString, String consumerSecret, String tokenSecret) {
-		String key = consumerSecret + "&" + (tokenSecret != null ? tokenSecret : "");
-		return sign(baseString, key);
+		Mac mac = getSigningKey(consumerSecret, tokenSecret).createMac();
+		byte[] signatureBytes = mac.doFinal(baseString.getBytes(charset));
+		return new String(Base64.encodeBase64(signatureBytes), charset);
 	}
 
-	private String sign(String signatureBaseString, String key) {
-		try {
-			Mac mac = Mac.getInstance(HMAC_SHA1_MAC_NAME);
-			SecretKeySpec spec = new SecretKeySpec(key.getBytes(), HMAC_SHA1_MAC_NAME);
-			mac.init(spec);
-			byte[] text = signatureBaseString.getBytes(charset);
-			byte[] signatureBytes = mac.doFinal(text);
-			signatureBytes = Base64.encodeBase64(signatureBytes);
-			String signature = new String(signatureBytes, charset);
-			return signature;
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalStateException(e);
-		} catch (InvalidKeyException e) {
-			throw new IllegalStateException(e);
-		} 
+	private SigningKey getSigningKey(String consumerSecret, String tokenSecret) {
+		// the secrets rarely change for a given SigningSupport instance, so the last key used is kept with its initialized Mac
+		SigningKey key = signingKey;
+		if (key == null || !key.matches(consumerSecret, tokenSecret)) {
+			key = new SigningKey(consumerSecret, tokenSecret);
+			signingKey = key;
+		}
+		return key;
+	}
+
+	/**
+	 * An HMAC-SHA1 signing key for a consumer secret and token secret pair.
+	 * Holds a Mac prototype that has already been initialized with the key, so that signing a request only costs a clone and doFinal().
+	 * The prototype itself is never updated, so it may be cloned by many threads at once.
+	 */
+	private static final class SigningKey {
+
+		private final String consumerSecret;
+
+		private final String tokenSecret;
+
+		private final SecretKeySpec keySpec;
+
+		private final Mac prototype;
+
+		private final boolean cloneable;
+
+		public SigningKey(String consumerSecret, String tokenSecret) {
+			this.consumerSecret = consumerSecret;
+			this.tokenSecret = tokenSecret;
+			String key = consumerSecret + "&" + (tokenSecret != null ? tokenSecret : "");
+			this.keySpec = new SecretKeySpec(key.getBytes(), HMAC_SHA1_MAC_NAME);
+			this.prototype = initMac();
+			this.cloneable = isCloneable(prototype);
+		}
+
+		public boolean matches(String consumerSecret, String tokenSecret) {
+			return ObjectUtils.nullSafeEquals(this.consumerSecret, consumerSecret) && ObjectUtils.nullSafeEquals(this.tokenSecret, tokenSecret);
+		}
+
+		public Mac createMac() {
+			if (cloneable) {
+				try {
+					return (Mac) prototype.clone();
+				} catch (CloneNotSupportedException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			return initMac();
+		}
+
+		private Mac initMac() {
+			try {
+				Mac mac = Mac.getInstance(HMAC_SHA1_MAC_NAME);
+				mac.init(keySpec);
+				return mac;
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			} catch (InvalidKeyException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private static boolean isCloneable(Mac mac) {
+			try {
+				mac.clone();
+				return true;
+			} catch (CloneNotSupportedException e) {
+				return false;
+			}
+		}
+
 	}
 
 	private MultiValueMap<String, String> readFormParameters(MediaType bodyType, byte[] bodyBytes) {
@@ -260,62 +339,93 @@ class SigningSupport {
 		}
 	}
 
-	private static final BitSet UNRESERVED;
-	
+	private static final boolean[] UNRESERVED = new boolean[128];
+
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
 	static {
-		BitSet alpha = new BitSet(256);
 		for (int i = 'a'; i <= 'z'; i++) {
-			alpha.set(i);
+			UNRESERVED[i] = true;
 		}
 		for (int i = 'A'; i <= 'Z'; i++) {
-			alpha.set(i);
+			UNRESERVED[i] = true;
 		}
-		BitSet digit = new BitSet(256);
 		for (int i = '0'; i <= '9'; i++) {
-			digit.set(i);
+			UNRESERVED[i] = true;
 		}
-		BitSet unreserved = new BitSet(256);
-		unreserved.or(alpha);
-		unreserved.or(digit);
-		unreserved.set('-');
-		unreserved.set('.');
-		unreserved.set('_');
-		unreserved.set('~');
-		UNRESERVED = unreserved;		
+		UNRESERVED['-'] = true;
+		UNRESERVED['.'] = true;
+		UNRESERVED['_'] = true;
+		UNRESERVED['~'] = true;
 	}
 	
 	private static String oauthEncode(String param) {
-		try {
-			// See http://tools.ietf.org/html/rfc5849#section-3.6
-			byte[] bytes = encode(param.getBytes("UTF-8"), UNRESERVED);
-			return new String(bytes, "US-ASCII");
-		} catch (Exception shouldntHappen) {
-			throw new IllegalStateException(shouldntHappen);
+		// See http://tools.ietf.org/html/rfc5849#section-3.6
+		int length = param.length();
+		for (int i = 0; i < length; i++) {
+			char c = param.charAt(i);
+			if (c >= 128 || !UNRESERVED[c]) {
+				StringBuilder builder = new StringBuilder(length + 16);
+				builder.append(param, 0, i);
+				appendOAuthEncoded(builder, param, i);
+				return builder.toString();
+			}
 		}
+		return param;
 	}
 
-	private static byte[] encode(byte[] source, BitSet notEncoded) {
-		Assert.notNull(source, "'source' must not be null");
-		ByteArrayOutputStream bos = new ByteArrayOutputStream(source.length * 2);
-		for (int i = 0; i < source.length; i++) {
-			int b = source[i];
-			if (b < 0) {
-				b += 256;
-			}
-			if (notEncoded.get(b)) {
-				bos.write(b);
+	private static StringBuilder appendOAuthEncoded(StringBuilder builder, String param) {
+		return appendOAuthEncoded(builder, param, 0);
+	}
+
+	private static StringBuilder appendOAuthEncoded(StringBuilder builder, String param, int start) {
+		int length = param.length();
+		for (int i = start; i < length; i++) {
+			char c = param.charAt(i);
+			if (c < 128) {
+				if (UNRESERVED[c]) {
+					builder.append(c);
+				} else {
+					appendEscaped(builder, c);
+				}
+			} else if (c < 0x800) {
+				appendEscaped(builder, 0xC0 | (c >> 6));
+				appendEscaped(builder, 0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(param.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, param.charAt(++i));
+				appendEscaped(builder, 0xF0 | (codePoint >> 18));
+				appendEscaped(builder, 0x80 | ((codePoint >> 12) & 0x3F));
+				appendEscaped(builder, 0x80 | ((codePoint >> 6) & 0x3F));
+				appendEscaped(builder, 0x80 | (codePoint & 0x3F));
+			} else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+				// unpaired surrogates are replaced with '?', as String.getBytes("UTF-8") does
+				appendEscaped(builder, '?');
+			} else {
+				appendEscaped(builder, 0xE0 | (c >> 12));
+				appendEscaped(builder, 0x80 | ((c >> 6) & 0x3F));
+				appendEscaped(builder, 0x80 | (c & 0x3F));
 			}
-			else {
-				bos.write('%');
-				char hex1 = Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16));
-				char hex2 = Character.toUpperCase(Character.forDigit(b & 0xF, 16));
-				bos.write(hex1);
-				bos.write(hex2);
+		}
+		return builder;
+	}
+
+	private static void appendEscaped(StringBuilder builder, int b) {
+		builder.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+	}
+
+	private static StringBuilder appendReencoded(StringBuilder builder, String encoded) {
+		int length = encoded.length();
+		for (int i = 0; i < length; i++) {
+			char c = encoded.charAt(i);
+			if (c == '%') {
+				builder.append("%25");
+			} else {
+				builder.append(c);
 			}
 		}
-		return bos.toByteArray();
+		return builder;
 	}
-	
+
 	private static String formDecode(String encoded) {
 		try {
 			return URLDecoder.decode(encoded, "UTF-8");
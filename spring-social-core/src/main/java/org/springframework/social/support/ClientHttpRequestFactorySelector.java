@@ -18,16 +18,132 @@ package org.springframework.social.support;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.social.support.httpclient.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
 /**
  * Chooses a request factory. Picks an Apache HttpComponents HttpClient factory if Apache HttpComponents HttpClient is in the classpath.
  * If not, falls back to SimpleClientHttpRequestFactory.
+ * <p>
+ * The factory returned by {@link #getRequestFactory()} is shared process-wide: every API binding created for a connected user borrows from the same
+ * HttpClient connection pool, so keep-alive connections to each provider host are reused across users rather than pooled per binding.
+ * The pool holds at most {@link #DEFAULT_MAX_TOTAL_CONNECTIONS} connections and {@link #DEFAULT_MAX_CONNECTIONS_PER_ROUTE} to any one provider host,
+ * and connections idle for longer than {@link #DEFAULT_IDLE_CONNECTION_TIMEOUT} milliseconds are evicted.
+ * These limits may be changed with {@link #setMaxTotalConnections(int)}, {@link #setMaxConnectionsPerRoute(int)} and {@link #setIdleConnectionTimeout(int)};
+ * set them at startup, before the first binding is created, or they are applied to the pool already in use.
+ * To configure the transport further, build a request factory and install it with {@link #setRequestFactory(ClientHttpRequestFactory)} instead.
+ * </p>
  * @author Craig Walls
+ * @author agent
  */
 public class ClientHttpRequestFactorySelector {
 	
+	/**
+	 * The maximum number of connections held by the shared pool.
+	 */
+	public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 200;
+
+	/**
+	 * The maximum number of connections the shared pool holds to any one provider host.
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 50;
+
+	/**
+	 * The time, in milliseconds, a pooled connection may sit idle before it is closed.
+	 */
+	public static final int DEFAULT_IDLE_CONNECTION_TIMEOUT = 30 * 1000;
+
+	private static volatile ClientHttpRequestFactory sharedRequestFactory;
+
+	private static HttpComponentsClientHttpRequestFactory pooledRequestFactory;
+
+	private static int maxTotalConnections = DEFAULT_MAX_TOTAL_CONNECTIONS;
+
+	private static int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+	private static int idleConnectionTimeout = DEFAULT_IDLE_CONNECTION_TIMEOUT;
+
+	private static final Object monitor = new Object();
+
+	/**
+	 * Returns the request factory shared by all API bindings, creating it on first use.
+	 */
 	public static ClientHttpRequestFactory getRequestFactory() {
+		ClientHttpRequestFactory requestFactory = sharedRequestFactory;
+		if (requestFactory == null) {
+			synchronized (monitor) {
+				if (sharedRequestFactory == null) {
+					sharedRequestFactory = createSharedRequestFactory();
+				}
+				requestFactory = sharedRequestFactory;
+			}
+		}
+		return requestFactory;
+	}
+
+	/**
+	 * Replaces the request factory shared by all API bindings.
+	 * Bindings created before this call keep the factory they were created with.
+	 * The caller is responsible for the lifecycle of the given factory, and of the one it replaces.
+	 * @param requestFactory the request factory to share
+	 */
+	public static void setRequestFactory(ClientHttpRequestFactory requestFactory) {
+		Assert.notNull(requestFactory, "requestFactory must not be null");
+		synchronized (monitor) {
+			sharedRequestFactory = requestFactory;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of connections held by the shared pool.
+	 * Has no effect on a request factory installed with {@link #setRequestFactory(ClientHttpRequestFactory)}.
+	 * @param maxTotalConnections the maximum number of connections; defaults to {@link #DEFAULT_MAX_TOTAL_CONNECTIONS}
+	 */
+	public static void setMaxTotalConnections(int maxTotalConnections) {
+		Assert.isTrue(maxTotalConnections > 0, "maxTotalConnections must be positive");
+		synchronized (monitor) {
+			ClientHttpRequestFactorySelector.maxTotalConnections = maxTotalConnections;
+			if (isPoolShared()) {
+				pooledRequestFactory.setMaxTotalConnections(maxTotalConnections);
+			}
+		}
+	}
+
+	/**
+	 * Sets the maximum number of connections the shared pool holds to any one provider host.
+	 * Has no effect on a request factory installed with {@link #setRequestFactory(ClientHttpRequestFactory)}.
+	 * @param maxConnectionsPerRoute the maximum number of connections per host; defaults to {@link #DEFAULT_MAX_CONNECTIONS_PER_ROUTE}
+	 */
+	public static void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		Assert.isTrue(maxConnectionsPerRoute > 0, "maxConnectionsPerRoute must be positive");
+		synchronized (monitor) {
+			ClientHttpRequestFactorySelector.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			if (isPoolShared()) {
+				pooledRequestFactory.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+			}
+		}
+	}
+
+	/**
+	 * Sets the time, in milliseconds, a connection in the shared pool may sit idle before it is closed; 0 disables eviction.
+	 * Has no effect on a request factory installed with {@link #setRequestFactory(ClientHttpRequestFactory)}.
+	 * @param idleConnectionTimeout the idle timeout; defaults to {@link #DEFAULT_IDLE_CONNECTION_TIMEOUT}
+	 */
+	public static void setIdleConnectionTimeout(int idleConnectionTimeout) {
+		Assert.isTrue(idleConnectionTimeout >= 0, "idleConnectionTimeout must not be negative");
+		synchronized (monitor) {
+			ClientHttpRequestFactorySelector.idleConnectionTimeout = idleConnectionTimeout;
+			if (isPoolShared()) {
+				pooledRequestFactory.setIdleConnectionTimeout(idleConnectionTimeout);
+			}
+		}
+	}
+
+	/**
+	 * Creates a new request factory that is not shared.
+	 * Where an Apache HttpComponents HttpClient factory is chosen, the returned factory owns its own connection pool and should be destroyed when no longer needed.
+	 */
+	public static ClientHttpRequestFactory createRequestFactory() {
 		if (httpComponentsAvailable) {
 			return new HttpComponentsClientHttpRequestFactory();
 		} else {
@@ -35,6 +151,22 @@ public class ClientHttpRequestFactorySelector {
 		}		
 	}
 	
+	// internal helpers
+
+	private static ClientHttpRequestFactory createSharedRequestFactory() {
+		if (httpComponentsAvailable) {
+			pooledRequestFactory = new HttpComponentsClientHttpRequestFactory(maxTotalConnections, maxConnectionsPerRoute);
+			pooledRequestFactory.setIdleConnectionTimeout(idleConnectionTimeout);
+			return pooledRequestFactory;
+		} else {
+			return new SimpleClientHttpRequestFactory();
+		}
+	}
+
+	private static boolean isPoolShared() {
+		return pooledRequestFactory != null && sharedRequestFactory == pooledRequestFactory;
+	}
+
 	private static boolean httpComponentsAvailable = ClassUtils.isPresent("org.apache.http.client.HttpClient", ClientHttpRequestFactory.class.getClassLoader());
 
 }
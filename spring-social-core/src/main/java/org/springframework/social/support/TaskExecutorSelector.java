@@ -0,0 +1,106 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.util.Assert;
+
+/**
+ * Chooses the task executor that runs background work for API bindings, such as prefetching the next page of a paged connection list.
+ * Service API operations themselves always run on the calling thread; to fan them out across users, submit them to an application-managed executor.
+ * <p>
+ * Like the {@link ClientHttpRequestFactorySelector#getRequestFactory() shared request factory}, the executor returned by {@link #getTaskExecutor()} is shared process-wide
+ * and created on first use. By default it is backed by a pool of at most {@link #DEFAULT_MAX_THREADS} daemon threads, each of which is held for the whole of a blocking HTTP exchange.
+ * Work submitted while all threads are busy waits in a queue of at most {@link #DEFAULT_QUEUE_CAPACITY} tasks; once that is full, further work is rejected
+ * with a {@link org.springframework.core.task.TaskRejectedException}, and callers fall back to doing it on their own thread.
+ * To use an application-managed executor instead, install it with {@link #setTaskExecutor(AsyncTaskExecutor)}.
+ * </p>
+ * @author agent
+ */
+public class TaskExecutorSelector {
+
+	/**
+	 * The maximum number of threads in the shared pool.
+	 */
+	public static final int DEFAULT_MAX_THREADS = 20;
+
+	/**
+	 * The maximum number of operations waiting for a thread in the shared pool.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 500;
+
+	/**
+	 * The time, in milliseconds, a pooled thread may sit idle before it is stopped.
+	 */
+	public static final int DEFAULT_KEEP_ALIVE = 60 * 1000;
+
+	private static volatile AsyncTaskExecutor sharedTaskExecutor;
+
+	private static final Object monitor = new Object();
+
+	/**
+	 * Returns the task executor shared by all API bindings, creating it on first use.
+	 */
+	public static AsyncTaskExecutor getTaskExecutor() {
+		AsyncTaskExecutor taskExecutor = sharedTaskExecutor;
+		if (taskExecutor == null) {
+			synchronized (monitor) {
+				if (sharedTaskExecutor == null) {
+					sharedTaskExecutor = createSharedTaskExecutor();
+				}
+				taskExecutor = sharedTaskExecutor;
+			}
+		}
+		return taskExecutor;
+	}
+
+	/**
+	 * Replaces the task executor shared by all API bindings.
+	 * Work already submitted keeps running on the executor it was submitted to.
+	 * The caller is responsible for the lifecycle of the given executor.
+	 * @param taskExecutor the task executor to share
+	 */
+	public static void setTaskExecutor(AsyncTaskExecutor taskExecutor) {
+		Assert.notNull(taskExecutor, "taskExecutor must not be null");
+		synchronized (monitor) {
+			sharedTaskExecutor = taskExecutor;
+		}
+	}
+
+	// internal helpers
+
+	private static AsyncTaskExecutor createSharedTaskExecutor() {
+		ThreadFactory threadFactory = new ThreadFactory() {
+			private final AtomicInteger threadCount = new AtomicInteger();
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "spring-social-async-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_MAX_THREADS, DEFAULT_MAX_THREADS, DEFAULT_KEEP_ALIVE, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(DEFAULT_QUEUE_CAPACITY), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return new TaskExecutorAdapter(executor);
+	}
+
+}
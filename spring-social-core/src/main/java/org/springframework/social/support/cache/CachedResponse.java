@@ -0,0 +1,135 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A response held by a {@link ResponseCacheStore}: its status, headers and body, together with the validators used to revalidate it and
+ * the values the request carried for the headers the response varies by.
+ * Immutable, so a stored response can be handed to any number of concurrent readers.
+ * @author agent
+ */
+public final class CachedResponse {
+
+	private final int statusCode;
+
+	private final String statusText;
+
+	private final LinkedHashMap<String, List<String>> headers;
+
+	private final byte[] body;
+
+	private final LinkedHashMap<String, List<String>> varyingRequestHeaders;
+
+	public CachedResponse(int statusCode, String statusText, HttpHeaders headers, byte[] body) {
+		this(statusCode, statusText, headers, body, new HttpHeaders());
+	}
+
+	/**
+	 * Creates a response that was served for a request carrying the given values of the headers named by its Vary header.
+	 */
+	public CachedResponse(int statusCode, String statusText, HttpHeaders headers, byte[] body, HttpHeaders varyingRequestHeaders) {
+		this.statusCode = statusCode;
+		this.statusText = statusText;
+		this.headers = copy(headers);
+		this.body = body.clone();
+		this.varyingRequestHeaders = copy(varyingRequestHeaders);
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public String getStatusText() {
+		return statusText;
+	}
+
+	/**
+	 * A copy of the response headers.
+	 */
+	public HttpHeaders getHeaders() {
+		return toHttpHeaders(headers);
+	}
+
+	/**
+	 * A copy of the values the request carried for the headers named by the response's Vary header; empty if it had none.
+	 */
+	public HttpHeaders getVaryingRequestHeaders() {
+		return toHttpHeaders(varyingRequestHeaders);
+	}
+
+	/**
+	 * A copy of the response body.
+	 */
+	public byte[] getBody() {
+		return body.clone();
+	}
+
+	/**
+	 * The length of the response body, in bytes.
+	 */
+	public int getBodyLength() {
+		return body.length;
+	}
+
+	/**
+	 * The entity tag the response was served with, or null if it had none.
+	 */
+	public String getETag() {
+		return getFirstHeader("ETag");
+	}
+
+	/**
+	 * The Last-Modified date the response was served with, as sent, or null if it had none.
+	 */
+	public String getLastModified() {
+		return getFirstHeader("Last-Modified");
+	}
+
+	// internal helpers
+
+	private static LinkedHashMap<String, List<String>> copy(HttpHeaders headers) {
+		LinkedHashMap<String, List<String>> copy = new LinkedHashMap<String, List<String>>();
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			copy.put(header.getKey(), new ArrayList<String>(header.getValue()));
+		}
+		return copy;
+	}
+
+	private static HttpHeaders toHttpHeaders(Map<String, List<String>> headers) {
+		HttpHeaders copy = new HttpHeaders();
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			copy.put(header.getKey(), new ArrayList<String>(header.getValue()));
+		}
+		return copy;
+	}
+
+	private String getFirstHeader(String name) {
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+				return header.getValue().get(0);
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.social.support.HttpRequestDecorator;
+import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * ClientHttpRequestInterceptor implementation that caches GET responses and revalidates them with conditional requests.
+ * <p>
+ * A 200 response that carries an ETag or Last-Modified validator, and does not forbid storage with Cache-Control: no-store, is kept in a
+ * {@link ResponseCacheStore}. The next GET of the same URI sends those validators as If-None-Match and If-Modified-Since; when the provider
+ * answers 304 Not Modified, the cached response is returned in its place, so the body is neither downloaded nor parsed again and, with
+ * most providers, the request does not count against rate limits. Any other response is returned as it is, and a successful POST, PUT or
+ * DELETE to a URI drops the response cached for it.
+ * </p>
+ * <p>
+ * Responses are keyed by namespace and URI, so each user's client needs its own namespace, even when it has a store of its own.
+ * A response that carries a Vary header is stored with the values the request carried for the headers it names, and is only revalidated
+ * by a request carrying the same values; any other request downloads its own response in full, which then replaces the cached one.
+ * Accept-Encoding is left out of that comparison, since it is set below the interceptor and is the same for every request a client makes.
+ * A response that varies by *, that is by something no request header captures, is not stored.
+ * Hit and miss counts are kept for monitoring.
+ * </p>
+ * @author agent
+ */
+public class ConditionalGetInterceptor implements ClientHttpRequestInterceptor {
+
+	private final ResponseCacheStore store;
+
+	private final String namespace;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * Creates an interceptor that caches responses in the given store, under keys prefixed with the given namespace.
+	 * The namespace is required because many provider URIs, such as Facebook's /me or GitHub's /user, return a different resource for
+	 * each user: without it, a revalidation by one user could be answered with another user's cached response.
+	 * @param store the store responses are cached in
+	 * @param namespace identifies whose responses these are, typically the provider user ID or a digest of the access token
+	 */
+	public ConditionalGetInterceptor(ResponseCacheStore store, String namespace) {
+		Assert.notNull(store, "store must not be null");
+		Assert.hasText(namespace, "namespace must not be empty");
+		this.store = store;
+		this.namespace = namespace;
+	}
+
+	/**
+	 * The number of GET requests answered from the cache after a 304 Not Modified.
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * The number of GET requests whose response was downloaded in full.
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * The fraction of GET requests answered from the cache; 0 if there have been no GET requests.
+	 */
+	public double getHitRatio() {
+		long hits = hitCount.get();
+		long requests = hits + missCount.get();
+		return requests > 0 ? (double) hits / requests : 0;
+	}
+
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		String key = namespace + " " + request.getURI();
+		if (request.getMethod() != HttpMethod.GET) {
+			ClientHttpResponse response = execution.execute(request, body);
+			if (isModifying(request.getMethod()) && isSuccessful(response.getStatusCode())) {
+				store.remove(key);
+			}
+			return response;
+		}
+		CachedResponse cached = store.get(key);
+		if (cached != null && !getVaryingRequestHeaders(cached.getHeaders(), request.getHeaders()).equals(cached.getVaryingRequestHeaders())) {
+			// revalidating would confirm a response served for different request headers
+			cached = null;
+		}
+		HttpRequest conditionalRequest = request;
+		if (cached != null) {
+			conditionalRequest = new HttpRequestDecorator(request);
+			if (cached.getETag() != null) {
+				conditionalRequest.getHeaders().set("If-None-Match", cached.getETag());
+			}
+			if (cached.getLastModified() != null) {
+				conditionalRequest.getHeaders().set("If-Modified-Since", cached.getLastModified());
+			}
+		}
+		ClientHttpResponse response = execution.execute(conditionalRequest, body);
+		if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+			response.close();
+			hitCount.incrementAndGet();
+			return new CachedClientHttpResponse(cached);
+		}
+		missCount.incrementAndGet();
+		if (response.getStatusCode() != HttpStatus.OK) {
+			return response;
+		}
+		if (!isStorable(response.getHeaders())) {
+			if (cached != null) {
+				store.remove(key);
+			}
+			return response;
+		}
+		CachedResponse fresh;
+		try {
+			fresh = new CachedResponse(response.getStatusCode().value(), response.getStatusText(), response.getHeaders(),
+					FileCopyUtils.copyToByteArray(response.getBody()), getVaryingRequestHeaders(response.getHeaders(), request.getHeaders()));
+		} finally {
+			response.close();
+		}
+		store.put(key, fresh);
+		return new CachedClientHttpResponse(fresh);
+	}
+
+	// internal helpers
+
+	private boolean isModifying(HttpMethod method) {
+		return method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.DELETE;
+	}
+
+	private boolean isSuccessful(HttpStatus status) {
+		return status.value() >= 200 && status.value() < 300;
+	}
+
+	private boolean isStorable(HttpHeaders headers) {
+		if (headers.getFirst("ETag") == null && headers.getFirst("Last-Modified") == null) {
+			return false;
+		}
+		if (getVaryingHeaderNames(headers).contains("*")) {
+			return false;
+		}
+		List<String> cacheControl = headers.get("Cache-Control");
+		if (cacheControl != null) {
+			for (String directives : cacheControl) {
+				if (directives.toLowerCase().contains("no-store")) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	// the request header names listed by the response's Vary header, in lower case, leaving out Accept-Encoding
+	private List<String> getVaryingHeaderNames(HttpHeaders responseHeaders) {
+		List<String> names = new ArrayList<String>();
+		List<String> vary = responseHeaders.get("Vary");
+		if (vary != null) {
+			for (String fields : vary) {
+				for (String field : fields.split(",")) {
+					String name = field.trim().toLowerCase();
+					if (name.length() > 0 && !name.equals("accept-encoding")) {
+						names.add(name);
+					}
+				}
+			}
+		}
+		return names;
+	}
+
+	private HttpHeaders getVaryingRequestHeaders(HttpHeaders responseHeaders, HttpHeaders requestHeaders) {
+		HttpHeaders varyingRequestHeaders = new HttpHeaders();
+		for (String name : getVaryingHeaderNames(responseHeaders)) {
+			List<String> values = requestHeaders.get(name);
+			if (values != null) {
+				varyingRequestHeaders.put(name, new ArrayList<String>(values));
+			}
+		}
+		return varyingRequestHeaders;
+	}
+
+	private static class CachedClientHttpResponse implements ClientHttpResponse {
+
+		private final CachedResponse response;
+
+		private HttpHeaders headers;
+
+		private InputStream body;
+
+		public CachedClientHttpResponse(CachedResponse response) {
+			this.response = response;
+		}
+
+		public HttpStatus getStatusCode() {
+			return HttpStatus.valueOf(response.getStatusCode());
+		}
+
+		public String getStatusText() {
+			return response.getStatusText();
+		}
+
+		public HttpHeaders getHeaders() {
+			if (headers == null) {
+				headers = response.getHeaders();
+			}
+			return headers;
+		}
+
+		public InputStream getBody() {
+			if (body == null) {
+				body = new ByteArrayInputStream(response.getBody());
+			}
+			return body;
+		}
+
+		public void close() {
+		}
+
+	}
+
+}
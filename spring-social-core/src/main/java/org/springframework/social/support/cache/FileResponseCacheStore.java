@@ -0,0 +1,298 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A {@link ResponseCacheStore} that keeps each response in its own file in a directory, so cached responses survive restarts and
+ * large caches stay off the heap.
+ * <p>
+ * Files are named by a digest of their key and hold the key itself, so a digest collision is detected rather than served.
+ * They are written in a plain data format, never with Java serialization, so a stale or tampered file can at worst be discarded.
+ * Responses are written to a temporary file and renamed into place, so a reader never sees a partly written response.
+ * The store is bounded by the number of responses and the total size of their files; once either bound is exceeded, responses are
+ * evicted least recently used first, and a response too large to fit within the size bound is not stored at all.
+ * Responses already in the directory when the store is created are adopted, oldest first.
+ * Only one store should use a directory at a time.
+ * </p>
+ * @author agent
+ */
+public class FileResponseCacheStore implements ResponseCacheStore {
+
+	private static final String SUFFIX = ".response";
+
+	private static final int FORMAT_VERSION = 0x53430002;
+
+	private static final int MAX_HEADERS = 1000;
+
+	private static final Log logger = LogFactory.getLog(FileResponseCacheStore.class);
+
+	private final File directory;
+
+	private final int maxEntries;
+
+	private final long maxBytes;
+
+	// file name to file length, least recently used first
+	private final Map<String, Long> index = new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+	private long bytes;
+
+	private final Object monitor = new Object();
+
+	/**
+	 * Creates a store in the given directory, creating the directory if it does not exist.
+	 * @param directory the directory responses are kept in
+	 * @param maxEntries the maximum number of responses held
+	 * @param maxBytes the maximum total size, in bytes, of the files held
+	 */
+	public FileResponseCacheStore(File directory, int maxEntries, long maxBytes) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be greater than 0");
+		}
+		if (maxBytes <= 0) {
+			throw new IllegalArgumentException("maxBytes must be greater than 0");
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IllegalArgumentException("Unable to create cache directory " + directory);
+		}
+		this.directory = directory;
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		loadIndex();
+	}
+
+	public CachedResponse get(String key) {
+		String fileName = fileName(key);
+		synchronized (monitor) {
+			if (index.get(fileName) == null) {
+				return null;
+			}
+		}
+		File file = new File(directory, fileName);
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				return readResponse(in, key);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			// unreadable, or evicted since the index was checked: either way there is nothing to serve
+			if (file.exists()) {
+				logger.warn("Discarding unreadable cached response " + file, e);
+				remove(key);
+			}
+			return null;
+		}
+	}
+
+	public void put(String key, CachedResponse response) {
+		if (response.getBodyLength() > maxBytes) {
+			remove(key);
+			return;
+		}
+		String fileName = fileName(key);
+		File file = new File(directory, fileName);
+		File temp;
+		try {
+			temp = File.createTempFile(fileName, ".tmp", directory);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				writeResponse(out, key, response);
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			logger.warn("Unable to write cached response for " + key, e);
+			return;
+		}
+		synchronized (monitor) {
+			file.delete();
+			forget(fileName);
+			// headers count towards the bound too, so check the file actually written before indexing it
+			if (temp.length() > maxBytes || !temp.renameTo(file)) {
+				temp.delete();
+				return;
+			}
+			index.put(fileName, file.length());
+			bytes += file.length();
+			evict();
+		}
+	}
+
+	public void remove(String key) {
+		String fileName = fileName(key);
+		synchronized (monitor) {
+			new File(directory, fileName).delete();
+			forget(fileName);
+		}
+	}
+
+	/**
+	 * The number of responses currently held.
+	 */
+	public int size() {
+		synchronized (monitor) {
+			return index.size();
+		}
+	}
+
+	// internal helpers
+
+	/*
+	 * Files are written in an explicit format rather than with Java serialization, so whatever is found in the directory is only ever
+	 * read as data: a format version, the key, the status, the headers, the body and the varying request headers, each length checked
+	 * before it is trusted.
+	 */
+	private void writeResponse(DataOutputStream out, String key, CachedResponse response) throws IOException {
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(key);
+		out.writeInt(response.getStatusCode());
+		out.writeUTF(response.getStatusText() != null ? response.getStatusText() : "");
+		writeHeaders(out, response.getHeaders());
+		byte[] body = response.getBody();
+		out.writeInt(body.length);
+		out.write(body);
+		writeHeaders(out, response.getVaryingRequestHeaders());
+	}
+
+	private void writeHeaders(DataOutputStream out, HttpHeaders headers) throws IOException {
+		out.writeInt(headers.size());
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			out.writeUTF(header.getKey());
+			out.writeInt(header.getValue().size());
+			for (String value : header.getValue()) {
+				out.writeUTF(value);
+			}
+		}
+	}
+
+	private CachedResponse readResponse(DataInputStream in, String key) throws IOException {
+		if (in.readInt() != FORMAT_VERSION) {
+			throw new IOException("Unknown cache file format");
+		}
+		if (!key.equals(in.readUTF())) {
+			return null;
+		}
+		int statusCode = in.readInt();
+		String statusText = in.readUTF();
+		HttpHeaders headers = readHeaders(in);
+		byte[] body = new byte[checkLength(in.readInt(), maxBytes)];
+		in.readFully(body);
+		return new CachedResponse(statusCode, statusText, headers, body, readHeaders(in));
+	}
+
+	private HttpHeaders readHeaders(DataInputStream in) throws IOException {
+		HttpHeaders headers = new HttpHeaders();
+		int headerCount = checkLength(in.readInt(), MAX_HEADERS);
+		for (int i = 0; i < headerCount; i++) {
+			String name = in.readUTF();
+			int valueCount = checkLength(in.readInt(), MAX_HEADERS);
+			for (int j = 0; j < valueCount; j++) {
+				headers.add(name, in.readUTF());
+			}
+		}
+		return headers;
+	}
+
+	private int checkLength(int length, long max) throws IOException {
+		if (length < 0 || length > max) {
+			throw new IOException("Corrupt cache file: length " + length + " out of range");
+		}
+		return length;
+	}
+
+	private void loadIndex() {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		Arrays.sort(files, new Comparator<File>() {
+			public int compare(File file1, File file2) {
+				long modified1 = file1.lastModified();
+				long modified2 = file2.lastModified();
+				return modified1 < modified2 ? -1 : (modified1 == modified2 ? 0 : 1);
+			}
+		});
+		synchronized (monitor) {
+			for (File file : files) {
+				if (file.getName().endsWith(SUFFIX)) {
+					index.put(file.getName(), file.length());
+					bytes += file.length();
+				} else if (file.getName().endsWith(".tmp")) {
+					// left behind by a write that did not complete
+					file.delete();
+				}
+			}
+			evict();
+		}
+	}
+
+	private void forget(String fileName) {
+		Long length = index.remove(fileName);
+		if (length != null) {
+			bytes -= length;
+		}
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+		while (index.size() > maxEntries || bytes > maxBytes) {
+			Map.Entry<String, Long> entry = eldest.next();
+			new File(directory, entry.getKey()).delete();
+			bytes -= entry.getValue();
+			eldest.remove();
+		}
+	}
+
+	private String fileName(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+			StringBuilder fileName = new StringBuilder(digest.length * 2 + SUFFIX.length());
+			for (byte b : digest) {
+				fileName.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			}
+			return fileName.append(SUFFIX).toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
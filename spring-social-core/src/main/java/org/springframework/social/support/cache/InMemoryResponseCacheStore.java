@@ -0,0 +1,116 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link ResponseCacheStore} that holds responses on the heap.
+ * Bounded both by the number of responses and by the total size of their bodies; once either bound is exceeded,
+ * responses are evicted least recently used first.
+ * @author agent
+ */
+public class InMemoryResponseCacheStore implements ResponseCacheStore {
+
+	/**
+	 * The default maximum number of responses held.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/**
+	 * The default maximum total size, in bytes, of the bodies of the responses held.
+	 */
+	public static final long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+
+	private final int maxEntries;
+
+	private final long maxBytes;
+
+	private final Map<String, CachedResponse> entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true);
+
+	private long bytes;
+
+	private final Object monitor = new Object();
+
+	/**
+	 * Creates a store holding up to {@link #DEFAULT_MAX_ENTRIES} responses and {@link #DEFAULT_MAX_BYTES} bytes of response bodies.
+	 */
+	public InMemoryResponseCacheStore() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * Creates a store.
+	 * @param maxEntries the maximum number of responses held
+	 * @param maxBytes the maximum total size, in bytes, of the bodies of the responses held
+	 */
+	public InMemoryResponseCacheStore(int maxEntries, long maxBytes) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be greater than 0");
+		}
+		if (maxBytes <= 0) {
+			throw new IllegalArgumentException("maxBytes must be greater than 0");
+		}
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	public CachedResponse get(String key) {
+		synchronized (monitor) {
+			return entries.get(key);
+		}
+	}
+
+	public void put(String key, CachedResponse response) {
+		if (response.getBodyLength() > maxBytes) {
+			remove(key);
+			return;
+		}
+		synchronized (monitor) {
+			CachedResponse replaced = entries.put(key, response);
+			if (replaced != null) {
+				bytes -= replaced.getBodyLength();
+			}
+			bytes += response.getBodyLength();
+			Iterator<CachedResponse> eldest = entries.values().iterator();
+			while (entries.size() > maxEntries || bytes > maxBytes) {
+				bytes -= eldest.next().getBodyLength();
+				eldest.remove();
+			}
+		}
+	}
+
+	public void remove(String key) {
+		synchronized (monitor) {
+			CachedResponse removed = entries.remove(key);
+			if (removed != null) {
+				bytes -= removed.getBodyLength();
+			}
+		}
+	}
+
+	/**
+	 * The number of responses currently held.
+	 */
+	public int size() {
+		synchronized (monitor) {
+			return entries.size();
+		}
+	}
+
+}
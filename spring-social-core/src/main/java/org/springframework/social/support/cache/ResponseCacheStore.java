@@ -0,0 +1,43 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.cache;
+
+/**
+ * Holds the responses cached by a {@link ConditionalGetInterceptor}, keyed by request.
+ * Implementations decide where responses are kept and how many; they must be safe for concurrent use,
+ * and may discard any entry at any time, since a discarded response is simply downloaded again.
+ * @author agent
+ * @see InMemoryResponseCacheStore
+ * @see FileResponseCacheStore
+ */
+public interface ResponseCacheStore {
+
+	/**
+	 * Returns the response stored under the key, or null if there is none.
+	 */
+	CachedResponse get(String key);
+
+	/**
+	 * Stores a response under the key, replacing any response already stored under it.
+	 */
+	void put(String key, CachedResponse response);
+
+	/**
+	 * Removes the response stored under the key, if there is one.
+	 */
+	void remove(String key);
+
+}
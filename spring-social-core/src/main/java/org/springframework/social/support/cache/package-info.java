@@ -0,0 +1,4 @@
+/**
+ * HTTP response caching for the clients of provider APIs, using conditional GET requests to revalidate cached responses.
+ */
+package org.springframework.social.support.cache;
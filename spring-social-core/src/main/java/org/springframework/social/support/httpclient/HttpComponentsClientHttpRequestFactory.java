@@ -17,6 +17,9 @@ package org.springframework.social.support.httpclient;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpDelete;
@@ -27,6 +30,7 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpTrace;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.conn.scheme.PlainSocketFactory;
 import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
@@ -61,18 +65,32 @@ public class HttpComponentsClientHttpRequestFactory implements ClientHttpRequest
 
 	private HttpClient httpClient;
 
+	private Timer idleConnectionEvictor;
+
 	/**
 	 * Create a new instance of the {@code HttpComponentsClientHttpRequestFactory} with a default {@link HttpClient} that
 	 * uses a default {@link org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager}
 	 */
 	public HttpComponentsClientHttpRequestFactory() {
+		this(DEFAULT_MAX_TOTAL_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+	}
+
+	/**
+	 * Create a new instance of the {@code HttpComponentsClientHttpRequestFactory} with a default {@link HttpClient} that
+	 * uses a {@link org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager} sized to the given limits.
+	 * Since a route corresponds to a target host, maxConnectionsPerRoute caps the connections held open to any one provider.
+	 *
+	 * @param maxTotalConnections the maximum number of connections in the pool
+	 * @param maxConnectionsPerRoute the maximum number of connections in the pool to any one route
+	 */
+	public HttpComponentsClientHttpRequestFactory(int maxTotalConnections, int maxConnectionsPerRoute) {
 		SchemeRegistry schemeRegistry = new SchemeRegistry();
 		schemeRegistry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
 		schemeRegistry.register(new Scheme("https", 443, SSLSocketFactory.getSocketFactory()));
 
 		ThreadSafeClientConnManager connectionManager = new ThreadSafeClientConnManager(schemeRegistry);
-		connectionManager.setMaxTotal(DEFAULT_MAX_TOTAL_CONNECTIONS);
-		connectionManager.setDefaultMaxPerRoute(DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+		connectionManager.setMaxTotal(maxTotalConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
 
 		httpClient = new DefaultHttpClient(connectionManager);
 		this.setReadTimeout(DEFAULT_READ_TIMEOUT_MILLISECONDS);
@@ -109,6 +127,56 @@ public class HttpComponentsClientHttpRequestFactory implements ClientHttpRequest
 		getHttpClient().getParams().setIntParameter(CoreConnectionPNames.SO_TIMEOUT, timeout);
 	}
 
+	/**
+	 * Set the maximum number of connections in the pool.
+	 * May be called while the factory is in use; requires the default {@link ThreadSafeClientConnManager}.
+	 *
+	 * @param maxTotalConnections the maximum number of connections in the pool
+	 */
+	public void setMaxTotalConnections(int maxTotalConnections) {
+		if (maxTotalConnections <= 0) {
+			throw new IllegalArgumentException("maxTotalConnections must be a positive value");
+		}
+		getThreadSafeConnectionManager().setMaxTotal(maxTotalConnections);
+	}
+
+	/**
+	 * Set the maximum number of connections in the pool to any one route.
+	 * May be called while the factory is in use; requires the default {@link ThreadSafeClientConnManager}.
+	 *
+	 * @param maxConnectionsPerRoute the maximum number of connections in the pool to any one route
+	 */
+	public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		if (maxConnectionsPerRoute <= 0) {
+			throw new IllegalArgumentException("maxConnectionsPerRoute must be a positive value");
+		}
+		getThreadSafeConnectionManager().setDefaultMaxPerRoute(maxConnectionsPerRoute);
+	}
+
+	/**
+	 * Periodically close connections that have sat idle in the pool for longer than the given timeout, as well as any connections the server has expired.
+	 * Eviction runs on a daemon thread at an interval equal to the timeout and is stopped by {@link #destroy()}.
+	 * A value of 0 disables eviction.
+	 *
+	 * @param timeout the idle timeout in milliseconds
+	 */
+	public synchronized void setIdleConnectionTimeout(final int timeout) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("timeout must be a non-negative value");
+		}
+		stopIdleConnectionEvictor();
+		if (timeout > 0) {
+			idleConnectionEvictor = new Timer("HttpComponentsIdleConnectionEvictor", true);
+			idleConnectionEvictor.schedule(new TimerTask() {
+				public void run() {
+					ClientConnectionManager connectionManager = getHttpClient().getConnectionManager();
+					connectionManager.closeExpiredConnections();
+					connectionManager.closeIdleConnections(timeout, TimeUnit.MILLISECONDS);
+				}
+			}, timeout, timeout);
+		}
+	}
+
 	/**
 	 * Return the {@code HttpClient} used by this factory.
 	 */
@@ -165,6 +233,22 @@ public class HttpComponentsClientHttpRequestFactory implements ClientHttpRequest
 	 * ClientConnectionManager}'s connection pool, if any.
 	 */
 	public void destroy() {
+		stopIdleConnectionEvictor();
 		getHttpClient().getConnectionManager().shutdown();
 	}
+
+	private ThreadSafeClientConnManager getThreadSafeConnectionManager() {
+		ClientConnectionManager connectionManager = getHttpClient().getConnectionManager();
+		if (!(connectionManager instanceof ThreadSafeClientConnManager)) {
+			throw new IllegalStateException("Pool limits can only be changed on a ThreadSafeClientConnManager; configure the HttpClient's connection manager directly instead");
+		}
+		return (ThreadSafeClientConnManager) connectionManager;
+	}
+
+	private synchronized void stopIdleConnectionEvictor() {
+		if (idleConnectionEvictor != null) {
+			idleConnectionEvictor.cancel();
+			idleConnectionEvictor = null;
+		}
+	}
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Parses dates written in one of the fixed formats used by provider APIs, such as <code>"EEE MMM dd HH:mm:ss Z yyyy"</code>.
+ * Unlike {@link java.text.SimpleDateFormat}, a DateParser is immutable and thread-safe, so a single instance may be shared by all threads.
+ * The text is read field by field without a Calendar; the only object created per parse is the resulting Date.
+ * <p>
+ * Supported pattern letters are those the provider formats use: E (day name, ignored), M (month number, or month name for MMM and longer),
+ * d (day of month), y (year), H (hour of day), m (minute), s (second) and Z (zone offset such as +0000, -07:00 or Z).
+ * Letters between single quotes and all other characters are matched literally.
+ * Patterns without a Z field are read in the JVM's default time zone, as SimpleDateFormat would.
+ * As with {@link java.text.DateFormat#parse(String)}, text following the last field is ignored.
+ * </p>
+ * @author agent
+ */
+public final class DateParser {
+
+	private final String pattern;
+
+	private final Object[] elements;
+
+	private final boolean zoned;
+
+	private DateParser(String pattern, Object[] elements, boolean zoned) {
+		this.pattern = pattern;
+		this.elements = elements;
+		this.zoned = zoned;
+	}
+
+	/**
+	 * Creates a DateParser for the given pattern.
+	 * @throws IllegalArgumentException if the pattern contains a letter that is not supported
+	 */
+	public static DateParser forPattern(String pattern) {
+		List<Object> elements = new ArrayList<Object>();
+		boolean zoned = false;
+		int i = 0;
+		while (i < pattern.length()) {
+			char c = pattern.charAt(i);
+			if (c == '\'') {
+				int end = pattern.indexOf('\'', i + 1);
+				if (end < 0) {
+					throw new IllegalArgumentException("Unterminated quote in date pattern '" + pattern + "'");
+				}
+				for (int j = i + 1; j < end; j++) {
+					elements.add(pattern.charAt(j));
+				}
+				i = end + 1;
+			} else if (Character.isLetter(c)) {
+				int end = i + 1;
+				while (end < pattern.length() && pattern.charAt(end) == c) {
+					end++;
+				}
+				Field field = Field.forLetter(c, end - i);
+				if (field == null) {
+					throw new IllegalArgumentException("Unsupported letter '" + c + "' in date pattern '" + pattern + "'");
+				}
+				zoned |= field == Field.ZONE;
+				elements.add(field);
+				i = end;
+			} else {
+				elements.add(c);
+				i++;
+			}
+		}
+		return new DateParser(pattern, elements.toArray(), zoned);
+	}
+
+	/**
+	 * Parses the text.
+	 * @return the date, or null if the text is null or does not match the pattern
+	 */
+	public Date parse(String text) {
+		if (text == null) {
+			return null;
+		}
+		int year = 1970;
+		int month = 1;
+		int day = 1;
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		int offsetMinutes = 0;
+		int length = text.length();
+		int pos = 0;
+		for (Object element : elements) {
+			if (element instanceof Character) {
+				if (pos >= length || text.charAt(pos) != ((Character) element).charValue()) {
+					return null;
+				}
+				pos++;
+				continue;
+			}
+			Field field = (Field) element;
+			if (field == Field.DAY_NAME || field == Field.MONTH_NAME) {
+				int start = pos;
+				while (pos < length && Character.isLetter(text.charAt(pos))) {
+					pos++;
+				}
+				if (field == Field.MONTH_NAME) {
+					month = pos - start >= 3 ? monthForName(text, start) : -1;
+					if (month < 0) {
+						return null;
+					}
+				} else if (pos == start) {
+					return null;
+				}
+			} else if (field == Field.ZONE) {
+				if (pos >= length) {
+					return null;
+				}
+				char sign = text.charAt(pos++);
+				if (sign == 'Z') {
+					continue;
+				}
+				if (sign != '+' && sign != '-') {
+					return null;
+				}
+				int hours = readDigits(text, pos, 2);
+				pos += 2;
+				if (pos < length && text.charAt(pos) == ':') {
+					pos++;
+				}
+				int minutes = readDigits(text, pos, 2);
+				pos += 2;
+				if (hours < 0 || minutes < 0) {
+					return null;
+				}
+				offsetMinutes = (sign == '-' ? -1 : 1) * (hours * 60 + minutes);
+			} else {
+				int start = pos;
+				int value = 0;
+				while (pos < length && pos - start < field.maxDigits) {
+					char c = text.charAt(pos);
+					if (c < '0' || c > '9') {
+						break;
+					}
+					value = value * 10 + (c - '0');
+					pos++;
+				}
+				if (pos == start || value < field.min || value > field.max) {
+					return null;
+				}
+				switch (field) {
+					case YEAR: year = value; break;
+					case MONTH: month = value; break;
+					case DAY: day = value; break;
+					case HOUR: hour = value; break;
+					case MINUTE: minute = value; break;
+					case SECOND: second = value; break;
+					default: break;
+				}
+			}
+		}
+		long localMillis = ((daysSinceEpoch(year, month, day) * 24 + hour) * 60 + minute) * 60000L + second * 1000L;
+		if (zoned) {
+			return new Date(localMillis - offsetMinutes * 60000L);
+		}
+		TimeZone timeZone = TimeZone.getDefault();
+		return new Date(localMillis - timeZone.getOffset(localMillis - timeZone.getRawOffset()));
+	}
+
+	public String toString() {
+		return pattern;
+	}
+
+	// internal helpers
+
+	private static int readDigits(String text, int pos, int count) {
+		if (pos + count > text.length()) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = pos; i < pos + count; i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static int monthForName(String text, int start) {
+		for (int i = 0; i < MONTH_NAMES.length; i++) {
+			if (text.regionMatches(true, start, MONTH_NAMES[i], 0, 3)) {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	// days from 1970-01-01 in the proleptic Gregorian calendar
+	private static long daysSinceEpoch(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = (y >= 0 ? y : y - 399) / 400;
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	private static final String[] MONTH_NAMES = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+	private static enum Field {
+
+		DAY_NAME(0, 0, 0), MONTH_NAME(0, 0, 0), ZONE(0, 0, 0),
+		YEAR(4, 0, 9999), MONTH(2, 1, 12), DAY(2, 1, 31), HOUR(2, 0, 23), MINUTE(2, 0, 59), SECOND(2, 0, 59);
+
+		private final int maxDigits;
+
+		private final int min;
+
+		private final int max;
+
+		private Field(int maxDigits, int min, int max) {
+			this.maxDigits = maxDigits;
+			this.min = min;
+			this.max = max;
+		}
+
+		public static Field forLetter(char letter, int count) {
+			switch (letter) {
+				case 'E': return DAY_NAME;
+				case 'M': return count >= 3 ? MONTH_NAME : MONTH;
+				case 'd': return DAY;
+				case 'y': return YEAR;
+				case 'H': return HOUR;
+				case 'm': return MINUTE;
+				case 's': return SECOND;
+				case 'Z': return ZONE;
+				default: return null;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.encrypt.Encryptors;
+import org.springframework.social.connect.ServiceProviderConnectionRepository;
+import org.springframework.social.connect.jdbc.JdbcMultiUserServiceProviderConnectionRepositoryTest.TestFacebookServiceProviderConnectionFactory;
+import org.springframework.social.connect.support.MapServiceProviderConnectionFactoryRegistry;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Times {@link ServiceProviderConnectionRepository#findConnectionsForUsers(MultiValueMap)} against the embedded H2 database the tests use,
+ * for a local user holding 10,000 Facebook connections and friend id lists of 10, 1,000 and 10,000 ids, half of which are connected.
+ * Each size is run once to warm up before it is timed. Not part of the test suite; run its main method to reproduce the figures.
+ */
+public class FindConnectionsForUsersBenchmark {
+
+	private static final int CONNECTIONS = 10000;
+
+	private static final int RUNS = 7;
+
+	public static void main(String[] args) {
+		EmbeddedDatabaseFactory factory = new EmbeddedDatabaseFactory();
+		factory.setDatabaseType(EmbeddedDatabaseType.H2);
+		ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+		populator.addScript(new ClassPathResource("JdbcServiceProviderConnectionRepositorySchema.sql", FindConnectionsForUsersBenchmark.class));
+		factory.setDatabasePopulator(populator);
+		EmbeddedDatabase database = factory.getDatabase();
+		try {
+			List<String> connectedIds = insertConnections(new JdbcTemplate(database));
+			MapServiceProviderConnectionFactoryRegistry connectionFactoryRegistry = new MapServiceProviderConnectionFactoryRegistry();
+			connectionFactoryRegistry.addConnectionFactory(new TestFacebookServiceProviderConnectionFactory());
+			ServiceProviderConnectionRepository connectionRepository = new JdbcMultiUserServiceProviderConnectionRepository(database, connectionFactoryRegistry, Encryptors.noOpText()).createConnectionRepository("1");
+			for (int ids : new int[] { 10, 1000, 10000 }) {
+				MultiValueMap<String, String> providerUsers = new LinkedMultiValueMap<String, String>();
+				providerUsers.put("facebook", friendIds(connectedIds, ids));
+				connectionRepository.findConnectionsForUsers(providerUsers);
+				long[] times = new long[RUNS];
+				for (int run = 0; run < RUNS; run++) {
+					long start = System.nanoTime();
+					connectionRepository.findConnectionsForUsers(providerUsers);
+					times[run] = System.nanoTime() - start;
+				}
+				Arrays.sort(times);
+				System.out.printf("%6d ids: median %8.2f ms, best %8.2f ms%n", ids, times[RUNS / 2] / 1e6, times[0] / 1e6);
+			}
+		} finally {
+			database.shutdown();
+		}
+	}
+
+	// internal helpers
+
+	private static List<String> insertConnections(JdbcTemplate jdbcTemplate) {
+		List<String> connectedIds = new ArrayList<String>(CONNECTIONS);
+		List<Object[]> batchArgs = new ArrayList<Object[]>(CONNECTIONS);
+		for (int i = 0; i < CONNECTIONS; i++) {
+			String providerUserId = String.valueOf(100000000L + i * 7919L);
+			connectedIds.add(providerUserId);
+			batchArgs.add(new Object[] { "1", "facebook", providerUserId, i + 1, "Friend " + i, "123456789" });
+		}
+		jdbcTemplate.batchUpdate("insert into ServiceProviderConnection (localUserId, providerId, providerUserId, rank, profileName, accessToken) values (?, ?, ?, ?, ?, ?)", batchArgs);
+		return connectedIds;
+	}
+
+	private static List<String> friendIds(List<String> connectedIds, int count) {
+		Random random = new Random(count);
+		List<String> friendIds = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			friendIds.add(i % 2 == 0 ? connectedIds.get(random.nextInt(connectedIds.size())) : String.valueOf(200000000L + random.nextInt(100000000)));
+		}
+		Collections.shuffle(friendIds, random);
+		return friendIds;
+	}
+
+}
@@ -5,7 +5,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -14,7 +16,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseFactory;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
@@ -24,6 +29,7 @@ import org.springframework.social.connect.DuplicateServiceProviderConnectionExce
 import org.springframework.social.connect.NoSuchServiceProviderConnectionException;
 import org.springframework.social.connect.ServiceProviderConnection;
 import org.springframework.social.connect.ServiceProviderConnectionData;
+import org.springframework.social.connect.ServiceProviderConnectionHandler;
 import org.springframework.social.connect.ServiceProviderConnectionKey;
 import org.springframework.social.connect.ServiceProviderConnectionRepository;
 import org.springframework.social.connect.ServiceProviderUser;
@@ -36,6 +42,7 @@ import org.springframework.social.oauth1.OAuth1ServiceProvider;
 import org.springframework.social.oauth2.AccessGrant;
 import org.springframework.social.oauth2.OAuth2Operations;
 import org.springframework.social.oauth2.OAuth2ServiceProvider;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -98,6 +105,70 @@ public class JdbcMultiUserServiceProviderConnectionRepositoryTest {
 		assertTrue(localUserIds.contains("2"));		
 	}
 	
+	@Test
+	public void findConnectionsForLocalUsers() {
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		insertFacebookConnection3();
+		usersConnectionRepository.setInClauseChunkSize(1);
+		MultiValueMap<String, ServiceProviderConnection<?>> connections = usersConnectionRepository.findConnectionsForLocalUsers("facebook", Arrays.asList("2", "1", "3"));
+		assertEquals(2, connections.size());
+		assertEquals(2, connections.get("1").size());
+		assertEquals("9", connections.get("1").get(0).getKey().getProviderUserId());
+		assertEquals("10", connections.get("1").get(1).getKey().getProviderUserId());
+		assertEquals("11", connections.getFirst("2").getKey().getProviderUserId());
+	}
+
+	@Test
+	public void findConnectionsForLocalUsersEmptyResult() {
+		insertFacebookConnection();
+		assertTrue(usersConnectionRepository.findConnectionsForLocalUsers("facebook", Arrays.asList("2")).isEmpty());
+		assertTrue(usersConnectionRepository.findConnectionsForLocalUsers("twitter", Arrays.asList("1")).isEmpty());
+	}
+
+	@Test
+	public void findAllConnectionsToProvider() {
+		connectionFactoryRegistry.addConnectionFactory(new TestTwitterServiceProviderConnectionFactory());
+		insertTwitterConnection();
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		insertFacebookConnection3();
+		usersConnectionRepository.setPageSize(1);
+		final List<String> keys = new ArrayList<String>();
+		usersConnectionRepository.findAllConnectionsToProvider("facebook", new ServiceProviderConnectionHandler() {
+			public void handleConnection(String localUserId, ServiceProviderConnection<?> connection) {
+				keys.add(localUserId + ":" + connection.getKey().getProviderUserId());
+			}
+		});
+		assertEquals(Arrays.asList("1:10", "1:9", "2:11"), keys);
+	}
+
+	@Test
+	public void findConnectionsExpiringBetween() {
+		connectionFactoryRegistry.addConnectionFactory(new TestTwitterServiceProviderConnectionFactory());
+		insertTwitterConnection();
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		long now = System.currentTimeMillis();
+		dataAccessor.update("update ServiceProviderConnection set expireTime = ? where providerUserId = '10'", now + 60000);
+		assertEquals(Arrays.asList("1:10"), findConnectionsExpiringBetween(now - 600000, now + 600000, 10));
+	}
+
+	@Test
+	public void findConnectionsExpiringBetween_longExpiredExcludedAndLimited() {
+		connectionFactoryRegistry.addConnectionFactory(new TestTwitterServiceProviderConnectionFactory());
+		insertTwitterConnection();
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		insertFacebookConnection3();
+		long now = System.currentTimeMillis();
+		dataAccessor.update("update ServiceProviderConnection set expireTime = ? where providerUserId = '9'", now - 7200000);
+		dataAccessor.update("update ServiceProviderConnection set expireTime = ? where providerUserId = '10'", now - 60000);
+		dataAccessor.update("update ServiceProviderConnection set expireTime = ? where providerUserId = '11'", now + 60000);
+		assertEquals(Arrays.asList("1:10", "2:11"), findConnectionsExpiringBetween(now - 600000, now + 600000, 10));
+		assertEquals(Arrays.asList("1:10"), findConnectionsExpiringBetween(now - 600000, now + 600000, 1));
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void findConnectionsToProviders() {
@@ -160,6 +231,64 @@ public class JdbcMultiUserServiceProviderConnectionRepositoryTest {
 		assertTwitterConnection((ServiceProviderConnection<TestTwitterApi>) connectionsForUsers.getFirst("twitter"));
 	}
 	
+	@Test
+	public void findConnectionsForUsersChunked() {
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		usersConnectionRepository.setInClauseChunkSize(1);
+		connectionRepository = usersConnectionRepository.createConnectionRepository("1");
+		MultiValueMap<String, String> providerUsers = new LinkedMultiValueMap<String, String>();
+		providerUsers.add("facebook", "1");
+		providerUsers.add("facebook", "9");
+		providerUsers.add("facebook", "2");
+		providerUsers.add("facebook", "10");
+		List<ServiceProviderConnection<?>> connections = connectionRepository.findConnectionsForUsers(providerUsers).get("facebook");
+		assertEquals(4, connections.size());
+		assertNull(connections.get(0));
+		assertEquals("9", connections.get(1).getKey().getProviderUserId());
+		assertNull(connections.get(2));
+		assertEquals("10", connections.get(3).getKey().getProviderUserId());
+	}
+
+	@Test
+	public void findConnectionsForUsersChunkedByRange() {
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		usersConnectionRepository.setInClauseChunkSize(2);
+		connectionRepository = usersConnectionRepository.createConnectionRepository("1");
+		MultiValueMap<String, String> providerUsers = new LinkedMultiValueMap<String, String>();
+		providerUsers.add("facebook", "3");
+		providerUsers.add("facebook", "10");
+		providerUsers.add("facebook", "2");
+		providerUsers.add("facebook", "9");
+		providerUsers.add("facebook", "1");
+		providerUsers.add("facebook", "10");
+		List<ServiceProviderConnection<?>> connections = connectionRepository.findConnectionsForUsers(providerUsers).get("facebook");
+		assertEquals(6, connections.size());
+		assertEquals("10", connections.get(1).getKey().getProviderUserId());
+		assertEquals("9", connections.get(3).getKey().getProviderUserId());
+		assertNull(connections.get(0));
+		assertNull(connections.get(2));
+		assertNull(connections.get(4));
+		assertNull(connections.get(5));
+	}
+
+	@Test
+	public void findConnectionsForUsersChunkedNonNumeric() {
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		usersConnectionRepository.setInClauseChunkSize(2);
+		connectionRepository = usersConnectionRepository.createConnectionRepository("1");
+		MultiValueMap<String, String> providerUsers = new LinkedMultiValueMap<String, String>();
+		providerUsers.add("facebook", "Z");
+		providerUsers.add("facebook", "10");
+		providerUsers.add("facebook", "a");
+		providerUsers.add("facebook", "9");
+		List<ServiceProviderConnection<?>> connections = connectionRepository.findConnectionsForUsers(providerUsers).get("facebook");
+		assertEquals("10", connections.get(1).getKey().getProviderUserId());
+		assertEquals("9", connections.get(3).getKey().getProviderUserId());
+	}
+
 	@Test
 	public void findConnectionsForUsersEmptyResult() {
 		MultiValueMap<String, String> providerUsers = new LinkedMultiValueMap<String, String>();
@@ -252,6 +381,14 @@ public class JdbcMultiUserServiceProviderConnectionRepositoryTest {
 		connectionRepository.removeConnection(new ServiceProviderConnectionKey("facebook", "1"));
 	}
 
+	@Test
+	public void removeConnections() {
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		connectionRepository.removeConnections(Arrays.asList(new ServiceProviderConnectionKey("facebook", "9"), new ServiceProviderConnectionKey("facebook", "10")));
+		assertFalse(dataAccessor.queryForObject("select exists (select 1 from ServiceProviderConnection where providerId = 'facebook')", Boolean.class));
+	}
+
 	@Test
 	public void addConnection() {
 		ServiceProviderConnection<TestFacebookApi> connection = connectionFactory.createConnection(new AccessGrant("123456789", null, "987654321", 3600));
@@ -268,6 +405,127 @@ public class JdbcMultiUserServiceProviderConnectionRepositoryTest {
 		connectionRepository.addConnection(connection);
 	}
 	
+	@Test
+	public void addConnections() {
+		insertFacebookConnection();
+		List<ServiceProviderConnection<?>> connections = new ArrayList<ServiceProviderConnection<?>>();
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "10", null, null, null, "456789012", null, null, null)));
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "11", null, null, null, "567890123", null, null, null)));
+		connectionRepository.addConnections(connections);
+		List<ServiceProviderConnection<?>> restoredConnections = connectionRepository.findConnectionsToProvider("facebook");
+		assertEquals(3, restoredConnections.size());
+		assertEquals("10", restoredConnections.get(1).getKey().getProviderUserId());
+		assertEquals("11", restoredConnections.get(2).getKey().getProviderUserId());
+		assertEquals(3, dataAccessor.queryForInt("select rank from ServiceProviderConnection where providerUserId = '11'"));
+	}
+
+	@Test
+	public void addConnectionsDuplicate() {
+		insertFacebookConnection();
+		List<ServiceProviderConnection<?>> connections = new ArrayList<ServiceProviderConnection<?>>();
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "10", null, null, null, "456789012", null, null, null)));
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "9", null, null, null, "234567890", null, null, null)));
+		try {
+			connectionRepository.addConnections(connections);
+			fail("Should have thrown DuplicateServiceProviderConnectionException");
+		} catch (DuplicateServiceProviderConnectionException e) {
+			assertEquals(new ServiceProviderConnectionKey("facebook", "9"), e.getConnectionKey());
+		}
+		assertEquals(1, connectionRepository.findConnectionsToProvider("facebook").size());
+	}
+
+	@Test
+	public void addConnectionsDuplicate_concurrentlyAdded() {
+		JdbcTemplate racingTemplate = new JdbcTemplate(database) {
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				// another request adds the same connection just before the batch runs, on its own connection and transaction
+				Thread racer = new Thread(new Runnable() {
+					public void run() {
+						insertFacebookConnection2();
+					}
+				});
+				racer.start();
+				try {
+					racer.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.batchUpdate(sql, batchArgs);
+			}
+		};
+		ServiceProviderConnectionRepository racingRepository = createConnectionRepository(racingTemplate);
+		insertFacebookConnection();
+		List<ServiceProviderConnection<?>> connections = new ArrayList<ServiceProviderConnection<?>>();
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "11", null, null, null, "567890123", null, null, null)));
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "10", null, null, null, "456789012", null, null, null)));
+		try {
+			racingRepository.addConnections(connections);
+			fail("Should have thrown DuplicateServiceProviderConnectionException");
+		} catch (DuplicateServiceProviderConnectionException e) {
+			assertEquals(new ServiceProviderConnectionKey("facebook", "10"), e.getConnectionKey());
+		}
+	}
+
+	@Test
+	public void addConnections_rankConflictRetried() {
+		JdbcTemplate racingTemplate = new JdbcTemplate(database) {
+			private boolean raced;
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				if (!raced) {
+					// a concurrent add for another provider user takes the rank the first attempt computed
+					raced = true;
+					super.batchUpdate(sql, batchArgs);
+					throw new DuplicateKeyException("Unique index or primary key violation: SERVICEPROVIDERCONNECTIONRANK");
+				}
+				return super.batchUpdate(sql, batchArgs);
+			}
+		};
+		insertFacebookConnection();
+		List<ServiceProviderConnection<?>> connections = new ArrayList<ServiceProviderConnection<?>>();
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "10", null, null, null, "456789012", null, null, null)));
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "11", null, null, null, "567890123", null, null, null)));
+		createConnectionRepository(racingTemplate).addConnections(connections);
+		List<ServiceProviderConnection<?>> restoredConnections = connectionRepository.findConnectionsToProvider("facebook");
+		assertEquals(3, restoredConnections.size());
+		assertEquals(3, dataAccessor.queryForInt("select rank from ServiceProviderConnection where providerUserId = '11'"));
+	}
+
+	@Test
+	public void addConnections_rankConflictPersists() {
+		JdbcTemplate racingTemplate = new JdbcTemplate(database) {
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				super.batchUpdate(sql, batchArgs);
+				throw new DuplicateKeyException("Unique index or primary key violation: SERVICEPROVIDERCONNECTIONRANK");
+			}
+		};
+		insertFacebookConnection();
+		List<ServiceProviderConnection<?>> connections = new ArrayList<ServiceProviderConnection<?>>();
+		connections.add(connectionFactory.createConnection(new ServiceProviderConnectionData("facebook", "10", null, null, null, "456789012", null, null, null)));
+		try {
+			createConnectionRepository(racingTemplate).addConnections(connections);
+			fail("Should have thrown DuplicateKeyException");
+		} catch (DuplicateServiceProviderConnectionException e) {
+			fail("Not a duplicate connection");
+		} catch (DuplicateKeyException e) {
+		}
+		assertEquals(1, connectionRepository.findConnectionsToProvider("facebook").size());
+	}
+
+	@Test
+	public void updateConnections() {
+		insertFacebookConnection();
+		insertFacebookConnection2();
+		List<ServiceProviderConnection<?>> connections = connectionRepository.findConnectionsToProvider("facebook");
+		for (ServiceProviderConnection<?> connection : connections) {
+			connection.refresh();
+		}
+		connectionRepository.updateConnections(connections);
+		for (ServiceProviderConnection<?> connection : connectionRepository.findConnectionsToProvider("facebook")) {
+			assertEquals("765432109", connection.createData().getAccessToken());
+			assertEquals("654321098", connection.createData().getRefreshToken());
+		}
+	}
+
 	@Test
 	public void updateConnectionProfileFields() {
 		connectionFactoryRegistry.addConnectionFactory(new TestTwitterServiceProviderConnectionFactory());		
@@ -295,11 +553,27 @@ public class JdbcMultiUserServiceProviderConnectionRepositoryTest {
 	}
 
 		
+	private List<String> findConnectionsExpiringBetween(long fromTime, long toTime, int maxConnections) {
+		final List<String> keys = new ArrayList<String>();
+		usersConnectionRepository.findConnectionsExpiringBetween(fromTime, toTime, maxConnections, new ServiceProviderConnectionHandler() {
+			public void handleConnection(String localUserId, ServiceProviderConnection<?> connection) {
+				keys.add(localUserId + ":" + connection.getKey().getProviderUserId());
+			}
+		});
+		return keys;
+	}
+
 	private void insertTwitterConnection() {
 		dataAccessor.update("insert into ServiceProviderConnection (localUserId, providerId, providerUserId, rank, profileName, profileUrl, profilePictureUrl, accessToken, secret, refreshToken, expireTime) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
 				"1", "twitter", "1", 1, "@kdonald", "http://twitter.com/kdonald", "http://twitter.com/kdonald/picture", "123456789", "987654321", null, null);
 	}
 	
+	private ServiceProviderConnectionRepository createConnectionRepository(JdbcTemplate jdbcTemplate) {
+		return new JdbcServiceProviderConnectionRepository("1", jdbcTemplate, connectionFactoryRegistry, Encryptors.noOpText(),
+				new ServiceProviderConnectionMapper(connectionFactoryRegistry, Encryptors.noOpText()), new NamedParameterJdbcTemplate(jdbcTemplate), 500,
+				new TransactionTemplate(new DataSourceTransactionManager(database)));
+	}
+
 	private void insertFacebookConnection() {
 		dataAccessor.update("insert into ServiceProviderConnection (localUserId, providerId, providerUserId, rank, profileName, profileUrl, profilePictureUrl, accessToken, secret, refreshToken, expireTime) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
 				"1", "facebook", "9", 1, null, null, null, "234567890", null, "345678901", System.currentTimeMillis() + 3600000);
@@ -359,7 +633,7 @@ public class JdbcMultiUserServiceProviderConnectionRepositoryTest {
 	
 	// test facebook provider
 	
-	private static class TestFacebookServiceProviderConnectionFactory extends OAuth2ServiceProviderConnectionFactory<TestFacebookApi> {
+	static class TestFacebookServiceProviderConnectionFactory extends OAuth2ServiceProviderConnectionFactory<TestFacebookApi> {
 
 		public TestFacebookServiceProviderConnectionFactory() {
 			super("facebook", new TestFacebookServiceProvider(), new TestFacebookServiceApiAdapter());
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.social.connect.NoSuchServiceProviderConnectionException;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionFactoryLocator;
+import org.springframework.social.connect.ServiceProviderConnectionKey;
+import org.springframework.social.connect.ServiceProviderConnectionRepository;
+
+public class CachingServiceProviderConnectionRepositoryTest {
+
+	private ServiceProviderConnectionRepository targetRepository;
+
+	private ServiceProviderConnectionCache connectionCache;
+
+	private CachingServiceProviderConnectionRepository connectionRepository;
+
+	private ServiceProviderConnection<?> connection;
+
+	@Before
+	public void setUp() {
+		targetRepository = mock(ServiceProviderConnectionRepository.class);
+		connectionCache = new ServiceProviderConnectionCache();
+		connectionRepository = new CachingServiceProviderConnectionRepository("1", targetRepository, mock(ServiceProviderConnectionFactoryLocator.class), connectionCache);
+		connection = mockConnection("facebook", "9");
+		when(targetRepository.findConnectionsToProvider("facebook")).thenReturn(connections(connection));
+	}
+
+	@Test
+	public void findConnectionsToProvider_cached() {
+		assertEquals(1, connectionRepository.findConnectionsToProvider("facebook").size());
+		assertSame(connection, connectionRepository.findConnectionsToProvider("facebook").get(0));
+		verify(targetRepository, times(1)).findConnectionsToProvider("facebook");
+		assertEquals(1, connectionCache.getHitCount());
+		assertEquals(1, connectionCache.getMissCount());
+		assertEquals(0.5, connectionCache.getHitRatio(), 0.0);
+	}
+
+	@Test
+	public void findConnection_cached() {
+		assertSame(connection, connectionRepository.findConnection(new ServiceProviderConnectionKey("facebook", "9")));
+		assertSame(connection, connectionRepository.findConnection(new ServiceProviderConnectionKey("facebook", "9")));
+		verify(targetRepository, times(1)).findConnectionsToProvider("facebook");
+	}
+
+	@Test(expected=NoSuchServiceProviderConnectionException.class)
+	public void findConnection_otherProviderUser() {
+		connectionRepository.findConnection(new ServiceProviderConnectionKey("facebook", "10"));
+	}
+
+	@Test
+	public void addConnection_invalidates() {
+		connectionRepository.findConnectionsToProvider("facebook");
+		connectionRepository.addConnection(mockConnection("facebook", "10"));
+		connectionRepository.findConnectionsToProvider("facebook");
+		verify(targetRepository, times(2)).findConnectionsToProvider("facebook");
+	}
+
+	@Test
+	public void removeConnection_invalidates() {
+		connectionRepository.findConnectionsToProvider("facebook");
+		connectionRepository.removeConnection(new ServiceProviderConnectionKey("facebook", "9"));
+		connectionRepository.findConnectionsToProvider("facebook");
+		verify(targetRepository, times(2)).findConnectionsToProvider("facebook");
+	}
+
+	@Test
+	public void put_staleLoadDiscarded() {
+		long stamp = connectionCache.stamp();
+		connectionCache.invalidate("1", "facebook");
+		connectionCache.put("1", "facebook", connections(connection), stamp);
+		assertNull(connectionCache.get("1", "facebook"));
+	}
+
+	@Test
+	public void put_otherUsersInvalidationIgnored() {
+		long stamp = connectionCache.stamp();
+		connectionCache.invalidate("2", "facebook");
+		connectionCache.put("1", "facebook", connections(connection), stamp);
+		assertNotNull(connectionCache.get("1", "facebook"));
+	}
+
+	@Test
+	public void put_loadInFlightDuringClearDiscarded() {
+		long stamp = connectionCache.stamp();
+		connectionCache.clear();
+		connectionCache.put("1", "facebook", connections(connection), stamp);
+		assertNull(connectionCache.get("1", "facebook"));
+	}
+
+	@Test
+	public void maxEntries() {
+		ServiceProviderConnectionCache connectionCache = new ServiceProviderConnectionCache(2, ServiceProviderConnectionCache.DEFAULT_TIME_TO_LIVE);
+		List<ServiceProviderConnection<?>> empty = Collections.emptyList();
+		connectionCache.put("1", "facebook", empty, connectionCache.stamp());
+		connectionCache.put("2", "facebook", empty, connectionCache.stamp());
+		connectionCache.get("1", "facebook");
+		connectionCache.put("3", "facebook", empty, connectionCache.stamp());
+		assertEquals(2, connectionCache.size());
+		assertEquals(1, connectionCache.getEvictionCount());
+		assertNotNull(connectionCache.get("1", "facebook"));
+		assertNull(connectionCache.get("2", "facebook"));
+	}
+
+	@Test
+	public void timeToLive() throws InterruptedException {
+		ServiceProviderConnectionCache connectionCache = new ServiceProviderConnectionCache(2, 1);
+		connectionCache.put("1", "facebook", connections(connection), connectionCache.stamp());
+		Thread.sleep(10);
+		assertNull(connectionCache.get("1", "facebook"));
+		assertEquals(0, connectionCache.size());
+	}
+
+	// internal helpers
+
+	private ServiceProviderConnection<?> mockConnection(String providerId, String providerUserId) {
+		ServiceProviderConnection<?> connection = mock(ServiceProviderConnection.class);
+		when(connection.getKey()).thenReturn(new ServiceProviderConnectionKey(providerId, providerUserId));
+		return connection;
+	}
+
+	private List<ServiceProviderConnection<?>> connections(ServiceProviderConnection<?> connection) {
+		List<ServiceProviderConnection<?>> connections = new ArrayList<ServiceProviderConnection<?>>();
+		connections.add(connection);
+		return connections;
+	}
+
+}
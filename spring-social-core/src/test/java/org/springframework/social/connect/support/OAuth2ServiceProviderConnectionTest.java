@@ -0,0 +1,141 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionKey;
+import org.springframework.social.connect.ServiceProviderUser;
+import org.springframework.social.oauth2.AccessGrant;
+import org.springframework.social.oauth2.OAuth2Operations;
+import org.springframework.social.oauth2.OAuth2ServiceProvider;
+import org.springframework.util.MultiValueMap;
+
+public class OAuth2ServiceProviderConnectionTest {
+
+	private TestServiceProvider serviceProvider = new TestServiceProvider();
+
+	private ServiceProviderConnection<TestApi> connection = new OAuth2ServiceProviderConnection<TestApi>(new ServiceProviderConnectionKey("test", "1"), new ServiceProviderUser("1", null, null, null),
+			"123456789", "987654321", null, serviceProvider, null);
+
+	@Test
+	public void getServiceApi_builtOnFirstInvocation() {
+		assertEquals(0, serviceProvider.serviceApiCount);
+		TestApi serviceApi = connection.getServiceApi();
+		assertEquals(0, serviceProvider.serviceApiCount);
+		serviceApi.getAccessToken();
+		serviceApi.getAccessToken();
+		assertEquals(1, serviceProvider.serviceApiCount);
+	}
+
+	@Test
+	public void getServiceApi_concurrentInvocations() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Callable<Boolean> await = new Callable<Boolean>() {
+				public Boolean call() throws Exception {
+					return connection.getServiceApi().await(latch);
+				}
+			};
+			Future<Boolean> first = executor.submit(await);
+			Future<Boolean> second = executor.submit(await);
+			assertTrue(first.get(5, TimeUnit.SECONDS));
+			assertTrue(second.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void refresh() {
+		assertEquals("123456789", connection.getServiceApi().getAccessToken());
+		connection.refresh();
+		assertEquals("765432109", connection.getServiceApi().getAccessToken());
+		assertEquals("654321098", connection.createData().getRefreshToken());
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void getServiceApi_exceptionNotWrapped() {
+		connection.getServiceApi().fail();
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void getServiceApi_expired() {
+		ServiceProviderConnection<TestApi> expired = new OAuth2ServiceProviderConnection<TestApi>(new ServiceProviderConnectionKey("test", "1"), new ServiceProviderUser("1", null, null, null),
+				"123456789", "987654321", System.currentTimeMillis() - 1000, new TestServiceProvider(), null);
+		expired.getServiceApi().getAccessToken();
+	}
+
+	public interface TestApi {
+
+		String getAccessToken();
+
+		boolean await(CountDownLatch latch) throws InterruptedException;
+
+		void fail();
+
+	}
+
+	private static class TestServiceProvider implements OAuth2ServiceProvider<TestApi> {
+
+		private int serviceApiCount;
+
+		public OAuth2Operations getOAuthOperations() {
+			return new OAuth2Operations() {
+				public String buildAuthorizeUrl(String redirectUri, String scope, String state) {
+					return null;
+				}
+				public String buildAuthenticateUrl(String redirectUri, String state) {
+					return null;
+				}
+				public AccessGrant exchangeForAccess(String authorizationGrant, String redirectUri, MultiValueMap<String, String> additionalParameters) {
+					return null;
+				}
+				public AccessGrant refreshAccess(String refreshToken, String scope, MultiValueMap<String, String> additionalParameters) {
+					return new AccessGrant("765432109", "read", "654321098", 3600);
+				}
+			};
+		}
+
+		public TestApi getServiceApi(final String accessToken) {
+			serviceApiCount++;
+			return new TestApi() {
+				public String getAccessToken() {
+					return accessToken;
+				}
+				public boolean await(CountDownLatch latch) throws InterruptedException {
+					latch.countDown();
+					return latch.await(5, TimeUnit.SECONDS);
+				}
+				public void fail() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+	}
+
+}
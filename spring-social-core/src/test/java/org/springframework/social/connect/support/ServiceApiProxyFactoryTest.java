@@ -0,0 +1,121 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionData;
+import org.springframework.social.oauth2.OAuth2Operations;
+import org.springframework.social.oauth2.OAuth2ServiceProvider;
+
+public class ServiceApiProxyFactoryTest {
+
+	@Test
+	public void connectionsFromOneFactoryShareProxyClass() {
+		OAuth2ServiceProviderConnectionFactory<TestApi> connectionFactory = new OAuth2ServiceProviderConnectionFactory<TestApi>("test", new TestServiceProvider(), null);
+		ServiceProviderConnection<TestApi> first = connectionFactory.createConnection(new ServiceProviderConnectionData("test", "1", null, null, null, "123456789", null, null, null));
+		ServiceProviderConnection<TestApi> second = connectionFactory.createConnection(new ServiceProviderConnectionData("test", "2", null, null, null, "234567890", null, null, null));
+		assertTrue(Proxy.isProxyClass(first.getServiceApi().getClass()));
+		assertSame(first.getServiceApi().getClass(), second.getServiceApi().getClass());
+		assertNotSame(first.getServiceApi(), second.getServiceApi());
+		assertEquals("123456789", first.getServiceApi().getAccessToken());
+		assertEquals("234567890", second.getServiceApi().getAccessToken());
+	}
+
+	@Test
+	public void createProxy() {
+		ServiceApiProxyFactory<TestApi> proxyFactory = new ServiceApiProxyFactory<TestApi>(TestServiceProvider.class);
+		TestApi proxy = proxyFactory.createProxy(new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				return "proxied";
+			}
+		});
+		assertEquals("proxied", proxy.getAccessToken());
+	}
+
+	@Test
+	public void createProxy_classServiceApi() {
+		ServiceApiProxyFactory<TestClassApi> proxyFactory = new ServiceApiProxyFactory<TestClassApi>(TestClassServiceProvider.class);
+		assertNull(proxyFactory.createProxy(new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				throw new AssertionError("No proxy should be created");
+			}
+		}));
+	}
+
+	@Test
+	public void connectionWithClassServiceApi() {
+		OAuth2ServiceProviderConnectionFactory<TestClassApi> connectionFactory = new OAuth2ServiceProviderConnectionFactory<TestClassApi>("test", new TestClassServiceProvider(), null);
+		ServiceProviderConnection<TestClassApi> connection = connectionFactory.createConnection(new ServiceProviderConnectionData("test", "1", null, null, null, "123456789", null, null, null));
+		assertSame(TestClassApi.class, connection.getServiceApi().getClass());
+		assertEquals("123456789", connection.getServiceApi().getAccessToken());
+	}
+
+	public interface TestApi {
+
+		String getAccessToken();
+
+	}
+
+	public static class TestClassApi {
+
+		private final String accessToken;
+
+		public TestClassApi(String accessToken) {
+			this.accessToken = accessToken;
+		}
+
+		public String getAccessToken() {
+			return accessToken;
+		}
+
+	}
+
+	private static class TestServiceProvider implements OAuth2ServiceProvider<TestApi> {
+
+		public OAuth2Operations getOAuthOperations() {
+			return null;
+		}
+
+		public TestApi getServiceApi(final String accessToken) {
+			return new TestApi() {
+				public String getAccessToken() {
+					return accessToken;
+				}
+			};
+		}
+
+	}
+
+	private static class TestClassServiceProvider implements OAuth2ServiceProvider<TestClassApi> {
+
+		public OAuth2Operations getOAuthOperations() {
+			return null;
+		}
+
+		public TestClassApi getServiceApi(String accessToken) {
+			return new TestClassApi(accessToken);
+		}
+
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.connect.support;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.social.connect.MultiUserServiceProviderConnectionRepository;
+import org.springframework.social.connect.ServiceProviderConnection;
+import org.springframework.social.connect.ServiceProviderConnectionHandler;
+import org.springframework.social.connect.ServiceProviderConnectionKey;
+import org.springframework.social.connect.ServiceProviderConnectionRepository;
+
+public class ServiceProviderConnectionRefreshSchedulerTest {
+
+	private MultiUserServiceProviderConnectionRepository usersConnectionRepository;
+
+	private ServiceProviderConnectionRepository connectionRepository;
+
+	private ServiceProviderConnectionRefreshScheduler scheduler;
+
+	private final List<ServiceProviderConnection<?>> expiringConnections = new ArrayList<ServiceProviderConnection<?>>();
+
+	@Before
+	public void setUp() {
+		usersConnectionRepository = mock(MultiUserServiceProviderConnectionRepository.class);
+		connectionRepository = mock(ServiceProviderConnectionRepository.class);
+		when(usersConnectionRepository.createConnectionRepository("1")).thenReturn(connectionRepository);
+		doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) {
+				ServiceProviderConnectionHandler handler = (ServiceProviderConnectionHandler) invocation.getArguments()[3];
+				for (ServiceProviderConnection<?> connection : expiringConnections) {
+					handler.handleConnection("1", connection);
+				}
+				return null;
+			}
+		}).when(usersConnectionRepository).findConnectionsExpiringBetween(anyLong(), anyLong(), anyInt(), any(ServiceProviderConnectionHandler.class));
+		scheduler = new ServiceProviderConnectionRefreshScheduler(usersConnectionRepository);
+	}
+
+	@Test
+	public void refreshExpiringConnections() {
+		ServiceProviderConnection<?> facebook = mockConnection("facebook", "9");
+		expiringConnections.add(facebook);
+		assertEquals(1, scheduler.refreshExpiringConnections());
+		verify(facebook).refresh();
+		verify(connectionRepository).updateConnection(facebook);
+	}
+
+	@Test
+	public void refreshExpiringConnections_maxRefreshesPerRun() {
+		ServiceProviderConnection<?> facebook9 = mockConnection("facebook", "9");
+		ServiceProviderConnection<?> facebook10 = mockConnection("facebook", "10");
+		expiringConnections.add(facebook9);
+		expiringConnections.add(facebook10);
+		scheduler.setMaxRefreshesPerRun(1);
+		assertEquals(1, scheduler.refreshExpiringConnections());
+		verify(facebook9).refresh();
+		verify(facebook10, never()).refresh();
+	}
+
+	@Test
+	public void refreshExpiringConnections_failedRefreshNotRetried() {
+		ServiceProviderConnection<?> facebook9 = mockConnection("facebook", "9");
+		ServiceProviderConnection<?> facebook10 = mockConnection("facebook", "10");
+		doThrow(new IllegalStateException("revoked")).when(facebook9).refresh();
+		expiringConnections.add(facebook9);
+		expiringConnections.add(facebook10);
+		scheduler.setMaxRefreshesPerRun(1);
+		assertEquals(0, scheduler.refreshExpiringConnections());
+		assertEquals(1, scheduler.refreshExpiringConnections());
+		verify(facebook9, times(1)).refresh();
+		verify(connectionRepository, never()).updateConnection(facebook9);
+		verify(connectionRepository).updateConnection(facebook10);
+	}
+
+	@Test
+	public void refreshExpiringConnections_queryLimitedAndBounded() {
+		ServiceProviderConnection<?> facebook9 = mockConnection("facebook", "9");
+		doThrow(new IllegalStateException("revoked")).when(facebook9).refresh();
+		expiringConnections.add(facebook9);
+		scheduler.setMaxRefreshesPerRun(5);
+		scheduler.setMaxExpiredAge(1000);
+		long before = System.currentTimeMillis();
+		scheduler.refreshExpiringConnections();
+		scheduler.refreshExpiringConnections();
+		ArgumentCaptor<Long> fromTimes = ArgumentCaptor.forClass(Long.class);
+		ArgumentCaptor<Integer> limits = ArgumentCaptor.forClass(Integer.class);
+		verify(usersConnectionRepository, times(2)).findConnectionsExpiringBetween(fromTimes.capture(), anyLong(), limits.capture(), any(ServiceProviderConnectionHandler.class));
+		assertTrue(fromTimes.getAllValues().get(0) >= before - 1000);
+		assertEquals(Arrays.asList(5, 6), limits.getAllValues());
+	}
+
+	@Test
+	public void refreshExpiringConnections_failedRefreshesPruned() {
+		ServiceProviderConnection<?> facebook9 = mockConnection("facebook", "9");
+		doThrow(new IllegalStateException("revoked")).when(facebook9).refresh();
+		expiringConnections.add(facebook9);
+		scheduler.setMaxRefreshesPerRun(5);
+		scheduler.setRefreshLeadTime(0);
+		scheduler.refreshExpiringConnections();
+		expiringConnections.clear();
+		scheduler.refreshExpiringConnections();
+		ArgumentCaptor<Integer> limits = ArgumentCaptor.forClass(Integer.class);
+		verify(usersConnectionRepository, times(2)).findConnectionsExpiringBetween(anyLong(), anyLong(), limits.capture(), any(ServiceProviderConnectionHandler.class));
+		assertEquals(Arrays.asList(5, 5), limits.getAllValues());
+	}
+
+	private ServiceProviderConnection<?> mockConnection(String providerId, String providerUserId) {
+		ServiceProviderConnection<?> connection = mock(ServiceProviderConnection.class);
+		when(connection.getKey()).thenReturn(new ServiceProviderConnectionKey(providerId, providerUserId));
+		return connection;
+	}
+
+}
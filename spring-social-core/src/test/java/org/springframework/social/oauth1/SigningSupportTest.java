@@ -16,6 +16,7 @@
 package org.springframework.social.oauth1;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.net.URI;
 import java.util.Map;
@@ -72,6 +73,29 @@ public class SigningSupportTest {
 		assertAuthorizationHeader(authorizationHeader, "qz6HT3AG1Z9J%2BP99O4HeMtClGeY%3D");
 	}
 
+	@Test
+	public void buildAuthorizationHeaderValue_reusesSigningKey() throws Exception {
+		SigningSupport signingUtils = new SigningSupport();
+		signingUtils.setTimestampGenerator(new MockTimestampGenerator(123456789, 987654321));
+		URI uri = URIBuilder.fromUri("http://example.com/request").queryParam("b5", "=%3D").queryParam("a3", "a").queryParam("c@", "")
+			.queryParam("a2", "r b").build();
+		HttpRequest request = new SimpleClientHttpRequestFactory().createRequest(uri, HttpMethod.POST);
+		request.getHeaders().setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+		for (int i = 0; i < 3; i++) {
+			String authorizationHeader = signingUtils.buildAuthorizationHeaderValue(request, "c2&a3=2+q".getBytes(), "9djdj82h48djs9d2", "consumer_secret", "kkk9d7dh3k39sjv7", "token_secret");
+			assertEquals("qz6HT3AG1Z9J%2BP99O4HeMtClGeY%3D", extractSignature(authorizationHeader));
+		}
+		String otherTokenHeader = signingUtils.buildAuthorizationHeaderValue(request, "c2&a3=2+q".getBytes(), "9djdj82h48djs9d2", "consumer_secret", "kkk9d7dh3k39sjv7", "other_secret");
+		assertFalse("qz6HT3AG1Z9J%2BP99O4HeMtClGeY%3D".equals(extractSignature(otherTokenHeader)));
+		String authorizationHeader = signingUtils.buildAuthorizationHeaderValue(request, "c2&a3=2+q".getBytes(), "9djdj82h48djs9d2", "consumer_secret", "kkk9d7dh3k39sjv7", "token_secret");
+		assertEquals("qz6HT3AG1Z9J%2BP99O4HeMtClGeY%3D", extractSignature(authorizationHeader));
+	}
+
+	private String extractSignature(String authorizationHeader) {
+		String signatureElement = authorizationHeader.substring(authorizationHeader.indexOf("oauth_signature=\""));
+		return signatureElement.substring("oauth_signature=\"".length(), signatureElement.length() - 1);
+	}
+
 	private void assertAuthorizationHeader(String authorizationHeader, String expectedSignature) {
 		String[] headerElements = authorizationHeader.split(", ");
 		assertEquals("OAuth oauth_version=\"1.0\"", headerElements[0]);
@@ -152,4 +176,14 @@ public class SigningSupportTest {
 		assertEquals("oauth_timestamp%3D2468013579", parameterParts[4]);
 		assertEquals("oauth_version%3D1.0", parameterParts[5]);
 	}
+
+	@Test
+	public void buildBaseString_multibyteCharacters() {
+		SigningSupport signingUtils = new SigningSupport();
+		LinkedMultiValueMap<String, String> collectedParameters = new LinkedMultiValueMap<String, String>();
+		collectedParameters.add("status", "caf\u00e9 \u4e2d \ud83d\ude00");
+		String baseString = signingUtils.buildBaseString(HttpMethod.POST, "http://example.com/request", collectedParameters);
+		assertEquals("POST&http%3A%2F%2Fexample.com%2Frequest&status%3Dcaf%25C3%25A9%2520%25E4%25B8%25AD%2520%25F0%259F%2598%2580", baseString);
+	}
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support;
+
+import static org.junit.Assert.*;
+
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.junit.Test;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.social.support.httpclient.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+public class ClientHttpRequestFactorySelectorTest {
+
+	@Test
+	public void getRequestFactory_sharedAcrossClients() {
+		ClientHttpRequestFactory requestFactory = ClientHttpRequestFactorySelector.getRequestFactory();
+		assertSame(requestFactory, ClientHttpRequestFactorySelector.getRequestFactory());
+		assertSame(requestFactory, underlyingRequestFactory(org.springframework.social.oauth1.ProtectedResourceClientFactory.create("key", "secret", "token", "tokenSecret")));
+		assertSame(requestFactory, underlyingRequestFactory(org.springframework.social.oauth2.ProtectedResourceClientFactory.standard("token")));
+		assertSame(requestFactory, underlyingRequestFactory(org.springframework.social.oauth2.ProtectedResourceClientFactory.draft10("otherToken")));
+	}
+
+	@Test
+	public void setRequestFactory() {
+		ClientHttpRequestFactory original = ClientHttpRequestFactorySelector.getRequestFactory();
+		try {
+			ClientHttpRequestFactory replacement = new SimpleClientHttpRequestFactory();
+			ClientHttpRequestFactorySelector.setRequestFactory(replacement);
+			assertSame(replacement, ClientHttpRequestFactorySelector.getRequestFactory());
+			assertSame(replacement, underlyingRequestFactory(org.springframework.social.oauth2.ProtectedResourceClientFactory.standard("token")));
+		} finally {
+			ClientHttpRequestFactorySelector.setRequestFactory(original);
+		}
+	}
+
+	@Test
+	public void setPoolLimits() {
+		HttpComponentsClientHttpRequestFactory requestFactory = (HttpComponentsClientHttpRequestFactory) ClientHttpRequestFactorySelector.getRequestFactory();
+		ThreadSafeClientConnManager connectionManager = (ThreadSafeClientConnManager) requestFactory.getHttpClient().getConnectionManager();
+		assertEquals(ClientHttpRequestFactorySelector.DEFAULT_MAX_TOTAL_CONNECTIONS, connectionManager.getMaxTotal());
+		assertEquals(ClientHttpRequestFactorySelector.DEFAULT_MAX_CONNECTIONS_PER_ROUTE, connectionManager.getDefaultMaxPerRoute());
+		try {
+			ClientHttpRequestFactorySelector.setMaxTotalConnections(400);
+			ClientHttpRequestFactorySelector.setMaxConnectionsPerRoute(80);
+			assertEquals(400, connectionManager.getMaxTotal());
+			assertEquals(80, connectionManager.getDefaultMaxPerRoute());
+		} finally {
+			ClientHttpRequestFactorySelector.setMaxTotalConnections(ClientHttpRequestFactorySelector.DEFAULT_MAX_TOTAL_CONNECTIONS);
+			ClientHttpRequestFactorySelector.setMaxConnectionsPerRoute(ClientHttpRequestFactorySelector.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+		}
+	}
+
+	@Test
+	public void setPoolLimits_replacedFactoryUntouched() {
+		ClientHttpRequestFactory original = ClientHttpRequestFactorySelector.getRequestFactory();
+		HttpComponentsClientHttpRequestFactory replacement = new HttpComponentsClientHttpRequestFactory(10, 2);
+		try {
+			ClientHttpRequestFactorySelector.setRequestFactory(replacement);
+			ClientHttpRequestFactorySelector.setMaxTotalConnections(400);
+			assertEquals(10, ((ThreadSafeClientConnManager) replacement.getHttpClient().getConnectionManager()).getMaxTotal());
+		} finally {
+			ClientHttpRequestFactorySelector.setRequestFactory(original);
+			ClientHttpRequestFactorySelector.setMaxTotalConnections(ClientHttpRequestFactorySelector.DEFAULT_MAX_TOTAL_CONNECTIONS);
+			replacement.destroy();
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void setMaxTotalConnections_notPositive() {
+		ClientHttpRequestFactorySelector.setMaxTotalConnections(0);
+	}
+
+	// internal helpers
+
+	private ClientHttpRequestFactory underlyingRequestFactory(RestTemplate client) {
+		// RestTemplate.getRequestFactory() wraps the factory with its interceptors, so read the configured one directly
+		return (ClientHttpRequestFactory) new DirectFieldAccessor(client).getPropertyValue("requestFactory");
+	}
+
+}
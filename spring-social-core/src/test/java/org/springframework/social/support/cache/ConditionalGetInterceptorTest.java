@@ -0,0 +1,244 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.cache;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.FileCopyUtils;
+
+public class ConditionalGetInterceptorTest {
+
+	private InMemoryResponseCacheStore store;
+
+	private ConditionalGetInterceptor interceptor;
+
+	private ClientHttpRequestExecution execution;
+
+	@Before
+	public void setUp() {
+		store = new InMemoryResponseCacheStore();
+		interceptor = new ConditionalGetInterceptor(store, "habuma");
+		execution = mock(ClientHttpRequestExecution.class);
+	}
+
+	@Test
+	public void intercept_notModified() throws IOException {
+		HttpHeaders validators = new HttpHeaders();
+		validators.set("ETag", "\"abc\"");
+		validators.set("Last-Modified", "Tue, 13 Jul 2010 17:38:21 GMT");
+		ClientHttpResponse first = response(HttpStatus.OK, validators, "{\"id\":1}");
+		ClientHttpResponse second = response(HttpStatus.NOT_MODIFIED, new HttpHeaders(), "");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first, second);
+		assertEquals("{\"id\":1}", body(interceptor.intercept(get("https://api.github.com/user/show/habuma"), new byte[0], execution)));
+		ClientHttpResponse cached = interceptor.intercept(get("https://api.github.com/user/show/habuma"), new byte[0], execution);
+		assertEquals(HttpStatus.OK, cached.getStatusCode());
+		assertEquals("{\"id\":1}", body(cached));
+		ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+		verify(execution, times(2)).execute(requests.capture(), any(byte[].class));
+		assertNull(requests.getAllValues().get(0).getHeaders().getFirst("If-None-Match"));
+		assertEquals("\"abc\"", requests.getAllValues().get(1).getHeaders().getFirst("If-None-Match"));
+		assertEquals("Tue, 13 Jul 2010 17:38:21 GMT", requests.getAllValues().get(1).getHeaders().getFirst("If-Modified-Since"));
+		assertEquals(1, interceptor.getHitCount());
+		assertEquals(1, interceptor.getMissCount());
+		assertEquals(0.5, interceptor.getHitRatio(), 0.0);
+	}
+
+	@Test
+	public void intercept_modified() throws IOException {
+		HttpHeaders validators = new HttpHeaders();
+		validators.set("ETag", "\"abc\"");
+		HttpHeaders newValidators = new HttpHeaders();
+		newValidators.set("ETag", "\"def\"");
+		ClientHttpResponse first = response(HttpStatus.OK, validators, "{\"id\":1}");
+		ClientHttpResponse second = response(HttpStatus.OK, newValidators, "{\"id\":2}");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first, second);
+		interceptor.intercept(get("https://api.github.com/user/show/habuma"), new byte[0], execution);
+		assertEquals("{\"id\":2}", body(interceptor.intercept(get("https://api.github.com/user/show/habuma"), new byte[0], execution)));
+		assertEquals("\"def\"", store.get("habuma https://api.github.com/user/show/habuma").getETag());
+		assertEquals(0, interceptor.getHitCount());
+	}
+
+	@Test
+	public void intercept_noValidators() throws IOException {
+		HttpHeaders noStore = new HttpHeaders();
+		noStore.set("ETag", "\"abc\"");
+		noStore.set("Cache-Control", "private, no-store");
+		ClientHttpResponse first = response(HttpStatus.OK, new HttpHeaders(), "{\"id\":1}");
+		ClientHttpResponse second = response(HttpStatus.OK, noStore, "{\"id\":1}");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first, second);
+		interceptor.intercept(get("https://api.twitter.com/1/users/show.json"), new byte[0], execution);
+		interceptor.intercept(get("https://api.twitter.com/1/users/show.json"), new byte[0], execution);
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void intercept_varyAcceptEncodingNotModified() throws IOException {
+		HttpHeaders vary = new HttpHeaders();
+		vary.set("ETag", "\"abc\"");
+		vary.set("Vary", "Accept-Encoding");
+		ClientHttpResponse first = response(HttpStatus.OK, vary, "{\"id\":1}");
+		ClientHttpResponse second = response(HttpStatus.NOT_MODIFIED, new HttpHeaders(), "");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first, second);
+		interceptor.intercept(get("https://api.twitter.com/1/account/verify_credentials.json"), new byte[0], execution);
+		ClientHttpResponse cached = interceptor.intercept(get("https://api.twitter.com/1/account/verify_credentials.json"), new byte[0], execution);
+		assertEquals(HttpStatus.OK, cached.getStatusCode());
+		assertEquals("{\"id\":1}", body(cached));
+		ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+		verify(execution, times(2)).execute(requests.capture(), any(byte[].class));
+		assertEquals("\"abc\"", requests.getAllValues().get(1).getHeaders().getFirst("If-None-Match"));
+		assertEquals(1, interceptor.getHitCount());
+	}
+
+	@Test
+	public void intercept_varyMatchedOnRequestHeaders() throws IOException {
+		HttpHeaders vary = new HttpHeaders();
+		vary.set("ETag", "\"abc\"");
+		vary.set("Vary", "Accept, Accept-Language");
+		HttpHeaders otherVary = new HttpHeaders();
+		otherVary.set("ETag", "\"def\"");
+		otherVary.set("Vary", "Accept, Accept-Language");
+		ClientHttpResponse first = response(HttpStatus.OK, vary, "{\"name\":\"Craig\"}");
+		ClientHttpResponse second = response(HttpStatus.OK, otherVary, "{\"name\":\"Craig (fr)\"}");
+		ClientHttpResponse third = response(HttpStatus.NOT_MODIFIED, new HttpHeaders(), "");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first, second, third);
+		interceptor.intercept(get("https://api.github.com/user/show/habuma", "en"), new byte[0], execution);
+		assertEquals("{\"name\":\"Craig (fr)\"}", body(interceptor.intercept(get("https://api.github.com/user/show/habuma", "fr"), new byte[0], execution)));
+		assertEquals("{\"name\":\"Craig (fr)\"}", body(interceptor.intercept(get("https://api.github.com/user/show/habuma", "fr"), new byte[0], execution)));
+		ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+		verify(execution, times(3)).execute(requests.capture(), any(byte[].class));
+		assertNull(requests.getAllValues().get(1).getHeaders().getFirst("If-None-Match"));
+		assertEquals("\"def\"", requests.getAllValues().get(2).getHeaders().getFirst("If-None-Match"));
+		assertEquals("fr", store.get("habuma https://api.github.com/user/show/habuma").getVaryingRequestHeaders().getFirst("Accept-Language"));
+		assertEquals(1, interceptor.getHitCount());
+	}
+
+	@Test
+	public void intercept_varyAnyNotStored() throws IOException {
+		HttpHeaders vary = new HttpHeaders();
+		vary.set("ETag", "\"abc\"");
+		vary.set("Vary", "*");
+		ClientHttpResponse first = response(HttpStatus.OK, vary, "{\"id\":1}");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first);
+		interceptor.intercept(get("https://api.twitter.com/1/account/verify_credentials.json"), new byte[0], execution);
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void namespacesKeptApart() throws IOException {
+		HttpHeaders validators = new HttpHeaders();
+		validators.set("ETag", "\"abc\"");
+		ClientHttpResponse first = response(HttpStatus.OK, validators, "{\"id\":1}");
+		ClientHttpResponse second = response(HttpStatus.OK, new HttpHeaders(), "{\"id\":2}");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first, second);
+		interceptor.intercept(get("https://api.twitter.com/1/account/verify_credentials.json"), new byte[0], execution);
+		ConditionalGetInterceptor other = new ConditionalGetInterceptor(store, "kdonald");
+		assertEquals("{\"id\":2}", body(other.intercept(get("https://api.twitter.com/1/account/verify_credentials.json"), new byte[0], execution)));
+		ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+		verify(execution, times(2)).execute(requests.capture(), any(byte[].class));
+		assertNull(requests.getAllValues().get(1).getHeaders().getFirst("If-None-Match"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void emptyNamespace() {
+		new ConditionalGetInterceptor(store, "");
+	}
+
+	@Test
+	public void intercept_modifyingRequestInvalidates() throws IOException {
+		HttpHeaders validators = new HttpHeaders();
+		validators.set("ETag", "\"abc\"");
+		ClientHttpResponse first = response(HttpStatus.OK, validators, "{\"id\":1}");
+		ClientHttpResponse second = response(HttpStatus.OK, new HttpHeaders(), "{}");
+		when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(first, second);
+		interceptor.intercept(get("https://graph.facebook.com/123/members/456"), new byte[0], execution);
+		assertEquals(1, store.size());
+		interceptor.intercept(request(HttpMethod.DELETE, "https://graph.facebook.com/123/members/456"), new byte[0], execution);
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void inMemoryStore_bounded() {
+		InMemoryResponseCacheStore boundedStore = new InMemoryResponseCacheStore(2, 10);
+		boundedStore.put("a", cachedResponse("12345"));
+		boundedStore.put("b", cachedResponse("12345"));
+		boundedStore.get("a");
+		boundedStore.put("c", cachedResponse("1"));
+		assertNotNull(boundedStore.get("a"));
+		assertNull(boundedStore.get("b"));
+		assertNotNull(boundedStore.get("c"));
+		boundedStore.put("d", cachedResponse("12345678901"));
+		assertNull(boundedStore.get("d"));
+		assertEquals(2, boundedStore.size());
+	}
+
+	private CachedResponse cachedResponse(String body) {
+		return new CachedResponse(200, "OK", new HttpHeaders(), body.getBytes());
+	}
+
+	private HttpRequest get(String uri) {
+		return request(HttpMethod.GET, uri);
+	}
+
+	private HttpRequest get(String uri, String acceptLanguage) {
+		HttpRequest request = request(HttpMethod.GET, uri);
+		request.getHeaders().set("Accept-Language", acceptLanguage);
+		return request;
+	}
+
+	private HttpRequest request(final HttpMethod method, final String uri) {
+		final HttpHeaders headers = new HttpHeaders();
+		return new HttpRequest() {
+			public HttpMethod getMethod() {
+				return method;
+			}
+			public URI getURI() {
+				return URI.create(uri);
+			}
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+		};
+	}
+
+	private ClientHttpResponse response(HttpStatus status, HttpHeaders headers, String body) throws IOException {
+		ClientHttpResponse response = mock(ClientHttpResponse.class);
+		when(response.getStatusCode()).thenReturn(status);
+		when(response.getStatusText()).thenReturn(status.getReasonPhrase());
+		when(response.getHeaders()).thenReturn(headers);
+		when(response.getBody()).thenReturn(new ByteArrayInputStream(body.getBytes("UTF-8")));
+		return response;
+	}
+
+	private String body(ClientHttpResponse response) throws IOException {
+		return new String(FileCopyUtils.copyToByteArray(response.getBody()), "UTF-8");
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpHeaders;
+
+public class FileResponseCacheStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void putAndGet() throws IOException {
+		File directory = folder.newFolder("cache");
+		FileResponseCacheStore store = new FileResponseCacheStore(directory, 10, 1024 * 1024);
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("ETag", "\"abc\"");
+		store.put("https://api.github.com/user/show/habuma", new CachedResponse(200, "OK", headers, "{\"id\":1}".getBytes("UTF-8")));
+		CachedResponse response = store.get("https://api.github.com/user/show/habuma");
+		assertEquals("\"abc\"", response.getETag());
+		assertEquals("{\"id\":1}", new String(response.getBody(), "UTF-8"));
+		assertNull(store.get("https://api.github.com/user/show/kdonald"));
+		store.remove("https://api.github.com/user/show/habuma");
+		assertNull(store.get("https://api.github.com/user/show/habuma"));
+	}
+
+	@Test
+	public void varyingRequestHeadersKept() throws IOException {
+		File directory = folder.newFolder("cache");
+		FileResponseCacheStore store = new FileResponseCacheStore(directory, 10, 1024 * 1024);
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("Vary", "Accept-Language");
+		HttpHeaders varyingRequestHeaders = new HttpHeaders();
+		varyingRequestHeaders.set("accept-language", "fr");
+		store.put("a", new CachedResponse(200, "OK", headers, "1".getBytes(), varyingRequestHeaders));
+		assertEquals(varyingRequestHeaders, store.get("a").getVaryingRequestHeaders());
+	}
+
+	@Test
+	public void survivesRestart() throws IOException {
+		File directory = folder.newFolder("cache");
+		new FileResponseCacheStore(directory, 10, 1024 * 1024).put("a", new CachedResponse(200, "OK", new HttpHeaders(), "1".getBytes()));
+		FileResponseCacheStore restarted = new FileResponseCacheStore(directory, 10, 1024 * 1024);
+		assertEquals(1, restarted.size());
+		assertEquals("1", new String(restarted.get("a").getBody()));
+	}
+
+	@Test
+	public void bounded() throws IOException {
+		File directory = folder.newFolder("cache");
+		FileResponseCacheStore store = new FileResponseCacheStore(directory, 2, 1024 * 1024);
+		store.put("a", new CachedResponse(200, "OK", new HttpHeaders(), "1".getBytes()));
+		store.put("b", new CachedResponse(200, "OK", new HttpHeaders(), "2".getBytes()));
+		store.get("a");
+		store.put("c", new CachedResponse(200, "OK", new HttpHeaders(), "3".getBytes()));
+		assertEquals(2, store.size());
+		assertNotNull(store.get("a"));
+		assertNull(store.get("b"));
+		assertEquals(2, directory.listFiles().length);
+	}
+
+	@Test
+	public void oversizedResponseNotStored() throws IOException {
+		File directory = folder.newFolder("cache");
+		FileResponseCacheStore store = new FileResponseCacheStore(directory, 10, 1024);
+		store.put("a", new CachedResponse(200, "OK", new HttpHeaders(), "1".getBytes()));
+		store.put("b", new CachedResponse(200, "OK", new HttpHeaders(), "2".getBytes()));
+		store.put("c", new CachedResponse(200, "OK", new HttpHeaders(), new byte[2048]));
+		assertNull(store.get("c"));
+		assertEquals(2, store.size());
+		assertNotNull(store.get("a"));
+		assertNotNull(store.get("b"));
+		assertEquals(2, directory.listFiles().length);
+	}
+
+	@Test
+	public void unreadableFileDiscarded() throws IOException {
+		File directory = folder.newFolder("cache");
+		new FileResponseCacheStore(directory, 10, 1024 * 1024).put("a", new CachedResponse(200, "OK", new HttpHeaders(), "1".getBytes()));
+		File file = directory.listFiles()[0];
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(new byte[] { (byte) 0xac, (byte) 0xed, 0, 5 });
+		} finally {
+			out.close();
+		}
+		FileResponseCacheStore restarted = new FileResponseCacheStore(directory, 10, 1024 * 1024);
+		assertNull(restarted.get("a"));
+		assertEquals(0, restarted.size());
+		assertFalse(file.exists());
+	}
+
+}
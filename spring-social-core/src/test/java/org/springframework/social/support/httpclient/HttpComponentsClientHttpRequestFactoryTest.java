@@ -0,0 +1,70 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.support.httpclient;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class HttpComponentsClientHttpRequestFactoryTest {
+
+	@Test
+	public void destroy_stopsIdleConnectionEvictor() throws Exception {
+		Set<Thread> before = evictorThreads();
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(10, 2);
+		requestFactory.setIdleConnectionTimeout(60000);
+		Set<Thread> started = evictorThreads();
+		started.removeAll(before);
+		assertEquals(1, started.size());
+		Thread evictor = started.iterator().next();
+		requestFactory.destroy();
+		evictor.join(5000);
+		assertFalse(evictor.isAlive());
+	}
+
+	@Test
+	public void setIdleConnectionTimeout_zeroStopsEvictor() throws Exception {
+		Set<Thread> before = evictorThreads();
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(10, 2);
+		try {
+			requestFactory.setIdleConnectionTimeout(60000);
+			Set<Thread> started = evictorThreads();
+			started.removeAll(before);
+			Thread evictor = started.iterator().next();
+			requestFactory.setIdleConnectionTimeout(0);
+			evictor.join(5000);
+			assertFalse(evictor.isAlive());
+		} finally {
+			requestFactory.destroy();
+		}
+	}
+
+	// internal helpers
+
+	private Set<Thread> evictorThreads() {
+		Set<Thread> threads = new HashSet<Thread>();
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().equals("HttpComponentsIdleConnectionEvictor") && thread.isAlive()) {
+				threads.add(thread);
+			}
+		}
+		return threads;
+	}
+
+}
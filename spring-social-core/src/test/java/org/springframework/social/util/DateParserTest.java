@@ -0,0 +1,130 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.util;
+
+import static org.junit.Assert.*;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class DateParserTest {
+
+	private static final String[] PATTERNS = {
+		"EEE MMM dd HH:mm:ss ZZZZZ yyyy", "EEE, d MMM yyyy HH:mm:ss Z", "yyyy-MM-dd'T'HH:mm:ssZ", "yyyy/MM/dd HH:mm:ss Z",
+		"yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd"
+	};
+
+	@Test
+	public void parse_providerFormats() {
+		assertEquals(1300365262000L, DateParser.forPattern("EEE MMM dd HH:mm:ss ZZZZZ yyyy").parse("Thu Mar 17 12:34:22 +0000 2011").getTime());
+		assertEquals(1279042701000L, DateParser.forPattern("EEE, d MMM yyyy HH:mm:ss Z").parse("Tue, 13 Jul 2010 17:38:21 +0000").getTime());
+		assertEquals(1300894817000L, DateParser.forPattern("yyyy-MM-dd'T'HH:mm:ssZ").parse("2011-03-23T15:40:17+0000").getTime());
+		assertEquals(1300466733000L, DateParser.forPattern("yyyy-MM-dd'T'HH:mm:ssZ").parse("2011-03-18T16:45:33Z").getTime());
+		assertEquals(1274995785000L, DateParser.forPattern("yyyy/MM/dd HH:mm:ss Z").parse("2010/05/27 14:29:45 -0700").getTime());
+	}
+
+	@Test
+	public void parse_matchesSimpleDateFormat() throws Exception {
+		Random random = new Random(42);
+		for (String pattern : PATTERNS) {
+			DateParser parser = DateParser.forPattern(pattern);
+			SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.ENGLISH);
+			for (TimeZone zone : new TimeZone[] { TimeZone.getTimeZone("UTC"), TimeZone.getTimeZone("America/Los_Angeles"), TimeZone.getTimeZone("Asia/Kolkata") }) {
+				format.setTimeZone(zone);
+				for (int i = 0; i < 2000; i++) {
+					String text = format.format(new Date(random.nextLong() % 4000000000000L));
+					Date expected = format.parse(text);
+					TimeZone defaultZone = TimeZone.getDefault();
+					TimeZone.setDefault(zone);
+					try {
+						assertEquals(pattern + " " + text, expected, parser.parse(text));
+					} finally {
+						TimeZone.setDefault(defaultZone);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void parse_invalid() {
+		DateParser parser = DateParser.forPattern("EEE MMM dd HH:mm:ss ZZZZZ yyyy");
+		assertNull(parser.parse(null));
+		assertNull(parser.parse(""));
+		assertNull(parser.parse("Thu Foo 17 12:34:22 +0000 2011"));
+		assertNull(parser.parse("Thu Mar 17 12:34 +0000 2011"));
+		assertNull(parser.parse("Thu Mar 17 25:34:22 +0000 2011"));
+		assertNull(parser.parse("Thu Mar 17 12:34:22 0000 2011"));
+		assertNull(parser.parse("2011-03-23T15:40:17+0000"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void forPattern_unsupportedLetter() {
+		DateParser.forPattern("yyyy-MM-dd hh:mm a");
+	}
+
+	@Test
+	public void parse_concurrent() throws Exception {
+		final DateParser parser = DateParser.forPattern("EEE MMM dd HH:mm:ss ZZZZZ yyyy");
+		SimpleDateFormat format = new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH);
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		final List<String> texts = new ArrayList<String>();
+		final List<Date> expected = new ArrayList<Date>();
+		Random random = new Random(7);
+		for (int i = 0; i < 500; i++) {
+			Date date = new Date((random.nextLong() & Long.MAX_VALUE) % 2000000000000L / 1000 * 1000);
+			texts.add(format.format(date));
+			expected.add(date);
+		}
+		int threadCount = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threadCount);
+		final AtomicInteger mismatches = new AtomicInteger();
+		for (int t = 0; t < threadCount; t++) {
+			new Thread() {
+				public void run() {
+					try {
+						start.await();
+						for (int round = 0; round < 200; round++) {
+							for (int i = 0; i < texts.size(); i++) {
+								if (!expected.get(i).equals(parser.parse(texts.get(i)))) {
+									mismatches.incrementAndGet();
+								}
+							}
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				}
+			}.start();
+		}
+		start.countDown();
+		done.await();
+		assertEquals(0, mismatches.get());
+	}
+
+}
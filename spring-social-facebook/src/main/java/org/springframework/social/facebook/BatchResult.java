@@ -0,0 +1,33 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+/**
+ * The result of one request in a {@link GraphBatch}, available once the batch has been executed.
+ * @author agent
+ */
+public interface BatchResult<T> {
+
+	/**
+	 * Returns the result of the request.
+	 * If Facebook reported an error for this request, the exception for that error is thrown here, so one failed request does not
+	 * prevent the other results of the batch from being read.
+	 * @return the extracted result
+	 * @throws IllegalStateException if the batch has not been executed
+	 */
+	T get();
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import java.util.List;
+
+/**
+ * One page of a Graph API connection list, together with the URL Facebook gives for the page after it.
+ * @author agent
+ */
+class ConnectionPage<T> {
+
+	private final List<T> data;
+
+	private final String next;
+
+	public ConnectionPage(List<T> data, String next) {
+		this.data = data;
+		this.next = next;
+	}
+
+	public List<T> getData() {
+		return data;
+	}
+
+	/**
+	 * The URL of the next page, or null if Facebook gave none.
+	 */
+	public String getNext() {
+		return next;
+	}
+
+}
@@ -20,6 +20,11 @@ package org.springframework.social.facebook;
  * Interface specifying a basic set of operations for interacting with Facebook.
  * Implemented by {@link FacebookTemplate}. Not often used directly, but a
  * useful option to enhance testability, as it can easily be mocked or stubbed.
+ * <p>
+ * Operations block the calling thread for the whole HTTP exchange. To fan out across many users, submit the calls to an
+ * application-managed executor, for example <code>executor.submit(new Callable&lt;List&lt;FeedEntry&gt;&gt;() { ... facebook.feedOperations().getFeed() ... })</code>,
+ * sized to the number of requests that may be in flight at once; each in-flight request holds one of its threads.
+ * </p>
  * @author Craig Walls
  */
 public interface FacebookApi extends GraphApi {
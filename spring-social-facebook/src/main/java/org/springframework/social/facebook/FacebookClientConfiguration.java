@@ -0,0 +1,80 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * The message converters and error handler every FacebookTemplate's RestTemplate is configured with.
+ * Built once and shared so that template construction does not create an ObjectMapper per user and Jackson's deserializer caches stay warm.
+ * All members are thread-safe once configured and are never modified; each RestTemplate is given its own copy of the converter list.
+ * @author agent
+ */
+final class FacebookClientConfiguration {
+
+	static final FacebookClientConfiguration INSTANCE = new FacebookClientConfiguration();
+
+	private final ObjectMapper objectMapper;
+
+	private final List<HttpMessageConverter<?>> messageConverters;
+
+	private final FacebookErrorHandler errorHandler;
+
+	private FacebookClientConfiguration() {
+		objectMapper = new ObjectMapper();
+		List<HttpMessageConverter<?>> messageConverters = new ArrayList<HttpMessageConverter<?>>(new RestTemplate().getMessageConverters());
+		for (HttpMessageConverter<?> converter : messageConverters) {
+			if (converter instanceof MappingJacksonHttpMessageConverter) {
+				((MappingJacksonHttpMessageConverter) converter).setObjectMapper(objectMapper);
+			}
+		}
+		// Facebook returns JSON data with text/javascript content type
+		MappingJacksonHttpMessageConverter json = new MappingJacksonHttpMessageConverter();
+		json.setObjectMapper(objectMapper);
+		json.setSupportedMediaTypes(Arrays.asList(new MediaType("text", "javascript")));
+		messageConverters.add(json);
+		this.messageConverters = Collections.unmodifiableList(messageConverters);
+		errorHandler = new FacebookErrorHandler(objectMapper);
+	}
+
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	public FacebookErrorHandler getErrorHandler() {
+		return errorHandler;
+	}
+
+	/**
+	 * Configures the RestTemplate with the shared message converters and error handler.
+	 * The converter instances are shared, but the list holding them is the template's own.
+	 */
+	public void configure(RestTemplate restTemplate) {
+		// each RestTemplate gets its own list, so callers may still add or remove converters on their template
+		restTemplate.setMessageConverters(new ArrayList<HttpMessageConverter<?>>(messageConverters));
+		restTemplate.setErrorHandler(errorHandler);
+	}
+
+}
@@ -33,6 +33,16 @@ import org.springframework.web.client.DefaultResponseErrorHandler;
  */
 class FacebookErrorHandler extends DefaultResponseErrorHandler {
 
+	private final ObjectMapper objectMapper;
+
+	public FacebookErrorHandler() {
+		this(new ObjectMapper(new JsonFactory()));
+	}
+
+	public FacebookErrorHandler(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
 	@Override
 	public void handleError(ClientHttpResponse response) throws IOException {				
 		Map<String, String> errorDetails = extractErrorDetailsFromResponse(response);
@@ -76,8 +86,7 @@ class FacebookErrorHandler extends DefaultResponseErrorHandler {
 
 	@SuppressWarnings("unchecked")
 	private Map<String, String> extractErrorDetailsFromResponse(ClientHttpResponse response) throws IOException {
-		ObjectMapper mapper = new ObjectMapper(new JsonFactory());
-	    Map<String, Object> responseMap = mapper.<Map<String, Object>>readValue(response.getBody(), new TypeReference<Map<String, Object>>() {});
+	    Map<String, Object> responseMap = objectMapper.<Map<String, Object>>readValue(response.getBody(), new TypeReference<Map<String, Object>>() {});
 	    if(responseMap.containsKey("error")) {
 	    	return (Map<String, String>) responseMap.get("error");
 	    }
@@ -17,17 +17,27 @@ package org.springframework.social.facebook;
 
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.json.MappingJacksonHttpMessageConverter;
 import org.springframework.social.facebook.support.extractors.ResponseExtractor;
+import org.springframework.social.facebook.support.extractors.StreamingResponseExtractor;
 import org.springframework.social.oauth2.ProtectedResourceClientFactory;
+import org.springframework.social.support.TaskExecutorSelector;
 import org.springframework.social.util.URIBuilder;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -65,6 +75,14 @@ public class FacebookTemplate implements FacebookApi {
 
 	private FacebookErrorHandler errorHandler;
 
+	private JsonFactory jsonFactory;
+
+	private ObjectMapper objectMapper;
+
+	private boolean prefetchConnectionPages;
+
+	private ObjectFetchAggregator objectFetchAggregator;
+
 	/**
 	 * Create a new instance of FacebookTemplate.
 	 * This constructor creates the FacebookTemplate using a given access token.
@@ -72,12 +90,10 @@ public class FacebookTemplate implements FacebookApi {
 	 */
 	public FacebookTemplate(String accessToken) {
 		this.restTemplate = ProtectedResourceClientFactory.draft10(accessToken);
-		// Facebook returns JSON data with text/javascript content type
-		MappingJacksonHttpMessageConverter json = new MappingJacksonHttpMessageConverter();
-		json.setSupportedMediaTypes(Arrays.asList(new MediaType("text", "javascript")));
-		restTemplate.getMessageConverters().add(json);
-		errorHandler = new FacebookErrorHandler();
-		restTemplate.setErrorHandler(errorHandler);
+		FacebookClientConfiguration.INSTANCE.configure(restTemplate);
+		errorHandler = FacebookClientConfiguration.INSTANCE.getErrorHandler();
+		objectMapper = FacebookClientConfiguration.INSTANCE.getObjectMapper();
+		jsonFactory = objectMapper.getJsonFactory();
 
 		// sub-apis
 		userOperations = new UserTemplate(this);
@@ -91,6 +107,38 @@ public class FacebookTemplate implements FacebookApi {
 		groupOperations = new GroupTemplate(this);
 	}
 
+	/**
+	 * Sets whether {@link #fetchAllConnections(String, String, ResponseExtractor, String...)} retrieves the next page of connections in the
+	 * background while the current page is being iterated. Prefetching hides the latency of each page from callers that consume the whole
+	 * list, at the cost of holding one extra page in memory. Off by default.
+	 */
+	public void setPrefetchConnectionPages(boolean prefetchConnectionPages) {
+		this.prefetchConnectionPages = prefetchConnectionPages;
+	}
+
+	/**
+	 * Coalesces single-object fetches, such as {@link UserOperations#getUserProfile(String)}, that are made concurrently from several
+	 * threads into one multi-object Graph API request.
+	 * The first fetch of a batch waits for up to the given window for others to join it, so aggregation trades a little latency on each
+	 * fetch for fewer round-trips; it only pays off when many threads share this template. Off by default.
+	 * @param windowMillis how long the first fetch of a batch waits for others; 0 turns aggregation off
+	 * @param maxObjectIds the most object IDs sent in one request; a full batch is sent without waiting out the window
+	 */
+	public void setObjectFetchAggregation(long windowMillis, int maxObjectIds) {
+		if (windowMillis == 0) {
+			objectFetchAggregator = null;
+			return;
+		}
+		objectFetchAggregator = new ObjectFetchAggregator(windowMillis, maxObjectIds) {
+			protected Map<String, Object> fetchObjectMaps(Collection<String> objectIds) {
+				return FacebookTemplate.this.fetchObjectMaps(objectIds.toArray(new String[objectIds.size()]));
+			}
+			protected Map<String, Object> fetchObjectMap(String objectId) {
+				return FacebookTemplate.this.fetchObjectMap(objectId);
+			}
+		};
+	}
+
 	public UserOperations userOperations() {
 		return userOperations;
 	}
@@ -128,12 +176,12 @@ public class FacebookTemplate implements FacebookApi {
 	}
 	
 	// low-level Graph API operations
-	@SuppressWarnings("unchecked")
 	public <T> T fetchObject(String objectId, ResponseExtractor<T> extractor) {
-		URI uri = URIBuilder.fromUri(GRAPH_API_URL + objectId).build();
-		Map<String, Object> response = (Map<String, Object>) restTemplate.getForObject(uri, Map.class);
-		checkForErrors(response);
-		return extractor.extractObject(response);
+		ObjectFetchAggregator aggregator = objectFetchAggregator;
+		if (aggregator != null) {
+			return aggregator.fetchObject(objectId, extractor);
+		}
+		return extractor.extractObject(fetchObjectMap(objectId));
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -147,10 +195,7 @@ public class FacebookTemplate implements FacebookApi {
 	
 	@SuppressWarnings("unchecked")
 	public <T> List<T> fetchObject(ResponseExtractor<T> extractor, String... objectIds) {
-		String joinedIds = join(objectIds);
-		URI uri = URIBuilder.fromUri(GRAPH_API_URL).queryParam("ids", joinedIds).build();
-		Map<String, Object> response = restTemplate.getForObject(uri, Map.class);		
-		checkForErrors(response);
+		Map<String, Object> response = fetchObjectMaps(objectIds);
 		Set<String> keys = response.keySet();
 		List<T> objects = new ArrayList<T>(keys.size());
 		for (String key : keys) {
@@ -160,21 +205,23 @@ public class FacebookTemplate implements FacebookApi {
 		return objects;
 	}
 	
-	@SuppressWarnings("unchecked")
 	public <T> List<T> fetchConnections(String objectId, String connectionType, ResponseExtractor<T> extractor) {
 		URI uri = URIBuilder.fromUri(GRAPH_API_URL + objectId + "/" + connectionType).build();
-		Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
-		checkForErrors(response);
-		return extractor.extractObjects((List<Map<String, Object>>) response.get("data"));
+		return fetchConnectionPage(uri, extractor).getData();
 	}
 	
-	@SuppressWarnings("unchecked")
 	public <T> List<T> fetchConnections(String objectId, String connectionType, ResponseExtractor<T> extractor, String... fields) {
 		String joinedFields = join(fields);
 		URI uri = URIBuilder.fromUri(GRAPH_API_URL + objectId + "/" + connectionType).queryParam("fields", joinedFields).build();
-		Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
-		checkForErrors(response);
-		return extractor.extractObjects((List<Map<String, Object>>) response.get("data"));
+		return fetchConnectionPage(uri, extractor).getData();
+	}
+
+	public <T> Iterable<T> fetchAllConnections(String objectId, String connectionType, ResponseExtractor<T> extractor, String... fields) {
+		URIBuilder uriBuilder = URIBuilder.fromUri(GRAPH_API_URL + objectId + "/" + connectionType);
+		if (fields.length > 0) {
+			uriBuilder.queryParam("fields", join(fields));
+		}
+		return new PagedConnections<T>(uriBuilder.build(), extractor, prefetchConnectionPages);
 	}
 	
 	public byte[] fetchImage(String objectId, String connectionType, ImageType type) {
@@ -216,6 +263,43 @@ public class FacebookTemplate implements FacebookApi {
 		restTemplate.postForObject(uri, deleteRequest, String.class);
 	}
 
+	public GraphBatch batch() {
+		return new GraphBatchTemplate(restTemplate, objectMapper, errorHandler);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> fetchObjectMap(String objectId) {
+		URI uri = URIBuilder.fromUri(GRAPH_API_URL + objectId).build();
+		Map<String, Object> response = (Map<String, Object>) restTemplate.getForObject(uri, Map.class);
+		checkForErrors(response);
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> fetchObjectMaps(String... objectIds) {
+		URI uri = URIBuilder.fromUri(GRAPH_API_URL).queryParam("ids", join(objectIds)).build();
+		Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
+		checkForErrors(response);
+		return response;
+	}
+
+	/*
+	 * Connection lists can be large, so extractors that can read the token stream directly are given the response stream
+	 * rather than a fully materialized Map. Other extractors still work from the bound Map.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> ConnectionPage<T> fetchConnectionPage(URI uri, ResponseExtractor<T> extractor) {
+		if (extractor instanceof StreamingResponseExtractor) {
+			StreamingConnectionsExtractor<T> streamingExtractor = new StreamingConnectionsExtractor<T>(jsonFactory, errorHandler, (StreamingResponseExtractor<T>) extractor);
+			return restTemplate.execute(uri, HttpMethod.GET, streamingExtractor, streamingExtractor);
+		}
+		Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
+		checkForErrors(response);
+		Map<String, Object> paging = (Map<String, Object>) response.get("paging");
+		String next = paging != null ? (String) paging.get("next") : null;
+		return new ConnectionPage<T>(extractor.extractObjects((List<Map<String, Object>>) response.get("data")), next);
+	}
+
 	/*
 	 * Facebook sometimes returns an error message with an HTTP 200. The HTTP 200 prevents the error handler
 	 * from handling it, so we need to check all responses for errors before assuming that they're good data. 
@@ -243,5 +327,96 @@ public class FacebookTemplate implements FacebookApi {
 		}
 		return builder.toString();
 	}
+
+	/**
+	 * The connections of an object, read a page at a time by following each page's "next" link.
+	 * Iteration ends at a page without a next link or at an empty page, which is how Facebook ends some connection lists.
+	 */
+	private class PagedConnections<T> implements Iterable<T> {
+
+		private final URI firstPage;
+
+		private final ResponseExtractor<T> extractor;
+
+		private final boolean prefetch;
+
+		public PagedConnections(URI firstPage, ResponseExtractor<T> extractor, boolean prefetch) {
+			this.firstPage = firstPage;
+			this.extractor = extractor;
+			this.prefetch = prefetch;
+		}
+
+		public Iterator<T> iterator() {
+			return new Iterator<T>() {
+
+				private Iterator<T> page = Collections.<T>emptyList().iterator();
+
+				private URI nextPage = firstPage;
+
+				private Future<ConnectionPage<T>> prefetchedPage;
+
+				public boolean hasNext() {
+					while (!page.hasNext()) {
+						if (nextPage == null) {
+							return false;
+						}
+						ConnectionPage<T> connectionPage = takePage();
+						page = connectionPage.getData().iterator();
+						nextPage = !connectionPage.getData().isEmpty() && connectionPage.getNext() != null ? URI.create(connectionPage.getNext()) : null;
+						if (prefetch && nextPage != null) {
+							prefetchPage();
+						}
+					}
+					return true;
+				}
+
+				public T next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return page.next();
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+				private void prefetchPage() {
+					try {
+						prefetchedPage = TaskExecutorSelector.getTaskExecutor().submit(new Callable<ConnectionPage<T>>() {
+							private final URI uri = nextPage;
+							public ConnectionPage<T> call() throws Exception {
+								return fetchConnectionPage(uri, extractor);
+							}
+						});
+					} catch (TaskRejectedException e) {
+						// the shared executor is saturated; the page will be fetched when it is reached instead
+						prefetchedPage = null;
+					}
+				}
+
+				private ConnectionPage<T> takePage() {
+					if (prefetchedPage == null) {
+						return fetchConnectionPage(nextPage, extractor);
+					}
+					try {
+						return prefetchedPage.get();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException("Interrupted while waiting for the next page of connections", e);
+					} catch (ExecutionException e) {
+						if (e.getCause() instanceof RuntimeException) {
+							throw (RuntimeException) e.getCause();
+						}
+						throw new IllegalStateException("Unable to fetch the next page of connections", e.getCause());
+					} finally {
+						prefetchedPage = null;
+					}
+				}
+
+			};
+		}
+
+	}
 	
 }
@@ -16,8 +16,10 @@
 package org.springframework.social.facebook;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.social.facebook.types.FacebookProfile;
+import org.springframework.social.facebook.types.ProfileField;
 import org.springframework.social.facebook.types.Reference;
 
 /**
@@ -61,6 +63,14 @@ public interface FriendOperations {
 	 * @return a list of {@link FacebookProfile}, each representing a member of the friend list.
 	 */
 	List<FacebookProfile> getFriendListMemberProfiles(String friendListId);
+
+	/**
+	 * Retrieves selected profile fields for all users who are members of the specified friend list.
+	 * @param friendListId the friend list ID.
+	 * @param fields the profile fields to retrieve; fields not selected are left unset in the returned profiles.
+	 * @return a list of {@link FacebookProfile}, each representing a member of the friend list.
+	 */
+	List<FacebookProfile> getFriendListMemberProfiles(String friendListId, Set<ProfileField> fields);
 	
 	/**
 	 * Creates a new friend list for the authenticated user.
@@ -135,4 +145,13 @@ public interface FriendOperations {
 	 * @return a list {@link FacebookProfile}s, each representing a friend of the user, or an empty list if not available.
 	 */
 	List<FacebookProfile> getFriendProfiles(String userId);
+
+	/**
+	 * Retrieves selected profile fields for the specified user's friends.
+	 * Requesting only the fields that will be used keeps responses for large friend lists small.
+	 * @param userId the user's ID
+	 * @param fields the profile fields to retrieve; fields not selected are left unset in the returned profiles.
+	 * @return a list {@link FacebookProfile}s, each representing a friend of the user, or an empty list if not available.
+	 */
+	List<FacebookProfile> getFriendProfiles(String userId, Set<ProfileField> fields);
 }
@@ -16,13 +16,16 @@
 package org.springframework.social.facebook;
 
 import java.net.URI;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.social.facebook.support.extractors.ProfileResponseExtractor;
 import org.springframework.social.facebook.support.extractors.ReferenceResponseExtractor;
 import org.springframework.social.facebook.support.extractors.StringResponseExtractor;
 import org.springframework.social.facebook.types.FacebookProfile;
+import org.springframework.social.facebook.types.ProfileField;
 import org.springframework.social.facebook.types.Reference;
 import org.springframework.social.util.URIBuilder;
 import org.springframework.web.client.RestTemplate;
@@ -62,7 +65,11 @@ class FriendTemplate implements FriendOperations {
 	}
 
 	public List<FacebookProfile> getFriendListMemberProfiles(String friendListId) {
-		return graphApi.fetchConnections(friendListId, "members", profileExtractor, FULL_PROFILE_FIELDS);
+		return getFriendListMemberProfiles(friendListId, ALL_PROFILE_FIELDS);
+	}
+
+	public List<FacebookProfile> getFriendListMemberProfiles(String friendListId, Set<ProfileField> fields) {
+		return graphApi.fetchConnections(friendListId, "members", profileExtractor, ProfileField.toFieldNames(fields));
 	}
 
 	public Reference createFriendList(String name) {
@@ -111,10 +118,14 @@ class FriendTemplate implements FriendOperations {
 	}
 	
 	public List<FacebookProfile> getFriendProfiles(String userId) {
-		return graphApi.fetchConnections(userId, "friends", profileExtractor, FULL_PROFILE_FIELDS);
+		return getFriendProfiles(userId, ALL_PROFILE_FIELDS);
+	}
+
+	public List<FacebookProfile> getFriendProfiles(String userId, Set<ProfileField> fields) {
+		return graphApi.fetchConnections(userId, "friends", profileExtractor, ProfileField.toFieldNames(fields));
 	}
 
-	private static final String[] FULL_PROFILE_FIELDS = {"id", "username", "name", "first_name", "last_name", "gender", "locale", "education", "work", "email", "third_party_id", "link", "timezone", "updated_time", "verified", "about", "bio", "birthday", "location", "hometown", "interested_in", "religion", "political", "quotes", "relationship_status", "significant_other", "website"};
+	private static final Set<ProfileField> ALL_PROFILE_FIELDS = EnumSet.allOf(ProfileField.class);
 	private ProfileResponseExtractor profileExtractor;
 	
 }
@@ -75,6 +75,20 @@ public interface GraphApi {
 	 */
 	<T> List<T> fetchConnections(String objectId, String connectionType, ResponseExtractor<T> extractor, String... fields);
 
+	/**
+	 * Fetches all of an object's connections, following Facebook's paging links.
+	 * {@link #fetchConnections(String, String, ResponseExtractor, String...)} returns only the first page Facebook sends; this method
+	 * retrieves each further page only when iteration reaches it, so long feeds and large friend lists can be consumed with only a page
+	 * or two in memory at a time.
+	 * Requires appropriate permission to fetch the object connection.
+	 * @param objectId the ID of the object to retrieve the connections for.
+	 * @param connectionType the connection type.
+	 * @param extractor a {@link ResponseExtractor} to extract the connections into a specific type.
+	 * @param fields the fields to include in the response; none for the default fields.
+	 * @return the Java objects representing the Facebook objects in the connections, in the order Facebook pages them.
+	 */
+	<T> Iterable<T> fetchAllConnections(String objectId, String connectionType, ResponseExtractor<T> extractor, String... fields);
+
 	/**
 	 * Fetches an image as an array of bytes.
 	 * @param objectId the object ID
@@ -119,6 +133,13 @@ public interface GraphApi {
 	 * @param connectionType the connection type
 	 */
 	void delete(String objectId, String connectionType);
+
+	/**
+	 * Starts a batch of Graph API requests that are sent to Facebook together in a single HTTP round-trip.
+	 * Queue the requests on the returned {@link GraphBatch}, call {@link GraphBatch#execute()}, then read each request's {@link BatchResult}.
+	 * @return a new, empty batch
+	 */
+	GraphBatch batch();
 	
 	static final String GRAPH_API_URL = "https://graph.facebook.com/";
 	
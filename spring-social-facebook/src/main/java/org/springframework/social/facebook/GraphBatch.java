@@ -0,0 +1,70 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import java.util.List;
+
+import org.springframework.social.facebook.support.extractors.ResponseExtractor;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Queues Graph API requests and sends them to Facebook together in a single HTTP round-trip.
+ * Each queued request returns a {@link BatchResult} whose value is extracted after {@link #execute()} has been called.
+ * Obtained from {@link GraphApi#batch()}; a batch is not thread-safe and may only be executed once.
+ * @author agent
+ */
+public interface GraphBatch {
+
+	/**
+	 * The most requests Facebook accepts in one batch. Larger batches are sent as several round-trips of this size.
+	 */
+	static final int MAX_BATCH_SIZE = 50;
+
+	/**
+	 * Queues the fetch of an object.
+	 * @param objectId the Facebook object's ID
+	 * @param extractor a {@link ResponseExtractor} to extract the object into a specific type.
+	 * @param fields the fields to include in the response; none for the default fields.
+	 * @return the result, available once the batch has been executed
+	 */
+	<T> BatchResult<T> fetchObject(String objectId, ResponseExtractor<T> extractor, String... fields);
+
+	/**
+	 * Queues the fetch of an object's connections.
+	 * @param objectId the ID of the object to retrieve the connections for.
+	 * @param connectionType the connection type.
+	 * @param extractor a {@link ResponseExtractor} to extract the connections into a specific type.
+	 * @param fields the fields to include in the response; none for the default fields.
+	 * @return the result, available once the batch has been executed
+	 */
+	<T> BatchResult<List<T>> fetchConnections(String objectId, String connectionType, ResponseExtractor<T> extractor, String... fields);
+
+	/**
+	 * Queues the publication of data to an object's connection.
+	 * @param objectId the object ID to publish to.
+	 * @param connectionType the connection type to publish to.
+	 * @param data the data to publish to the connection.
+	 * @return the ID of the newly published object, available once the batch has been executed
+	 */
+	BatchResult<String> publish(String objectId, String connectionType, MultiValueMap<String, String> data);
+
+	/**
+	 * Sends the queued requests to Facebook and makes their results available.
+	 * @throws IllegalStateException if the batch has already been executed
+	 */
+	void execute();
+
+}
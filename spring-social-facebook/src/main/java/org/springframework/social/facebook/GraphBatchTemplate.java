@@ -0,0 +1,250 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.social.facebook.support.extractors.ResponseExtractor;
+import org.springframework.social.util.URIBuilder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Implementation of {@link GraphBatch} that sends the queued requests as the "batch" parameter of a POST to the Graph API root.
+ * Facebook answers with one entry per request, each carrying its own status code and JSON body as a string;
+ * those bodies are checked for errors and extracted with the request's {@link ResponseExtractor}, just as single requests are.
+ * @author agent
+ */
+class GraphBatchTemplate implements GraphBatch {
+
+	private final RestTemplate restTemplate;
+
+	private final ObjectMapper objectMapper;
+
+	private final FacebookErrorHandler errorHandler;
+
+	private final List<BatchItem<?>> items = new ArrayList<BatchItem<?>>();
+
+	private boolean executed;
+
+	public GraphBatchTemplate(RestTemplate restTemplate, ObjectMapper objectMapper, FacebookErrorHandler errorHandler) {
+		this.restTemplate = restTemplate;
+		this.objectMapper = objectMapper;
+		this.errorHandler = errorHandler;
+	}
+
+	public <T> BatchResult<T> fetchObject(String objectId, final ResponseExtractor<T> extractor, String... fields) {
+		return add(new BatchItem<T>("GET", relativeUrl(objectId, fields), null) {
+			protected T extract(Map<String, Object> body) {
+				return extractor.extractObject(body);
+			}
+		});
+	}
+
+	public <T> BatchResult<List<T>> fetchConnections(String objectId, String connectionType, final ResponseExtractor<T> extractor, String... fields) {
+		return add(new BatchItem<List<T>>("GET", relativeUrl(objectId + "/" + connectionType, fields), null) {
+			@SuppressWarnings("unchecked")
+			protected List<T> extract(Map<String, Object> body) {
+				return extractor.extractObjects((List<Map<String, Object>>) body.get("data"));
+			}
+		});
+	}
+
+	public BatchResult<String> publish(String objectId, String connectionType, MultiValueMap<String, String> data) {
+		return add(new BatchItem<String>("POST", objectId + "/" + connectionType, formEncode(data)) {
+			protected String extract(Map<String, Object> body) {
+				return (String) body.get("id");
+			}
+		});
+	}
+
+	public void execute() {
+		if (executed) {
+			throw new IllegalStateException("The batch has already been executed");
+		}
+		executed = true;
+		for (int start = 0; start < items.size(); start += MAX_BATCH_SIZE) {
+			execute(items.subList(start, Math.min(start + MAX_BATCH_SIZE, items.size())));
+		}
+	}
+
+	// internal helpers
+
+	private <T> BatchResult<T> add(BatchItem<T> item) {
+		if (executed) {
+			throw new IllegalStateException("The batch has already been executed");
+		}
+		items.add(item);
+		return item;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void execute(List<BatchItem<?>> chunk) {
+		List<Map<String, String>> requests = new ArrayList<Map<String, String>>(chunk.size());
+		for (BatchItem<?> item : chunk) {
+			requests.add(item.toRequest());
+		}
+		MultiValueMap<String, String> requestData = new LinkedMultiValueMap<String, String>();
+		try {
+			requestData.set("batch", objectMapper.writeValueAsString(requests));
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to write batch request", e);
+		}
+		URI uri = URIBuilder.fromUri(GraphApi.GRAPH_API_URL).build();
+		List<Map<String, Object>> responses = restTemplate.postForObject(uri, requestData, List.class);
+		for (int i = 0; i < chunk.size(); i++) {
+			chunk.get(i).setResponse(responses != null && i < responses.size() ? responses.get(i) : null);
+		}
+	}
+
+	private String relativeUrl(String path, String[] fields) {
+		if (fields.length == 0) {
+			return path;
+		}
+		StringBuilder fieldList = new StringBuilder(fields[0]);
+		for (int i = 1; i < fields.length; i++) {
+			fieldList.append(',').append(fields[i]);
+		}
+		return path + "?fields=" + urlEncode(fieldList.toString());
+	}
+
+	private String formEncode(MultiValueMap<String, String> data) {
+		StringBuilder body = new StringBuilder();
+		for (Map.Entry<String, List<String>> entry : data.entrySet()) {
+			for (String value : entry.getValue()) {
+				if (body.length() > 0) {
+					body.append('&');
+				}
+				body.append(urlEncode(entry.getKey())).append('=').append(urlEncode(value));
+			}
+		}
+		return body.toString();
+	}
+
+	private String urlEncode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A queued request and, once the batch has been executed, Facebook's response to it.
+	 * The response body is parsed and extracted when the result is asked for.
+	 */
+	private abstract class BatchItem<T> implements BatchResult<T> {
+
+		private final String method;
+
+		private final String relativeUrl;
+
+		private final String body;
+
+		private boolean responded;
+
+		private Map<String, Object> response;
+
+		public BatchItem(String method, String relativeUrl, String body) {
+			this.method = method;
+			this.relativeUrl = relativeUrl;
+			this.body = body;
+		}
+
+		@SuppressWarnings("unchecked")
+		public T get() {
+			if (!responded) {
+				throw new IllegalStateException("The batch has not been executed");
+			}
+			if (response == null) {
+				// Facebook leaves a request's entry null when it did not complete within the batch
+				throw new GraphAPIException("Batch request for " + relativeUrl + " did not complete");
+			}
+			int code = getStatusCode();
+			String rawBody = (String) response.get("body");
+			Map<String, Object> responseBody = null;
+			if (rawBody != null) {
+				try {
+					responseBody = objectMapper.readValue(rawBody, Map.class);
+				} catch (IOException e) {
+					throw new GraphAPIException("Unable to read batch response for " + relativeUrl + ": " + e.getMessage());
+				}
+			}
+			checkForErrors(code, responseBody);
+			return extract(responseBody);
+		}
+
+		protected abstract T extract(Map<String, Object> body);
+
+		Map<String, String> toRequest() {
+			Map<String, String> request = new LinkedHashMap<String, String>();
+			request.put("method", method);
+			request.put("relative_url", relativeUrl);
+			if (body != null) {
+				request.put("body", body);
+			}
+			return request;
+		}
+
+		void setResponse(Map<String, Object> response) {
+			this.response = response;
+			this.responded = true;
+		}
+
+		/*
+		 * Each entry carries its own status code, and Facebook may also report an error with a 200, so every body is checked.
+		 * Errors the error handler doesn't recognize still fail the request rather than being extracted as data,
+		 * as does a non-2xx entry whose body is missing or carries no error details.
+		 */
+		@SuppressWarnings("unchecked")
+		private void checkForErrors(int code, Map<String, Object> responseBody) {
+			if (responseBody != null && responseBody.containsKey("error")) {
+				Map<String, String> errorDetails = (Map<String, String>) responseBody.get("error");
+				errorHandler.handleFacebookError(errorDetails);
+				throw new GraphAPIException(errorDetails.get("message"));
+			}
+			if (code < 200 || code > 299) {
+				throw new GraphAPIException("Batch request for " + relativeUrl + " failed with status " + code);
+			}
+		}
+
+		private int getStatusCode() {
+			Object code = response.get("code");
+			if (code instanceof Number) {
+				return ((Number) code).intValue();
+			}
+			if (code instanceof String) {
+				try {
+					return Integer.parseInt((String) code);
+				} catch (NumberFormatException e) {
+					// fall through
+				}
+			}
+			throw new GraphAPIException("Batch response for " + relativeUrl + " has no status code");
+		}
+
+	}
+
+}
@@ -16,8 +16,10 @@
 package org.springframework.social.facebook;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.social.facebook.types.FacebookProfile;
+import org.springframework.social.facebook.types.ProfileField;
 import org.springframework.social.facebook.types.Group;
 import org.springframework.social.facebook.types.Reference;
 
@@ -62,4 +64,12 @@ public interface GroupOperations {
 	 * @return a list of {@link FacebookProfile}s, one for each member of the group.
 	 */
 	List<FacebookProfile> getMemberProfiles(String groupId);
+
+	/**
+	 * Retrieves selected profile fields for the members of the specified group.
+	 * @param groupId the ID of the group
+	 * @param fields the profile fields to retrieve; fields not selected are left unset in the returned profiles.
+	 * @return a list of {@link FacebookProfile}s, one for each member of the group.
+	 */
+	List<FacebookProfile> getMemberProfiles(String groupId, Set<ProfileField> fields);
 }
@@ -15,17 +15,20 @@
  */
 package org.springframework.social.facebook;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.social.facebook.support.extractors.GroupResponseExtractor;
 import org.springframework.social.facebook.support.extractors.ProfileResponseExtractor;
 import org.springframework.social.facebook.support.extractors.ReferenceResponseExtractor;
 import org.springframework.social.facebook.types.FacebookProfile;
 import org.springframework.social.facebook.types.Group;
+import org.springframework.social.facebook.types.ProfileField;
 import org.springframework.social.facebook.types.Reference;
 
 class GroupTemplate implements GroupOperations {
-	private static final String[] FULL_PROFILE_FIELDS = {"id", "username", "name", "first_name", "last_name", "gender", "locale", "education", "work", "email", "third_party_id", "link", "timezone", "updated_time", "verified", "about", "bio", "birthday", "location", "hometown", "interested_in", "religion", "political", "quotes", "relationship_status", "significant_other", "website"};
+	private static final Set<ProfileField> ALL_PROFILE_FIELDS = EnumSet.allOf(ProfileField.class);
 
 	private GroupResponseExtractor groupExtractor;
 	private final GraphApi graphApi;
@@ -57,7 +60,11 @@ class GroupTemplate implements GroupOperations {
 	}
 
 	public List<FacebookProfile> getMemberProfiles(String groupId) {
-		return graphApi.fetchConnections(groupId, "members", profileExtractor, FULL_PROFILE_FIELDS);
+		return getMemberProfiles(groupId, ALL_PROFILE_FIELDS);
+	}
+
+	public List<FacebookProfile> getMemberProfiles(String groupId, Set<ProfileField> fields) {
+		return graphApi.fetchConnections(groupId, "members", profileExtractor, ProfileField.toFieldNames(fields));
 	}
 
 }
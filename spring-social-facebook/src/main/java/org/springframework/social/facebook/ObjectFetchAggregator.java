@@ -0,0 +1,181 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.social.facebook.support.extractors.ResponseExtractor;
+
+/**
+ * Coalesces single-object fetches made concurrently from several threads into one multi-object ("ids=") Graph API request.
+ * <p>
+ * The first fetch to arrive opens a batch and waits for up to the window for others to join it; the batch is sent early once it holds
+ * the maximum number of object IDs. Each caller blocks until the batch's response arrives, then extracts its own object from it with its
+ * own {@link ResponseExtractor}, so callers see the same result as an unbatched fetch.
+ * </p>
+ * <p>
+ * Facebook fails a whole multi-object request if any one ID is unknown or not visible to the user. It reports that as a Graph API error,
+ * such as #803, which the error handler turns into a {@link GraphAPIException}, {@link NotAFriendException}, {@link InsufficientPermissionException}
+ * or {@link OwnershipException}. When a batch of several IDs fails that way, or an object is missing from the response, each affected caller
+ * fetches its object on its own, so it receives its own object or its own error. Any other failure, such as an I/O error, a server error,
+ * a rate limit or a rejected access token, says nothing about individual objects and is rethrown to every caller in the batch rather than
+ * multiplied into one retry per caller. Those callers all receive the same exception instance, so its stack trace is that of the thread
+ * that executed the batch.
+ * A batch that closes holding a single ID is fetched with a plain single-object request.
+ * </p>
+ * @author agent
+ */
+abstract class ObjectFetchAggregator {
+
+	private final long windowMillis;
+
+	private final int maxObjectIds;
+
+	private Batch openBatch;
+
+	/**
+	 * @param windowMillis how long the first fetch of a batch waits for others to join it
+	 * @param maxObjectIds the most object IDs sent in one request
+	 */
+	public ObjectFetchAggregator(long windowMillis, int maxObjectIds) {
+		if (windowMillis <= 0) {
+			throw new IllegalArgumentException("windowMillis must be greater than 0");
+		}
+		if (maxObjectIds < 1) {
+			throw new IllegalArgumentException("maxObjectIds must be greater than 0");
+		}
+		this.windowMillis = windowMillis;
+		this.maxObjectIds = maxObjectIds;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T fetchObject(String objectId, ResponseExtractor<T> extractor) {
+		Batch batch;
+		boolean opened = false;
+		synchronized (this) {
+			if (openBatch == null) {
+				openBatch = new Batch();
+				opened = true;
+			}
+			batch = openBatch;
+			batch.objectIds.add(objectId);
+			if (batch.objectIds.size() >= maxObjectIds) {
+				openBatch = null;
+				batch.full.countDown();
+			}
+		}
+		if (opened) {
+			batch.awaitFull(windowMillis);
+			synchronized (this) {
+				if (openBatch == batch) {
+					openBatch = null;
+				}
+			}
+			batch.execute();
+		} else {
+			batch.awaitResponse();
+		}
+		if (batch.failure != null) {
+			if (batch.objectIds.size() == 1 || !isObjectFailure(batch.failure)) {
+				throw batch.failure;
+			}
+			return extractor.extractObject(fetchObjectMap(objectId));
+		}
+		Map<String, Object> objectMap = (Map<String, Object>) batch.response.get(objectId);
+		return extractor.extractObject(objectMap != null ? objectMap : fetchObjectMap(objectId));
+	}
+
+	// subclassing hooks
+
+	/**
+	 * Fetches several objects in one request.
+	 * @return the response, mapping each requested ID to its object
+	 */
+	protected abstract Map<String, Object> fetchObjectMaps(Collection<String> objectIds);
+
+	/**
+	 * Fetches a single object, throwing the exception for any error Facebook reports for it.
+	 */
+	protected abstract Map<String, Object> fetchObjectMap(String objectId);
+
+	// internal helpers
+
+	// the exceptions the error handler raises for IDs Facebook does not know or will not show; everything else is not specific to any one object
+	private boolean isObjectFailure(RuntimeException failure) {
+		return failure instanceof GraphAPIException || failure instanceof NotAFriendException || failure instanceof InsufficientPermissionException
+				|| failure instanceof OwnershipException;
+	}
+
+	private class Batch {
+
+		// guarded by the aggregator until the batch is closed, then only read
+		private final Set<String> objectIds = new LinkedHashSet<String>();
+
+		private final CountDownLatch full = new CountDownLatch(1);
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private volatile Map<String, Object> response;
+
+		private volatile RuntimeException failure;
+
+		public void awaitFull(long windowMillis) {
+			try {
+				full.await(windowMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		public void execute() {
+			try {
+				if (objectIds.size() == 1) {
+					String objectId = objectIds.iterator().next();
+					response = Collections.singletonMap(objectId, (Object) fetchObjectMap(objectId));
+				} else {
+					response = fetchObjectMaps(objectIds);
+				}
+			} catch (RuntimeException e) {
+				failure = e;
+			} finally {
+				done.countDown();
+			}
+		}
+
+		public void awaitResponse() {
+			boolean interrupted = false;
+			while (true) {
+				try {
+					done.await();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
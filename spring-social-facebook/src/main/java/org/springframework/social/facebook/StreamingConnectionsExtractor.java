@@ -0,0 +1,109 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.social.facebook.support.extractors.StreamingResponseExtractor;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+
+/**
+ * Reads a Graph API connection list straight from the response stream.
+ * Each entry of the "data" array is handed to a {@link StreamingResponseExtractor} as it is parsed,
+ * so the response is never materialized as a tree of Maps and Lists.
+ * The URL of the next page is read from the "paging" block so that callers can follow it.
+ * @author agent
+ */
+class StreamingConnectionsExtractor<T> implements RequestCallback, ResponseExtractor<ConnectionPage<T>> {
+
+	private static final List<MediaType> ACCEPT = Arrays.asList(MediaType.APPLICATION_JSON, new MediaType("text", "javascript"));
+
+	private final JsonFactory jsonFactory;
+
+	private final FacebookErrorHandler errorHandler;
+
+	private final StreamingResponseExtractor<T> extractor;
+
+	public StreamingConnectionsExtractor(JsonFactory jsonFactory, FacebookErrorHandler errorHandler, StreamingResponseExtractor<T> extractor) {
+		this.jsonFactory = jsonFactory;
+		this.errorHandler = errorHandler;
+		this.extractor = extractor;
+	}
+
+	public void doWithRequest(ClientHttpRequest request) throws IOException {
+		request.getHeaders().setAccept(ACCEPT);
+	}
+
+	@SuppressWarnings("unchecked")
+	public ConnectionPage<T> extractData(ClientHttpResponse response) throws IOException {
+		JsonParser parser = jsonFactory.createJsonParser(response.getBody());
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return new ConnectionPage<T>(Collections.<T>emptyList(), null);
+			}
+			List<T> data = Collections.emptyList();
+			String next = null;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				if ("data".equals(fieldName) && token == JsonToken.START_ARRAY) {
+					data = new ArrayList<T>();
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						data.add(extractor.extractObject(parser));
+					}
+				} else if ("paging".equals(fieldName) && token == JsonToken.START_OBJECT) {
+					next = readNext(parser);
+				} else if ("error".equals(fieldName)) {
+					// Facebook sometimes returns an error with an HTTP 200
+					errorHandler.handleFacebookError(parser.readValueAs(Map.class));
+				} else {
+					parser.skipChildren();
+				}
+			}
+			return new ConnectionPage<T>(Collections.unmodifiableList(data), next);
+		} finally {
+			parser.close();
+		}
+	}
+
+	// internal helpers
+
+	private String readNext(JsonParser parser) throws IOException {
+		String next = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			if (parser.nextToken() == JsonToken.VALUE_STRING && "next".equals(fieldName)) {
+				next = parser.getText();
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return next;
+	}
+
+}
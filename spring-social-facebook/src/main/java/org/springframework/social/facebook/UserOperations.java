@@ -15,7 +15,10 @@
  */
 package org.springframework.social.facebook;
 
+import java.util.Set;
+
 import org.springframework.social.facebook.types.FacebookProfile;
+import org.springframework.social.facebook.types.ProfileField;
 
 
 public interface UserOperations {
@@ -33,6 +36,14 @@ public interface UserOperations {
 	 */
 	FacebookProfile getUserProfile(String userId);
 
+	/**
+	 * Retrieves selected fields of the profile for the specified user.
+	 * @param userId the Facebook user ID to retrieve profile data for.
+	 * @param fields the profile fields to retrieve; fields not selected are left unset in the returned profile.
+	 * @return the user's profile information.
+	 */
+	FacebookProfile getUserProfile(String userId, Set<ProfileField> fields);
+
 	/**
 	 * Retrieves the user's profile image. Returns the image in Facebook's "normal" type.
 	 * @return an array of bytes containing the user's profile image.
@@ -15,8 +15,11 @@
  */
 package org.springframework.social.facebook;
 
+import java.util.Set;
+
 import org.springframework.social.facebook.support.extractors.ProfileResponseExtractor;
 import org.springframework.social.facebook.types.FacebookProfile;
+import org.springframework.social.facebook.types.ProfileField;
 
 class UserTemplate implements UserOperations {
 
@@ -36,6 +39,10 @@ class UserTemplate implements UserOperations {
 		return graphApi.fetchObject(facebookId, profileExtractor);
 	}
 
+	public FacebookProfile getUserProfile(String facebookId, Set<ProfileField> fields) {
+		return graphApi.fetchObject(facebookId, profileExtractor, ProfileField.toFieldNames(fields));
+	}
+
 	public byte[] getUserProfileImage() {
 		return getUserProfileImage("me", ImageType.NORMAL);
 	}
@@ -15,17 +15,17 @@
  */
 package org.springframework.social.facebook.support.extractors;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.springframework.social.facebook.types.Reference;
+import org.springframework.social.util.DateParser;
 
 public abstract class AbstractResponseExtractor<T> implements ResponseExtractor<T> {
 	
@@ -42,15 +42,7 @@ public abstract class AbstractResponseExtractor<T> implements ResponseExtractor<
 	}
 
 	protected Date toDate(String dateString) {
-		if (dateString == null) {
-			return null;
-		}
-
-		try {
-			return FB_DATE_FORMAT.parse(dateString);
-		} catch (ParseException e) {
-			return null;
-		}
+		return FB_DATE_PARSER.parse(dateString);
 	}
 
 	protected Reference extractReferenceFromMap(Map<String, Object> referenceMap) {
@@ -65,7 +57,61 @@ public abstract class AbstractResponseExtractor<T> implements ResponseExtractor<
 		return REFERENCE_EXTRACTOR.extractObjects((List<Map<String, Object>>) referencesMap.get("data"));
 	}
 
-	private static final DateFormat FB_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", Locale.ENGLISH);
+	// streaming helpers
+
+	/**
+	 * Reads the current scalar value as text, returning null for a JSON null.
+	 */
+	protected String readText(JsonParser parser) throws IOException {
+		return parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+	}
+
+	protected Reference extractReference(JsonParser parser) throws IOException {
+		return REFERENCE_EXTRACTOR.extractObject(parser);
+	}
+
+	protected List<Reference> extractReferences(JsonParser parser) throws IOException {
+		return extractData(parser, REFERENCE_EXTRACTOR);
+	}
+
+	/**
+	 * Extracts the entries of a nested Graph API collection such as <code>{"data":[...], "count":2}</code>.
+	 * Returns null for a JSON null and an empty list if the collection has no "data" member.
+	 */
+	protected <E> List<E> extractData(JsonParser parser, StreamingResponseExtractor<E> extractor) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return null;
+		}
+		List<E> data = Collections.emptyList();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			if ("data".equals(fieldName)) {
+				data = extractArray(parser, extractor);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Extracts every object in the JSON array the parser is positioned on.
+	 */
+	protected <E> List<E> extractArray(JsonParser parser, StreamingResponseExtractor<E> extractor) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return Collections.emptyList();
+		}
+		List<E> list = new ArrayList<E>();
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			list.add(extractor.extractObject(parser));
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+	private static final DateParser FB_DATE_PARSER = DateParser.forPattern("yyyy-MM-dd'T'HH:mm:ssZ");
 
 	private static final ReferenceResponseExtractor REFERENCE_EXTRACTOR = new ReferenceResponseExtractor();
 
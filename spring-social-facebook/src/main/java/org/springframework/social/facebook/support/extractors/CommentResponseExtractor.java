@@ -15,13 +15,17 @@
  */
 package org.springframework.social.facebook.support.extractors;
 
+import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.springframework.social.facebook.types.Comment;
 import org.springframework.social.facebook.types.Reference;
 
-public class CommentResponseExtractor extends AbstractResponseExtractor<Comment> {
+public class CommentResponseExtractor extends AbstractResponseExtractor<Comment> implements StreamingResponseExtractor<Comment> {
 
 	@SuppressWarnings("unchecked")
 	public Comment extractObject(Map<String, Object> commentMap) {
@@ -44,4 +48,38 @@ public class CommentResponseExtractor extends AbstractResponseExtractor<Comment>
 		}
 	}
 
+	public Comment extractObject(JsonParser parser) throws IOException {
+		String id = null;
+		String message = null;
+		Reference from = null;
+		Date createdTime = null;
+		Integer likesCount = null;
+		List<Reference> likes = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ("id".equals(fieldName)) {
+				id = readText(parser);
+			} else if ("message".equals(fieldName)) {
+				message = readText(parser);
+			} else if ("from".equals(fieldName)) {
+				from = extractReference(parser);
+			} else if ("created_time".equals(fieldName)) {
+				createdTime = toDate(readText(parser));
+			} else if ("likes".equals(fieldName) && token == JsonToken.VALUE_NUMBER_INT) {
+				// comment likes are usually just a count
+				likesCount = parser.getIntValue();
+			} else if ("likes".equals(fieldName)) {
+				// but sometimes (as in the case of a checkin comment), the likes are a list of user references
+				likes = extractReferences(parser);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (likesCount != null) {
+			return new Comment(id, from, message, createdTime, likesCount);
+		}
+		return new Comment(id, from, message, createdTime, likes);
+	}
+
 }
@@ -15,11 +15,15 @@
  */
 package org.springframework.social.facebook.support.extractors;
 
+import java.io.IOException;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.springframework.social.facebook.types.EducationEntry;
+import org.springframework.social.facebook.types.Reference;
 
-public class EducationResponseExtractor extends AbstractResponseExtractor<EducationEntry> {
+public class EducationResponseExtractor extends AbstractResponseExtractor<EducationEntry> implements StreamingResponseExtractor<EducationEntry> {
 
 	@SuppressWarnings("unchecked")
 	public EducationEntry extractObject(Map<String, Object> educationEntryMap) {
@@ -29,4 +33,24 @@ public class EducationResponseExtractor extends AbstractResponseExtractor<Educat
 				(String) educationEntryMap.get("type"));
 	}
 
+	public EducationEntry extractObject(JsonParser parser) throws IOException {
+		Reference school = null;
+		Reference year = null;
+		String type = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			if ("school".equals(fieldName)) {
+				school = extractReference(parser);
+			} else if ("year".equals(fieldName)) {
+				year = extractReference(parser);
+			} else if ("type".equals(fieldName)) {
+				type = readText(parser);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return new EducationEntry(school, year, type);
+	}
+
 }
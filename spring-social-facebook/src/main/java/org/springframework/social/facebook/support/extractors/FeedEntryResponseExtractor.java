@@ -15,16 +15,19 @@
  */
 package org.springframework.social.facebook.support.extractors;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.springframework.social.facebook.types.Comment;
 import org.springframework.social.facebook.types.FeedEntry;
 import org.springframework.social.facebook.types.Reference;
 
-public class FeedEntryResponseExtractor extends AbstractResponseExtractor<FeedEntry> {
+public class FeedEntryResponseExtractor extends AbstractResponseExtractor<FeedEntry> implements StreamingResponseExtractor<FeedEntry> {
 
 	private CommentResponseExtractor commentExtractor;
 
@@ -62,4 +65,66 @@ public class FeedEntryResponseExtractor extends AbstractResponseExtractor<FeedEn
 		return builder.build();
 	}
 
+	public FeedEntry extractObject(JsonParser parser) throws IOException {
+		String id = null;
+		Reference from = null;
+		String message = null;
+		Date createdTime = null;
+		Date updatedTime = null;
+		String link = null;
+		String picture = null;
+		String subject = null;
+		String name = null;
+		String description = null;
+		String icon = null;
+		List<Reference> likes = null;
+		List<Comment> comments = Collections.emptyList();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			if ("id".equals(fieldName)) {
+				id = readText(parser);
+			} else if ("from".equals(fieldName)) {
+				from = extractReference(parser);
+			} else if ("message".equals(fieldName)) {
+				message = readText(parser);
+			} else if ("created_time".equals(fieldName)) {
+				createdTime = toDate(readText(parser));
+			} else if ("updated_time".equals(fieldName)) {
+				updatedTime = toDate(readText(parser));
+			} else if ("link".equals(fieldName)) {
+				link = readText(parser);
+			} else if ("picture".equals(fieldName)) {
+				picture = readText(parser);
+			} else if ("subject".equals(fieldName)) {
+				subject = readText(parser);
+			} else if ("name".equals(fieldName)) {
+				name = readText(parser);
+			} else if ("description".equals(fieldName)) {
+				description = readText(parser);
+			} else if ("icon".equals(fieldName)) {
+				icon = readText(parser);
+			} else if ("likes".equals(fieldName)) {
+				likes = extractReferences(parser);
+			} else if ("comments".equals(fieldName)) {
+				List<Comment> commentList = extractData(parser, commentExtractor);
+				comments = commentList != null ? commentList : Collections.<Comment>emptyList();
+			} else {
+				parser.skipChildren();
+			}
+		}
+		FeedEntry.Builder builder = new FeedEntry.Builder(id, from, message, createdTime, updatedTime)
+			.link(link)
+			.picture(picture)
+			.subject(subject)
+			.name(name)
+			.description(description)
+			.icon(icon)
+			.comments(comments);
+		if (likes != null) {
+			builder.likes(likes);
+		}
+		return builder.build();
+	}
+
 }
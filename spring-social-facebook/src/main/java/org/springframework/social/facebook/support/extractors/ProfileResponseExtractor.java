@@ -15,13 +15,22 @@
  */
 package org.springframework.social.facebook.support.extractors;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.springframework.social.facebook.types.EducationEntry;
 import org.springframework.social.facebook.types.FacebookProfile;
+import org.springframework.social.facebook.types.ProfileField;
+import org.springframework.social.facebook.types.Reference;
+import org.springframework.social.facebook.types.WorkEntry;
 
-public class ProfileResponseExtractor extends AbstractResponseExtractor<FacebookProfile> {
+public class ProfileResponseExtractor extends AbstractResponseExtractor<FacebookProfile> implements StreamingResponseExtractor<FacebookProfile> {
 
 	private WorkResponseExtractor workExtractor;
 	private EducationResponseExtractor educationExtractor;
@@ -34,12 +43,12 @@ public class ProfileResponseExtractor extends AbstractResponseExtractor<Facebook
 	@SuppressWarnings("unchecked")
 	public FacebookProfile extractObject(Map<String, Object> profileMap) {
 		long id = Long.valueOf(String.valueOf(profileMap.get("id")));
-		String username = String.valueOf(profileMap.get("username"));
-		String name = String.valueOf(profileMap.get("name"));
-		String firstName = String.valueOf(profileMap.get("first_name"));
-		String lastName = String.valueOf(profileMap.get("last_name"));
-		String gender = String.valueOf(profileMap.get("gender"));
-		String locale = String.valueOf(profileMap.get("locale"));
+		String username = (String) profileMap.get("username");
+		String name = (String) profileMap.get("name");
+		String firstName = (String) profileMap.get("first_name");
+		String lastName = (String) profileMap.get("last_name");
+		String gender = (String) profileMap.get("gender");
+		String locale = (String) profileMap.get("locale");
 		Object educationHistory = profileMap.get("education");
 		List<Map<String, Object>> educationHistoryList = (List<Map<String, Object>>) (educationHistory != null ? educationHistory
 				: Collections.emptyList());
@@ -65,4 +74,91 @@ public class ProfileResponseExtractor extends AbstractResponseExtractor<Facebook
 				.education(educationExtractor.extractObjects(educationHistoryList)).build();
 	}
 
+	public FacebookProfile extractObject(JsonParser parser) throws IOException {
+		String id = null;
+		String username = null;
+		String name = null;
+		String firstName = null;
+		String lastName = null;
+		String gender = null;
+		String locale = null;
+		String email = null;
+		String link = null;
+		String thirdPartyId = null;
+		Integer timezone = null;
+		Date updatedTime = null;
+		Boolean verified = null;
+		String about = null;
+		String bio = null;
+		String birthday = null;
+		Reference location = null;
+		Reference hometown = null;
+		List<String> interestedIn = null;
+		String religion = null;
+		String political = null;
+		String quotes = null;
+		String relationshipStatus = null;
+		Reference significantOther = null;
+		String website = null;
+		List<WorkEntry> work = Collections.emptyList();
+		List<EducationEntry> education = Collections.emptyList();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			ProfileField field = ProfileField.forName(parser.getCurrentName());
+			JsonToken token = parser.nextToken();
+			if (field == null) {
+				parser.skipChildren();
+				continue;
+			}
+			switch (field) {
+				case ID: id = readText(parser); break;
+				case USERNAME: username = readText(parser); break;
+				case NAME: name = readText(parser); break;
+				case FIRST_NAME: firstName = readText(parser); break;
+				case LAST_NAME: lastName = readText(parser); break;
+				case GENDER: gender = readText(parser); break;
+				case LOCALE: locale = readText(parser); break;
+				case EMAIL: email = readText(parser); break;
+				case LINK: link = readText(parser); break;
+				case THIRD_PARTY_ID: thirdPartyId = readText(parser); break;
+				case TIMEZONE: timezone = token == JsonToken.VALUE_NULL ? null : parser.getIntValue(); break;
+				case UPDATED_TIME: updatedTime = toDate(readText(parser)); break;
+				case VERIFIED: verified = token == JsonToken.VALUE_NULL ? null : parser.getBooleanValue(); break;
+				case ABOUT: about = readText(parser); break;
+				case BIO: bio = readText(parser); break;
+				case BIRTHDAY: birthday = readText(parser); break;
+				case LOCATION: location = extractReference(parser); break;
+				case HOMETOWN: hometown = extractReference(parser); break;
+				case INTERESTED_IN: interestedIn = readTextArray(parser); break;
+				case RELIGION: religion = readText(parser); break;
+				case POLITICAL: political = readText(parser); break;
+				case QUOTES: quotes = readText(parser); break;
+				case RELATIONSHIP_STATUS: relationshipStatus = readText(parser); break;
+				case SIGNIFICANT_OTHER: significantOther = extractReference(parser); break;
+				case WEBSITE: website = readText(parser); break;
+				case WORK: work = extractArray(parser, workExtractor); break;
+				case EDUCATION: education = extractArray(parser, educationExtractor); break;
+			}
+		}
+		return new FacebookProfile.Builder(Long.valueOf(id), username, name, firstName, lastName, gender, locale)
+				.email(email).link(link).thirdPartyId(thirdPartyId).timezone(timezone).updatedTime(updatedTime)
+				.verified(verified).about(about).bio(bio).birthday(birthday).location(location).hometown(hometown)
+				.interestedIn(interestedIn).religion(religion).political(political).quotes(quotes)
+				.relationshipStatus(relationshipStatus).significantOther(significantOther).website(website)
+				.work(work).education(education).build();
+	}
+
+	// internal helpers
+
+	private List<String> readTextArray(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return null;
+		}
+		List<String> values = new ArrayList<String>();
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			values.add(readText(parser));
+		}
+		return values;
+	}
+
 }
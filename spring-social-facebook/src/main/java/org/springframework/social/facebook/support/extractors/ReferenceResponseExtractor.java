@@ -15,11 +15,14 @@
  */
 package org.springframework.social.facebook.support.extractors;
 
+import java.io.IOException;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.springframework.social.facebook.types.Reference;
 
-public class ReferenceResponseExtractor extends AbstractResponseExtractor<Reference> {
+public class ReferenceResponseExtractor extends AbstractResponseExtractor<Reference> implements StreamingResponseExtractor<Reference> {
 
 	public Reference extractObject(Map<String, Object> referenceMap) {
 		if (referenceMap == null) {
@@ -28,4 +31,25 @@ public class ReferenceResponseExtractor extends AbstractResponseExtractor<Refere
 		return new Reference((String) referenceMap.get("id"), (String) referenceMap.get("name"));
 	}
 
+	public Reference extractObject(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return null;
+		}
+		String id = null;
+		String name = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			if ("id".equals(fieldName)) {
+				id = readText(parser);
+			} else if ("name".equals(fieldName)) {
+				name = readText(parser);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return new Reference(id, name);
+	}
+
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook.support.extractors;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonParser;
+
+/**
+ * A {@link ResponseExtractor} that can also build its object directly from a JSON token stream.
+ * Lets large connection lists be read without first materializing every entry as a Map.
+ * @author agent
+ */
+public interface StreamingResponseExtractor<T> extends ResponseExtractor<T> {
+
+	/**
+	 * Extracts an object from the parser.
+	 * The parser is positioned on the object's START_OBJECT token (or a VALUE_NULL token) when called,
+	 * and must be left positioned on the matching END_OBJECT token when this method returns.
+	 * @param parser the parser to read the object from
+	 * @return the extracted object
+	 */
+	T extractObject(JsonParser parser) throws IOException;
+
+}
@@ -15,11 +15,15 @@
  */
 package org.springframework.social.facebook.support.extractors;
 
+import java.io.IOException;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.springframework.social.facebook.types.Reference;
 import org.springframework.social.facebook.types.WorkEntry;
 
-public class WorkResponseExtractor extends AbstractResponseExtractor<WorkEntry> {
+public class WorkResponseExtractor extends AbstractResponseExtractor<WorkEntry> implements StreamingResponseExtractor<WorkEntry> {
 
 	@SuppressWarnings("unchecked")
 	public WorkEntry extractObject(Map<String, Object> workEntryMap) {
@@ -27,4 +31,24 @@ public class WorkResponseExtractor extends AbstractResponseExtractor<WorkEntry>
 				(String) workEntryMap.get("start_date"), (String) workEntryMap.get("end_date"));
 	}
 
+	public WorkEntry extractObject(JsonParser parser) throws IOException {
+		Reference employer = null;
+		String startDate = null;
+		String endDate = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			if ("employer".equals(fieldName)) {
+				employer = extractReference(parser);
+			} else if ("start_date".equals(fieldName)) {
+				startDate = readText(parser);
+			} else if ("end_date".equals(fieldName)) {
+				endDate = readText(parser);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return new WorkEntry(employer, startDate, endDate);
+	}
+
 }
@@ -391,7 +391,7 @@ public class FacebookProfile implements Serializable {
 			this.firstName = firstName;
 			this.lastName = lastName;
 			this.gender = gender;
-			this.locale = new Locale(locale);
+			this.locale = locale != null ? new Locale(locale) : null;
 		}
 
 		public Builder email(String email) {
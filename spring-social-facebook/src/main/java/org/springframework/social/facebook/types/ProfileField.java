@@ -0,0 +1,82 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook.types;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The fields of a {@link FacebookProfile}, for selecting which of them the Graph API returns.
+ * Requesting only the fields that will be used shrinks each profile in the response, which adds up over large friend lists.
+ * Fields that are not requested are left null, or empty in the case of work and education, in the profiles returned.
+ * @author agent
+ */
+public enum ProfileField {
+
+	ID("id"), USERNAME("username"), NAME("name"), FIRST_NAME("first_name"), LAST_NAME("last_name"), GENDER("gender"),
+	LOCALE("locale"), EDUCATION("education"), WORK("work"), EMAIL("email"), THIRD_PARTY_ID("third_party_id"), LINK("link"),
+	TIMEZONE("timezone"), UPDATED_TIME("updated_time"), VERIFIED("verified"), ABOUT("about"), BIO("bio"), BIRTHDAY("birthday"),
+	LOCATION("location"), HOMETOWN("hometown"), INTERESTED_IN("interested_in"), RELIGION("religion"), POLITICAL("political"),
+	QUOTES("quotes"), RELATIONSHIP_STATUS("relationship_status"), SIGNIFICANT_OTHER("significant_other"), WEBSITE("website");
+
+	private static final Map<String, ProfileField> FIELDS_BY_NAME = new HashMap<String, ProfileField>();
+
+	static {
+		for (ProfileField field : values()) {
+			FIELDS_BY_NAME.put(field.fieldName, field);
+		}
+	}
+
+	private final String fieldName;
+
+	private ProfileField(String fieldName) {
+		this.fieldName = fieldName;
+	}
+
+	/**
+	 * The name of the field in Graph API requests and responses.
+	 */
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	/**
+	 * Looks up a field by its Graph API name.
+	 * @return the field, or null if the name is not one of a profile's fields
+	 */
+	public static ProfileField forName(String fieldName) {
+		return FIELDS_BY_NAME.get(fieldName);
+	}
+
+	/**
+	 * Converts a selection of fields to the Graph API field names for a request's "fields" parameter.
+	 * The ID is always included, since a profile cannot be built without it.
+	 */
+	public static String[] toFieldNames(Collection<ProfileField> fields) {
+		boolean hasId = fields.contains(ID);
+		String[] fieldNames = new String[hasId ? fields.size() : fields.size() + 1];
+		int i = 0;
+		if (!hasId) {
+			fieldNames[i++] = ID.fieldName;
+		}
+		for (ProfileField field : fields) {
+			fieldNames[i++] = field.fieldName;
+		}
+		return fieldNames;
+	}
+
+}
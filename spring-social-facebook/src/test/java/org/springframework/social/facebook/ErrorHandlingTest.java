@@ -95,5 +95,19 @@ public class ErrorHandlingTest extends AbstractFacebookApiTest {
 			assertEquals("(#803) Some of the aliases you requested do not exist: dummyalias", e.getMessage());
 		}				
 	}
+
+	@Test
+	public void unknownAlias_HTTP200_connections() {
+		try {
+			mockServer.expect(requestTo("https://graph.facebook.com/dummyalias/feed"))
+				.andExpect(method(GET))
+				.andExpect(header("Authorization", "OAuth someAccessToken"))
+				.andRespond(withResponse(new ClassPathResource("testdata/error-unknown-alias.json", getClass()), responseHeaders, HttpStatus.OK, ""));
+			facebook.feedOperations().getFeed("dummyalias");
+			fail("Expected GraphAPIException");
+		} catch (GraphAPIException e) {
+			assertEquals("(#803) Some of the aliases you requested do not exist: dummyalias", e.getMessage());
+		}
+	}
 	
 }
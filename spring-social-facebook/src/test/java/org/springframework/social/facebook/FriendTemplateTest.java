@@ -20,10 +20,13 @@ import static org.springframework.http.HttpMethod.*;
 import static org.springframework.social.test.client.RequestMatchers.*;
 import static org.springframework.social.test.client.ResponseCreators.*;
 
+import java.util.EnumSet;
 import java.util.List;
 
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.facebook.types.FacebookProfile;
+import org.springframework.social.facebook.types.ProfileField;
 import org.springframework.social.facebook.types.Reference;
 
 public class FriendTemplateTest extends AbstractFacebookApiTest {
@@ -109,6 +112,20 @@ public class FriendTemplateTest extends AbstractFacebookApiTest {
 		assertFriends(friends);
 	}
 	
+	@Test
+	public void getFriendProfiles_selectedFields() {
+		mockServer.expect(requestTo("https://graph.facebook.com/me/friends?fields=id%2Cname"))
+				.andExpect(method(GET))
+				.andExpect(header("Authorization", "OAuth someAccessToken"))
+				.andRespond(withResponse(new ClassPathResource("testdata/friends.json", getClass()), responseHeaders));
+		List<FacebookProfile> friends = facebook.friendOperations().getFriendProfiles("me", EnumSet.of(ProfileField.NAME));
+		assertEquals(3, friends.size());
+		assertEquals(12345L, friends.get(0).getId());
+		assertEquals("Roy Clarkson", friends.get(0).getName());
+		assertNull(friends.get(0).getUsername());
+		assertNull(friends.get(0).getEmail());
+	}
+
 	@Test
 	public void getFriends_forSpecificUser() {
 		mockServer.expect(requestTo("https://graph.facebook.com/912873465/friends"))
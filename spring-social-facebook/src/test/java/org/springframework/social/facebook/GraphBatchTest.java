@@ -0,0 +1,119 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpMethod.*;
+import static org.springframework.social.test.client.RequestMatchers.*;
+import static org.springframework.social.test.client.ResponseCreators.*;
+
+import java.net.URLEncoder;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.social.facebook.support.extractors.ReferenceResponseExtractor;
+import org.springframework.social.facebook.types.Reference;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * @author agent
+ */
+public class GraphBatchTest extends AbstractFacebookApiTest {
+
+	@Test
+	public void execute() throws Exception {
+		String batch = "[{\"method\":\"GET\",\"relative_url\":\"me?fields=id%2Cname\"}," +
+				"{\"method\":\"GET\",\"relative_url\":\"me/friends\"}," +
+				"{\"method\":\"POST\",\"relative_url\":\"me/feed\",\"body\":\"message=Hello+there\"}]";
+		mockServer.expect(requestTo("https://graph.facebook.com/"))
+			.andExpect(method(POST))
+			.andExpect(header("Authorization", "OAuth someAccessToken"))
+			.andExpect(body("batch=" + URLEncoder.encode(batch, "UTF-8")))
+			.andRespond(withResponse("[" +
+					"{\"code\":200,\"body\":\"{\\\"id\\\":\\\"123456789\\\",\\\"name\\\":\\\"Craig Walls\\\"}\"}," +
+					"{\"code\":200,\"body\":\"{\\\"data\\\":[{\\\"id\\\":\\\"111\\\",\\\"name\\\":\\\"Roy Clarkson\\\"},{\\\"id\\\":\\\"222\\\",\\\"name\\\":\\\"Keith Donald\\\"}]}\"}," +
+					"{\"code\":200,\"body\":\"{\\\"id\\\":\\\"123456789_987\\\"}\"}]", responseHeaders));
+		GraphBatch batchRequest = facebook.batch();
+		BatchResult<Reference> me = batchRequest.fetchObject("me", new ReferenceResponseExtractor(), "id", "name");
+		BatchResult<List<Reference>> friends = batchRequest.fetchConnections("me", "friends", new ReferenceResponseExtractor());
+		MultiValueMap<String, String> data = new LinkedMultiValueMap<String, String>();
+		data.set("message", "Hello there");
+		BatchResult<String> postId = batchRequest.publish("me", "feed", data);
+		batchRequest.execute();
+		assertEquals("Craig Walls", me.get().getName());
+		assertEquals(2, friends.get().size());
+		assertEquals("Keith Donald", friends.get().get(1).getName());
+		assertEquals("123456789_987", postId.get());
+		mockServer.verify();
+	}
+
+	@Test
+	public void execute_itemError() {
+		mockServer.expect(requestTo("https://graph.facebook.com/"))
+			.andExpect(method(POST))
+			.andRespond(withResponse("[" +
+					"{\"code\":400,\"body\":\"{\\\"error\\\":{\\\"type\\\":\\\"OAuthException\\\",\\\"message\\\":\\\"(#803) Some of the aliases you requested do not exist: dummyalias\\\"}}\"}," +
+					"{\"code\":200,\"body\":\"{\\\"id\\\":\\\"123456789\\\",\\\"name\\\":\\\"Craig Walls\\\"}\"}," +
+					"null]", responseHeaders));
+		GraphBatch batchRequest = facebook.batch();
+		BatchResult<Reference> unknown = batchRequest.fetchObject("dummyalias", new ReferenceResponseExtractor());
+		BatchResult<Reference> me = batchRequest.fetchObject("me", new ReferenceResponseExtractor());
+		BatchResult<Reference> incomplete = batchRequest.fetchObject("me", new ReferenceResponseExtractor());
+		batchRequest.execute();
+		assertEquals("Craig Walls", me.get().getName());
+		try {
+			unknown.get();
+			fail("Expected GraphAPIException");
+		} catch (GraphAPIException e) {
+			assertEquals("(#803) Some of the aliases you requested do not exist: dummyalias", e.getMessage());
+		}
+		try {
+			incomplete.get();
+			fail("Expected GraphAPIException");
+		} catch (GraphAPIException e) {
+		}
+	}
+
+	@Test
+	public void execute_itemErrorWithoutDetails() {
+		mockServer.expect(requestTo("https://graph.facebook.com/"))
+			.andExpect(method(POST))
+			.andRespond(withResponse("[" +
+					"{\"code\":500,\"body\":null}," +
+					"{\"code\":404,\"body\":\"{}\"}]", responseHeaders));
+		GraphBatch batchRequest = facebook.batch();
+		BatchResult<Reference> noBody = batchRequest.fetchObject("me", new ReferenceResponseExtractor());
+		BatchResult<Reference> noError = batchRequest.fetchObject("me", new ReferenceResponseExtractor());
+		batchRequest.execute();
+		try {
+			noBody.get();
+			fail("Expected GraphAPIException");
+		} catch (GraphAPIException e) {
+		}
+		try {
+			noError.get();
+			fail("Expected GraphAPIException");
+		} catch (GraphAPIException e) {
+		}
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void get_notExecuted() {
+		facebook.batch().fetchObject("me", new ReferenceResponseExtractor()).get();
+	}
+
+}
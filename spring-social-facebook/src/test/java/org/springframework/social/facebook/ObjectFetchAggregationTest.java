@@ -0,0 +1,196 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpMethod.*;
+import static org.springframework.social.test.client.RequestMatchers.*;
+import static org.springframework.social.test.client.ResponseCreators.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.social.facebook.support.extractors.ReferenceResponseExtractor;
+import org.springframework.social.facebook.types.Reference;
+import org.springframework.social.test.client.RequestMatcher;
+import org.springframework.social.test.client.ResponseCreator;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * @author agent
+ */
+public class ObjectFetchAggregationTest extends AbstractFacebookApiTest {
+
+	@Test
+	public void fetchObject_coalescesConcurrentFetches() throws Exception {
+		mockServer.expect(idsRequestTo("111", "222", "333"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"111\":{\"id\":\"111\",\"name\":\"Roy Clarkson\"}," +
+					"\"222\":{\"id\":\"222\",\"name\":\"Craig Walls\"},\"333\":{\"id\":\"333\",\"name\":\"Keith Donald\"}}", responseHeaders));
+		facebook.setObjectFetchAggregation(10000, 3);
+		List<Future<Reference>> fetches = fetchConcurrently("111", "222", "333");
+		assertEquals("Roy Clarkson", fetches.get(0).get().getName());
+		assertEquals("Craig Walls", fetches.get(1).get().getName());
+		assertEquals("Keith Donald", fetches.get(2).get().getName());
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchObject_missingFromBatch() throws Exception {
+		mockServer.expect(idsRequestTo("111", "222"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"111\":{\"id\":\"111\",\"name\":\"Roy Clarkson\"}}", responseHeaders));
+		mockServer.expect(requestTo("https://graph.facebook.com/222"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"id\":\"222\",\"name\":\"Craig Walls\"}", responseHeaders));
+		facebook.setObjectFetchAggregation(10000, 2);
+		List<Future<Reference>> fetches = fetchConcurrently("111", "222");
+		assertEquals("Roy Clarkson", fetches.get(0).get().getName());
+		assertEquals("Craig Walls", fetches.get(1).get().getName());
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchObject_unknownIdInBatch() throws Exception {
+		mockServer.expect(idsRequestTo("111", "dummyalias"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"error\":{\"type\":\"OAuthException\",\"message\":\"(#803) Some of the aliases you requested do not exist: dummyalias\"}}", responseHeaders, HttpStatus.OK, ""));
+		// the two callers fall back to single fetches concurrently, so either may arrive first
+		for (int i = 0; i < 2; i++) {
+			mockServer.expect(method(GET)).andRespond(new ResponseCreator() {
+				public ClientHttpResponse createResponse(ClientHttpRequest request) {
+					if (request.getURI().toString().equals("https://graph.facebook.com/111")) {
+						return withResponse("{\"id\":\"111\",\"name\":\"Roy Clarkson\"}", responseHeaders).createResponse(request);
+					}
+					assertEquals("https://graph.facebook.com/dummyalias", request.getURI().toString());
+					return withResponse("{\"error\":{\"type\":\"OAuthException\",\"message\":\"(#803) Some of the aliases you requested do not exist: dummyalias\"}}", responseHeaders, HttpStatus.OK, "").createResponse(request);
+				}
+			});
+		}
+		facebook.setObjectFetchAggregation(10000, 2);
+		List<Future<Reference>> fetches = fetchConcurrently("111", "dummyalias");
+		assertEquals("Roy Clarkson", fetches.get(0).get().getName());
+		try {
+			fetches.get(1).get();
+			fail("Expected GraphAPIException");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof GraphAPIException);
+		}
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchObject_notAFriendInBatch() throws Exception {
+		mockServer.expect(idsRequestTo("111", "222", "333"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"error\":{\"type\":\"OAuthException\",\"message\":\"The member must be a friend of the current user.\"}}", responseHeaders, HttpStatus.OK, ""));
+		// the callers fall back to single fetches concurrently, so they may arrive in any order
+		for (int i = 0; i < 3; i++) {
+			mockServer.expect(method(GET)).andRespond(new ResponseCreator() {
+				public ClientHttpResponse createResponse(ClientHttpRequest request) {
+					String uri = request.getURI().toString();
+					if (uri.equals("https://graph.facebook.com/111")) {
+						return withResponse("{\"id\":\"111\",\"name\":\"Roy Clarkson\"}", responseHeaders).createResponse(request);
+					} else if (uri.equals("https://graph.facebook.com/333")) {
+						return withResponse("{\"id\":\"333\",\"name\":\"Keith Donald\"}", responseHeaders).createResponse(request);
+					}
+					assertEquals("https://graph.facebook.com/222", uri);
+					return withResponse("{\"error\":{\"type\":\"OAuthException\",\"message\":\"The member must be a friend of the current user.\"}}", responseHeaders, HttpStatus.OK, "").createResponse(request);
+				}
+			});
+		}
+		facebook.setObjectFetchAggregation(10000, 3);
+		List<Future<Reference>> fetches = fetchConcurrently("111", "222", "333");
+		assertEquals("Roy Clarkson", fetches.get(0).get().getName());
+		try {
+			fetches.get(1).get();
+			fail("Expected NotAFriendException");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof NotAFriendException);
+		}
+		assertEquals("Keith Donald", fetches.get(2).get().getName());
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchObject_serverErrorRethrownToAll() throws Exception {
+		mockServer.expect(idsRequestTo("111", "222"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{}", responseHeaders, HttpStatus.SERVICE_UNAVAILABLE, ""));
+		facebook.setObjectFetchAggregation(10000, 2);
+		List<Future<Reference>> fetches = fetchConcurrently("111", "222");
+		for (Future<Reference> fetch : fetches) {
+			try {
+				fetch.get();
+				fail("Expected HttpServerErrorException");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof HttpServerErrorException);
+			}
+		}
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchObject_windowElapses() {
+		mockServer.expect(requestTo("https://graph.facebook.com/dummyalias"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"error\":{\"type\":\"OAuthException\",\"message\":\"(#803) Some of the aliases you requested do not exist: dummyalias\"}}", responseHeaders, HttpStatus.OK, ""));
+		facebook.setObjectFetchAggregation(10, 50);
+		try {
+			facebook.fetchObject("dummyalias", new ReferenceResponseExtractor());
+			fail("Expected GraphAPIException");
+		} catch (GraphAPIException e) {
+			assertEquals("(#803) Some of the aliases you requested do not exist: dummyalias", e.getMessage());
+		}
+	}
+
+	private List<Future<Reference>> fetchConcurrently(String... objectIds) {
+		ExecutorService executor = Executors.newFixedThreadPool(objectIds.length);
+		List<Future<Reference>> fetches = new ArrayList<Future<Reference>>();
+		for (final String objectId : objectIds) {
+			fetches.add(executor.submit(new Callable<Reference>() {
+				public Reference call() throws Exception {
+					return facebook.fetchObject(objectId, new ReferenceResponseExtractor());
+				}
+			}));
+		}
+		executor.shutdown();
+		return fetches;
+	}
+
+	private RequestMatcher idsRequestTo(final String... objectIds) {
+		return new RequestMatcher() {
+			public void match(ClientHttpRequest request) throws IOException, AssertionError {
+				String query = request.getURI().getRawQuery();
+				assertTrue(query.startsWith("ids="));
+				assertEquals(new HashSet<String>(Arrays.asList(objectIds)), new HashSet<String>(Arrays.asList(query.substring(4).split("%2C|,"))));
+			}
+		};
+	}
+
+}
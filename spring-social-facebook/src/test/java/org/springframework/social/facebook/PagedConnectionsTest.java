@@ -0,0 +1,109 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.facebook;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpMethod.*;
+import static org.springframework.social.test.client.RequestMatchers.*;
+import static org.springframework.social.test.client.ResponseCreators.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.social.facebook.support.extractors.ReferenceResponseExtractor;
+import org.springframework.social.facebook.support.extractors.StringResponseExtractor;
+import org.springframework.social.facebook.types.Reference;
+
+/**
+ * @author agent
+ */
+public class PagedConnectionsTest extends AbstractFacebookApiTest {
+
+	@Test
+	public void fetchAllConnections() {
+		expectPages();
+		List<String> names = new ArrayList<String>();
+		for (Reference friend : facebook.fetchAllConnections("me", "friends", new ReferenceResponseExtractor())) {
+			names.add(friend.getName());
+		}
+		assertEquals(3, names.size());
+		assertEquals("Roy Clarkson", names.get(0));
+		assertEquals("Keith Donald", names.get(2));
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchAllConnections_mapExtractor() {
+		expectPages();
+		List<String> ids = new ArrayList<String>();
+		for (String id : facebook.fetchAllConnections("me", "friends", new StringResponseExtractor("id"))) {
+			ids.add(id);
+		}
+		assertEquals(3, ids.size());
+		assertEquals("333", ids.get(2));
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchAllConnections_prefetch() {
+		expectPages();
+		facebook.setPrefetchConnectionPages(true);
+		int count = 0;
+		for (Iterator<Reference> friends = facebook.fetchAllConnections("me", "friends", new ReferenceResponseExtractor()).iterator(); friends.hasNext(); friends.next()) {
+			count++;
+		}
+		assertEquals(3, count);
+		mockServer.verify();
+	}
+
+	@Test
+	public void fetchAllConnections_errorOnLaterPage() {
+		mockServer.expect(requestTo("https://graph.facebook.com/me/friends"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"data\":[{\"id\":\"111\",\"name\":\"Roy Clarkson\"}]," +
+					"\"paging\":{\"next\":\"https://graph.facebook.com/me/friends?limit=2&offset=2\"}}", responseHeaders));
+		mockServer.expect(requestTo("https://graph.facebook.com/me/friends?limit=2&offset=2"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"error\":{\"type\":\"OAuthException\",\"message\":\"(#803) Some of the aliases you requested do not exist: me\"}}", responseHeaders, HttpStatus.OK, ""));
+		Iterator<Reference> friends = facebook.fetchAllConnections("me", "friends", new ReferenceResponseExtractor()).iterator();
+		assertEquals("Roy Clarkson", friends.next().getName());
+		try {
+			friends.hasNext();
+			fail("Expected GraphAPIException");
+		} catch (GraphAPIException e) {
+		}
+	}
+
+	private void expectPages() {
+		mockServer.expect(requestTo("https://graph.facebook.com/me/friends"))
+			.andExpect(method(GET))
+			.andExpect(header("Authorization", "OAuth someAccessToken"))
+			.andRespond(withResponse("{\"data\":[{\"id\":\"111\",\"name\":\"Roy Clarkson\"},{\"id\":\"222\",\"name\":\"Craig Walls\"}]," +
+					"\"paging\":{\"next\":\"https://graph.facebook.com/me/friends?limit=2&offset=2\"}}", responseHeaders));
+		mockServer.expect(requestTo("https://graph.facebook.com/me/friends?limit=2&offset=2"))
+			.andExpect(method(GET))
+			.andExpect(header("Authorization", "OAuth someAccessToken"))
+			.andRespond(withResponse("{\"data\":[{\"id\":\"333\",\"name\":\"Keith Donald\"}]," +
+					"\"paging\":{\"previous\":\"https://graph.facebook.com/me/friends?limit=2&offset=0\",\"next\":\"https://graph.facebook.com/me/friends?limit=2&offset=4\"}}", responseHeaders));
+		mockServer.expect(requestTo("https://graph.facebook.com/me/friends?limit=2&offset=4"))
+			.andExpect(method(GET))
+			.andRespond(withResponse("{\"data\":[]}", responseHeaders));
+	}
+
+}
@@ -15,14 +15,11 @@
  */
 package org.springframework.social.github;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Locale;
 import java.util.Map;
 
 import org.springframework.social.oauth2.ProtectedResourceClientFactory;
+import org.springframework.social.util.DateParser;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -68,7 +65,7 @@ public class GitHubTemplate implements GitHubApi {
 		String company = user.get("company") != null ? String.valueOf(user.get("company")) : null;
 		String blog = user.get("blog") != null ? String.valueOf(user.get("blog")) : null;
 		String email = user.get("email") != null ? String.valueOf(user.get("email")) : null;
-		Date createdDate = toDate(String.valueOf(user.get("created_at")), dateFormat);
+		Date createdDate = DATE_PARSER.parse(String.valueOf(user.get("created_at")));
 		String gravatarId = (String) user.get("gravatar_id");
 		String profileImageUrl = gravatarId != null ? "https://secure.gravatar.com/avatar/" + gravatarId : null;
 		return new GitHubUserProfile(gitHubId, username, name, location, company, blog, email, profileImageUrl, createdDate);
@@ -86,15 +83,7 @@ public class GitHubTemplate implements GitHubApi {
 	
 	// internal helpers
 
-	private Date toDate(String dateString, DateFormat dateFormat) {
-		try {
-			return dateFormat.parse(dateString);
-		} catch (ParseException e) {
-			return null;
-		}
-	}
-
-	private DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss Z", Locale.ENGLISH);
+	private static final DateParser DATE_PARSER = DateParser.forPattern("yyyy/MM/dd HH:mm:ss Z");
 
 	static final String PROFILE_URL = "https://github.com/api/v2/json/user/show";
 }
@@ -15,15 +15,13 @@
  */
 package org.springframework.social.tripit;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 import org.springframework.social.oauth1.ProtectedResourceClientFactory;
+import org.springframework.social.util.DateParser;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -108,15 +106,10 @@ public class TripItTemplate implements TripItApi {
 		return trips;
 	}
 
-	private SimpleDateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+	private static final DateParser DATE_PARSER = DateParser.forPattern("yyyy-MM-dd");
 
 	private Date parseDate(String dateString) {
-		try {
-			Date startDate = dateFormatter.parse(dateString);
-			return startDate;
-		} catch (ParseException e) {
-			return null;
-		}
+		return DATE_PARSER.parse(dateString);
 	}
 	
 	// subclassing hooks
@@ -17,6 +17,8 @@ package org.springframework.social.twitter;
 
 import java.util.List;
 
+import org.springframework.social.twitter.types.CursoredIdList;
+import org.springframework.social.twitter.types.IdList;
 import org.springframework.social.twitter.types.TwitterProfile;
 
 /**
@@ -53,6 +55,54 @@ public interface FriendOperations {
 	 */
 	List<Long> getFriendIds(String screenName);
 
+	/**
+	 * Retrieves the IDs for the Twitter users that the given user follows, held as primitives.
+	 * Prefer this to {@link #getFriendIds(long)} for users who follow many thousands of others.
+	 * @param userId the user's Twitter ID
+	 * @return a list of user IDs
+	 */
+	IdList getFriendIdList(long userId);
+
+	/**
+	 * Retrieves the IDs for the Twitter users that the given user follows, held as primitives.
+	 * Prefer this to {@link #getFriendIds(String)} for users who follow many thousands of others.
+	 * @param screenName the user's Twitter screen name
+	 * @return a list of user IDs
+	 */
+	IdList getFriendIdList(String screenName);
+
+	/**
+	 * Retrieves one page of IDs for the Twitter users that the given user follows.
+	 * @param userId the user's Twitter ID
+	 * @param cursor the cursor of the page to retrieve: {@link CursoredIdList#FIRST_CURSOR} for the first page, or the next cursor of the previous page
+	 * @return a page of user IDs, with the cursor of the following page
+	 */
+	CursoredIdList getFriendIds(long userId, long cursor);
+
+	/**
+	 * Retrieves one page of IDs for the Twitter users that the given user follows.
+	 * @param screenName the user's Twitter screen name
+	 * @param cursor the cursor of the page to retrieve: {@link CursoredIdList#FIRST_CURSOR} for the first page, or the next cursor of the previous page
+	 * @return a page of user IDs, with the cursor of the following page
+	 */
+	CursoredIdList getFriendIds(String screenName, long cursor);
+
+	/**
+	 * Pages through the IDs of all the Twitter users that the given user follows.
+	 * Each page is retrieved only when the iteration reaches it, so callers may process very large lists a page at a time.
+	 * @param userId the user's Twitter ID
+	 * @return the pages of user IDs
+	 */
+	Iterable<CursoredIdList> getFriendIdPages(long userId);
+
+	/**
+	 * Pages through the IDs of all the Twitter users that the given user follows.
+	 * Each page is retrieved only when the iteration reaches it, so callers may process very large lists a page at a time.
+	 * @param screenName the user's Twitter screen name
+	 * @return the pages of user IDs
+	 */
+	Iterable<CursoredIdList> getFriendIdPages(String screenName);
+
 	/**
 	 * Retrieves a list of users that the given user is being followed by
 	 * @param userId The user's Twitter ID
@@ -81,6 +131,54 @@ public interface FriendOperations {
 	 */
 	List<Long> getFollowerIds(String screenName);
 
+	/**
+	 * Retrieves the IDs for the Twitter users that follow the given user, held as primitives.
+	 * Prefer this to {@link #getFollowerIds(long)} for users with many thousands of followers.
+	 * @param userId the user's Twitter ID
+	 * @return a list of user IDs
+	 */
+	IdList getFollowerIdList(long userId);
+
+	/**
+	 * Retrieves the IDs for the Twitter users that follow the given user, held as primitives.
+	 * Prefer this to {@link #getFollowerIds(String)} for users with many thousands of followers.
+	 * @param screenName the user's Twitter screen name
+	 * @return a list of user IDs
+	 */
+	IdList getFollowerIdList(String screenName);
+
+	/**
+	 * Retrieves one page of IDs for the Twitter users that follow the given user.
+	 * @param userId the user's Twitter ID
+	 * @param cursor the cursor of the page to retrieve: {@link CursoredIdList#FIRST_CURSOR} for the first page, or the next cursor of the previous page
+	 * @return a page of user IDs, with the cursor of the following page
+	 */
+	CursoredIdList getFollowerIds(long userId, long cursor);
+
+	/**
+	 * Retrieves one page of IDs for the Twitter users that follow the given user.
+	 * @param screenName the user's Twitter screen name
+	 * @param cursor the cursor of the page to retrieve: {@link CursoredIdList#FIRST_CURSOR} for the first page, or the next cursor of the previous page
+	 * @return a page of user IDs, with the cursor of the following page
+	 */
+	CursoredIdList getFollowerIds(String screenName, long cursor);
+
+	/**
+	 * Pages through the IDs of all the Twitter users that follow the given user.
+	 * Each page is retrieved only when the iteration reaches it, so callers may process millions of followers a page at a time.
+	 * @param userId the user's Twitter ID
+	 * @return the pages of user IDs
+	 */
+	Iterable<CursoredIdList> getFollowerIdPages(long userId);
+
+	/**
+	 * Pages through the IDs of all the Twitter users that follow the given user.
+	 * Each page is retrieved only when the iteration reaches it, so callers may process millions of followers a page at a time.
+	 * @param screenName the user's Twitter screen name
+	 * @return the pages of user IDs
+	 */
+	Iterable<CursoredIdList> getFollowerIdPages(String screenName);
+
 	/**
 	 * Allows the authenticated user to follow (create a friendship) with another user.
 	 * @param userId The Twitter ID of the user to follow
@@ -125,4 +223,14 @@ public interface FriendOperations {
 	 * Returns an array of numeric IDs for every protected user for whom the authenticating user has a pending follow request.
 	 */
 	List<Long> getOutgoingFriendships();
+
+	/**
+	 * Returns the IDs, held as primitives, of every user who has a pending request to follow the authenticating user.
+	 */
+	IdList getIncomingFriendshipIdList();
+
+	/**
+	 * Returns the IDs, held as primitives, of every protected user for whom the authenticating user has a pending follow request.
+	 */
+	IdList getOutgoingFriendshipIdList();
 }
@@ -16,13 +16,15 @@
 package org.springframework.social.twitter;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
 
-import org.springframework.social.twitter.support.json.LongIdsList;
-import org.springframework.social.twitter.support.json.LongList;
 import org.springframework.social.twitter.support.json.TwitterProfileList;
+import org.springframework.social.twitter.types.CursoredIdList;
+import org.springframework.social.twitter.types.IdList;
 import org.springframework.social.twitter.types.TwitterProfile;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -50,11 +52,35 @@ class FriendTemplate extends AbstractTwitterOperations implements FriendOperatio
 	}
 	
 	public List<Long> getFriendIds(long userId) {
-		return restTemplate.getForObject(buildUri("friends/ids.json", Collections.singletonMap("user_id", String.valueOf(userId))), LongList.class).getList();
+		return getFriendIdList(userId);
 	}
 
 	public List<Long> getFriendIds(String screenName) {
-		return restTemplate.getForObject(buildUri("friends/ids.json", Collections.singletonMap("screen_name", screenName)), LongList.class).getList();
+		return getFriendIdList(screenName);
+	}
+
+	public IdList getFriendIdList(long userId) {
+		return restTemplate.getForObject(buildUri("friends/ids.json", Collections.singletonMap("user_id", String.valueOf(userId))), IdList.class);
+	}
+
+	public IdList getFriendIdList(String screenName) {
+		return restTemplate.getForObject(buildUri("friends/ids.json", Collections.singletonMap("screen_name", screenName)), IdList.class);
+	}
+
+	public CursoredIdList getFriendIds(long userId, long cursor) {
+		return getIdPage("friends/ids.json", "user_id", String.valueOf(userId), cursor);
+	}
+
+	public CursoredIdList getFriendIds(String screenName, long cursor) {
+		return getIdPage("friends/ids.json", "screen_name", screenName, cursor);
+	}
+
+	public Iterable<CursoredIdList> getFriendIdPages(long userId) {
+		return new IdPages("friends/ids.json", "user_id", String.valueOf(userId));
+	}
+
+	public Iterable<CursoredIdList> getFriendIdPages(String screenName) {
+		return new IdPages("friends/ids.json", "screen_name", screenName);
 	}
 
 	public List<TwitterProfile> getFollowers(long userId) {
@@ -66,11 +92,35 @@ class FriendTemplate extends AbstractTwitterOperations implements FriendOperatio
 	}
 
 	public List<Long> getFollowerIds(long userId) {
-		return restTemplate.getForObject(buildUri("followers/ids.json", Collections.singletonMap("user_id", String.valueOf(userId))), LongList.class).getList();
+		return getFollowerIdList(userId);
 	}
 
 	public List<Long> getFollowerIds(String screenName) {
-		return restTemplate.getForObject(buildUri("followers/ids.json", Collections.singletonMap("screen_name", screenName)), LongList.class).getList();
+		return getFollowerIdList(screenName);
+	}
+
+	public IdList getFollowerIdList(long userId) {
+		return restTemplate.getForObject(buildUri("followers/ids.json", Collections.singletonMap("user_id", String.valueOf(userId))), IdList.class);
+	}
+
+	public IdList getFollowerIdList(String screenName) {
+		return restTemplate.getForObject(buildUri("followers/ids.json", Collections.singletonMap("screen_name", screenName)), IdList.class);
+	}
+
+	public CursoredIdList getFollowerIds(long userId, long cursor) {
+		return getIdPage("followers/ids.json", "user_id", String.valueOf(userId), cursor);
+	}
+
+	public CursoredIdList getFollowerIds(String screenName, long cursor) {
+		return getIdPage("followers/ids.json", "screen_name", screenName, cursor);
+	}
+
+	public Iterable<CursoredIdList> getFollowerIdPages(long userId) {
+		return new IdPages("followers/ids.json", "user_id", String.valueOf(userId));
+	}
+
+	public Iterable<CursoredIdList> getFollowerIdPages(String screenName) {
+		return new IdPages("followers/ids.json", "screen_name", screenName);
 	}
 
 	public String follow(long userId) {
@@ -103,13 +153,75 @@ class FriendTemplate extends AbstractTwitterOperations implements FriendOperatio
 	}
 
 	public List<Long> getIncomingFriendships() {
-		requireUserAuthorization();
-		return restTemplate.getForObject(buildUri("friendships/incoming.json", Collections.<String, String>emptyMap()), LongIdsList.class).getList();
+		return getIncomingFriendshipIdList();
 	}
 
 	public List<Long> getOutgoingFriendships() {
+		return getOutgoingFriendshipIdList();
+	}
+
+	public IdList getIncomingFriendshipIdList() {
+		requireUserAuthorization();
+		return restTemplate.getForObject(buildUri("friendships/incoming.json", Collections.<String, String>emptyMap()), CursoredIdList.class);
+	}
+
+	public IdList getOutgoingFriendshipIdList() {
 		requireUserAuthorization();
-		return restTemplate.getForObject(buildUri("friendships/outgoing.json", Collections.<String, String>emptyMap()), LongIdsList.class).getList();
+		return restTemplate.getForObject(buildUri("friendships/outgoing.json", Collections.<String, String>emptyMap()), CursoredIdList.class);
+	}
+
+	// internal helpers
+
+	private CursoredIdList getIdPage(String path, String userParamName, String user, long cursor) {
+		Map<String, String> params = new TreeMap<String, String>();
+		params.put(userParamName, user);
+		params.put("cursor", String.valueOf(cursor));
+		return restTemplate.getForObject(buildUri(path, params), CursoredIdList.class);
+	}
+
+	/**
+	 * The pages of a cursored ID list, each retrieved as the iteration reaches it.
+	 * Only the page being iterated is held, so the whole list is never in memory at once.
+	 */
+	private class IdPages implements Iterable<CursoredIdList> {
+
+		private final String path;
+
+		private final String userParamName;
+
+		private final String user;
+
+		public IdPages(String path, String userParamName, String user) {
+			this.path = path;
+			this.userParamName = userParamName;
+			this.user = user;
+		}
+
+		public Iterator<CursoredIdList> iterator() {
+			return new Iterator<CursoredIdList>() {
+
+				private long cursor = CursoredIdList.FIRST_CURSOR;
+
+				public boolean hasNext() {
+					return cursor != 0;
+				}
+
+				public CursoredIdList next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					CursoredIdList page = getIdPage(path, userParamName, user, cursor);
+					cursor = page.getNextCursor();
+					return page;
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+			};
+		}
+
 	}
 
 	private static final MultiValueMap<String, Object> EMPTY_DATA = new LinkedMultiValueMap<String, Object>();
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link SinceIdStore} that holds high-water marks in memory, so polling starts afresh when the application restarts.
+ * A mark only ever moves forward, so overlapping polls of the same timeline cannot move it back.
+ * @author agent
+ */
+public class InMemorySinceIdStore implements SinceIdStore {
+
+	private final ConcurrentMap<String, Long> sinceIds = new ConcurrentHashMap<String, Long>();
+
+	public long getSinceId(String timelineKey) {
+		Long sinceId = sinceIds.get(timelineKey);
+		return sinceId != null ? sinceId : 0;
+	}
+
+	public void saveSinceId(String timelineKey, long sinceId) {
+		Long newSinceId = sinceId;
+		while (true) {
+			Long current = sinceIds.putIfAbsent(timelineKey, newSinceId);
+			if (current == null || current >= sinceId || sinceIds.replace(timelineKey, current, newSinceId)) {
+				return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter;
+
+/**
+ * Persists the since_id high-water mark of each timeline polled by a {@link TimelinePoller}.
+ * Implementations backed by durable storage let polling resume where it left off after a restart.
+ * @author agent
+ */
+public interface SinceIdStore {
+
+	/**
+	 * Returns the ID of the newest tweet seen on the given timeline.
+	 * @param timelineKey the key identifying the timeline, typically including the ID of the user it belongs to
+	 * @return the since_id high-water mark, or 0 if the timeline has not been polled yet
+	 */
+	long getSinceId(String timelineKey);
+
+	/**
+	 * Records the ID of the newest tweet seen on the given timeline.
+	 * @param timelineKey the key identifying the timeline
+	 * @param sinceId the new since_id high-water mark
+	 */
+	void saveSinceId(String timelineKey, long sinceId);
+
+}
@@ -17,6 +17,7 @@ package org.springframework.social.twitter;
 
 import java.util.List;
 
+import org.springframework.social.twitter.types.IdList;
 import org.springframework.social.twitter.types.StatusDetails;
 import org.springframework.social.twitter.types.Tweet;
 import org.springframework.social.twitter.types.TwitterProfile;
@@ -53,6 +54,16 @@ public interface TimelineOperations {
 	 */
 	List<Tweet> getHomeTimeline();
 
+	/**
+	 * Retrieves a window of tweets, including retweets, from the authenticating user's home timeline.
+	 * Pollers pass the ID of the newest tweet they have already seen as sinceId so that only newer tweets are transferred.
+	 * @param sinceId only tweets with an ID greater than this are returned; 0 for no lower bound
+	 * @param maxId only tweets with an ID less than or equal to this are returned; 0 for no upper bound
+	 * @param count the maximum number of tweets to return, up to 200; 0 for Twitter's default of 20
+	 * @return a collection of {@link Tweet}s in the authenticating user's home timeline, newest first.
+	 */
+	List<Tweet> getHomeTimeline(long sinceId, long maxId, int count);
+
 	/**
 	 * <p>
 	 * Retrieves the 20 most recently posted tweets, excluding retweets, from
@@ -94,12 +105,31 @@ public interface TimelineOperations {
 	 */
 	List<Tweet> getUserTimeline(long userId);
 
+	/**
+	 * Retrieves a window of the tweets posted by the given user.
+	 * @param userId The user ID of the user whose timeline is being requested.
+	 * @param sinceId only tweets with an ID greater than this are returned; 0 for no lower bound
+	 * @param maxId only tweets with an ID less than or equal to this are returned; 0 for no upper bound
+	 * @param count the maximum number of tweets to return, up to 200; 0 for Twitter's default of 20
+	 * @return a collection of {@link Tweet}s from the specified user's timeline, newest first.
+	 */
+	List<Tweet> getUserTimeline(long userId, long sinceId, long maxId, int count);
+
 	/**
 	 * Retrieve the 20 most recent tweets that mention the authenticated user.
 	 * @return a collection of {@link Tweet} objects that mention the authenticated user.
 	 */
 	List<Tweet> getMentions();
 
+	/**
+	 * Retrieve a window of the tweets that mention the authenticated user.
+	 * @param sinceId only tweets with an ID greater than this are returned; 0 for no lower bound
+	 * @param maxId only tweets with an ID less than or equal to this are returned; 0 for no upper bound
+	 * @param count the maximum number of tweets to return, up to 200; 0 for Twitter's default of 20
+	 * @return a collection of {@link Tweet} objects that mention the authenticated user, newest first.
+	 */
+	List<Tweet> getMentions(long sinceId, long maxId, int count);
+
 	/**
 	 * Retrieve the 20 most recent retweets posted by the authenticated user.
 	 */
@@ -164,6 +194,12 @@ public interface TimelineOperations {
 	 */
 	List<Long> getRetweetedByIds(long id);
 
+	/**
+	 * Retrieves the IDs, held as primitives, of up to 100 users who have retweeted a specific tweet.
+	 * @param id the tweet's ID.
+	 */
+	IdList getRetweetedByIdList(long id);
+
 	/**
 	 * Retrieves the 20 most recent tweets favorited by the given user.
 	 * 
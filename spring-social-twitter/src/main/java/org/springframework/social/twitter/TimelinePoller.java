@@ -0,0 +1,192 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.social.twitter.types.Tweet;
+import org.springframework.util.Assert;
+
+/**
+ * Polls a timeline incrementally, retrieving only the tweets posted since the previous poll.
+ * <p>
+ * The ID of the newest tweet seen is kept in a {@link SinceIdStore} under a timeline key and passed to Twitter as since_id, so each poll
+ * transfers and parses only the new tweets. When more tweets have arrived than fit in one page, the poll pages back with max_id until it
+ * reaches the previous high-water mark or Twitter returns an empty page, so no tweets are missed. A short page does not end the back-fill:
+ * Twitter applies the count before dropping deleted and suspended tweets, so a page may come back short with older tweets still to come.
+ * The first poll of a timeline retrieves only its most recent page.
+ * </p>
+ * <p>
+ * The new tweets are streamed, newest first, and each page is retrieved only when the iteration reaches it. The high-water mark is saved
+ * once the stream has been read to the end; if a poll is abandoned part way through, the next poll delivers the same tweets again.
+ * </p>
+ * @author agent
+ */
+public abstract class TimelinePoller {
+
+	/**
+	 * The largest number of tweets Twitter returns in one page of a timeline.
+	 */
+	public static final int MAX_PAGE_SIZE = 200;
+
+	private final SinceIdStore sinceIdStore;
+
+	private final String timelineKey;
+
+	private int pageSize = MAX_PAGE_SIZE;
+
+	/**
+	 * Creates a poller that keeps its high-water mark in the given store.
+	 * @param sinceIdStore the store of high-water marks
+	 * @param timelineKey the key the high-water mark of the polled timeline is stored under
+	 */
+	protected TimelinePoller(SinceIdStore sinceIdStore, String timelineKey) {
+		Assert.notNull(sinceIdStore, "sinceIdStore must not be null");
+		Assert.hasText(timelineKey, "timelineKey must not be empty");
+		this.sinceIdStore = sinceIdStore;
+		this.timelineKey = timelineKey;
+	}
+
+	/**
+	 * Creates a poller of the authenticating user's home timeline.
+	 */
+	public static TimelinePoller homeTimeline(final TimelineOperations timelineOperations, SinceIdStore sinceIdStore, String timelineKey) {
+		return new TimelinePoller(sinceIdStore, timelineKey) {
+			protected List<Tweet> fetchTimeline(long sinceId, long maxId, int count) {
+				return timelineOperations.getHomeTimeline(sinceId, maxId, count);
+			}
+		};
+	}
+
+	/**
+	 * Creates a poller of the tweets that mention the authenticating user.
+	 */
+	public static TimelinePoller mentions(final TimelineOperations timelineOperations, SinceIdStore sinceIdStore, String timelineKey) {
+		return new TimelinePoller(sinceIdStore, timelineKey) {
+			protected List<Tweet> fetchTimeline(long sinceId, long maxId, int count) {
+				return timelineOperations.getMentions(sinceId, maxId, count);
+			}
+		};
+	}
+
+	/**
+	 * Creates a poller of the tweets posted by the given user.
+	 */
+	public static TimelinePoller userTimeline(final TimelineOperations timelineOperations, final long userId, SinceIdStore sinceIdStore, String timelineKey) {
+		return new TimelinePoller(sinceIdStore, timelineKey) {
+			protected List<Tweet> fetchTimeline(long sinceId, long maxId, int count) {
+				return timelineOperations.getUserTimeline(userId, sinceId, maxId, count);
+			}
+		};
+	}
+
+	/**
+	 * Sets the number of tweets requested per page. Defaults to {@link #MAX_PAGE_SIZE}, which needs the fewest requests to catch up.
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Polls the timeline for the tweets posted since the last poll.
+	 * @return a single-use stream of the new tweets, newest first
+	 */
+	public Iterator<Tweet> poll() {
+		return new NewTweets(sinceIdStore.getSinceId(timelineKey));
+	}
+
+	// subclassing hooks
+
+	/**
+	 * Retrieves a page of the polled timeline, newest first.
+	 * @param sinceId only tweets with an ID greater than this are to be returned; 0 for no lower bound
+	 * @param maxId only tweets with an ID less than or equal to this are to be returned; 0 for no upper bound
+	 * @param count the maximum number of tweets to return
+	 */
+	protected abstract List<Tweet> fetchTimeline(long sinceId, long maxId, int count);
+
+	// internal helpers
+
+	private class NewTweets implements Iterator<Tweet> {
+
+		private final long sinceId;
+
+		private long maxId;
+
+		private long newestId;
+
+		private List<Tweet> page;
+
+		private int index;
+
+		private boolean lastPage;
+
+		private boolean exhausted;
+
+		public NewTweets(long sinceId) {
+			this.sinceId = sinceId;
+			this.newestId = sinceId;
+		}
+
+		public boolean hasNext() {
+			while (page == null || index == page.size()) {
+				if (exhausted) {
+					return false;
+				}
+				if (lastPage) {
+					if (newestId > sinceId) {
+						sinceIdStore.saveSinceId(timelineKey, newestId);
+					}
+					exhausted = true;
+					return false;
+				}
+				fetchPage();
+			}
+			return true;
+		}
+
+		public Tweet next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return page.get(index++);
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private void fetchPage() {
+			page = fetchTimeline(sinceId, maxId, pageSize);
+			index = 0;
+			if (page.isEmpty()) {
+				lastPage = true;
+				return;
+			}
+			newestId = Math.max(newestId, page.get(0).getId());
+			maxId = page.get(page.size() - 1).getId() - 1;
+			// only an empty page or reaching the high-water mark closes the gap; on the first poll there is no mark to page back to
+			lastPage = sinceId == 0 || maxId <= sinceId;
+		}
+
+	}
+
+}
@@ -17,10 +17,12 @@ package org.springframework.social.twitter;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
-import org.springframework.social.twitter.support.json.LongList;
 import org.springframework.social.twitter.support.json.TweetList;
 import org.springframework.social.twitter.support.json.TwitterProfileList;
+import org.springframework.social.twitter.types.IdList;
 import org.springframework.social.twitter.types.StatusDetails;
 import org.springframework.social.twitter.types.Tweet;
 import org.springframework.social.twitter.types.TwitterProfile;
@@ -50,6 +52,11 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		return restTemplate.getForObject(buildUri("statuses/home_timeline.json"), TweetList.class).getList();
 	}
 
+	public List<Tweet> getHomeTimeline(long sinceId, long maxId, int count) {
+		requireUserAuthorization();
+		return restTemplate.getForObject(buildUri("statuses/home_timeline.json", windowParams(sinceId, maxId, count)), TweetList.class).getList();
+	}
+
 	public List<Tweet> getFriendsTimeline() {
 		requireUserAuthorization();
 		return restTemplate.getForObject(buildUri("statuses/friends_timeline.json"), TweetList.class).getList();
@@ -68,11 +75,22 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		return restTemplate.getForObject(buildUri("statuses/user_timeline.json", Collections.singletonMap("user_id", String.valueOf(userId))), TweetList.class).getList();
 	}
 
+	public List<Tweet> getUserTimeline(long userId, long sinceId, long maxId, int count) {
+		Map<String, String> params = windowParams(sinceId, maxId, count);
+		params.put("user_id", String.valueOf(userId));
+		return restTemplate.getForObject(buildUri("statuses/user_timeline.json", params), TweetList.class).getList();
+	}
+
 	public List<Tweet> getMentions() {
 		requireUserAuthorization();
 		return restTemplate.getForObject(buildUri("statuses/mentions.json"), TweetList.class).getList();
 	}
 
+	public List<Tweet> getMentions(long sinceId, long maxId, int count) {
+		requireUserAuthorization();
+		return restTemplate.getForObject(buildUri("statuses/mentions.json", windowParams(sinceId, maxId, count)), TweetList.class).getList();
+	}
+
 	public List<Tweet> getRetweetedByMe() {
 		requireUserAuthorization();
 		return restTemplate.getForObject(buildUri("statuses/retweeted_by_me.json"), TweetList.class).getList();
@@ -125,8 +143,12 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 	}
 
 	public List<Long> getRetweetedByIds(long tweetId) {
+		return getRetweetedByIdList(tweetId);
+	}
+
+	public IdList getRetweetedByIdList(long tweetId) {
 		requireUserAuthorization();
-		return restTemplate.getForObject(buildUri("statuses/" + tweetId + "/retweeted_by/ids.json"), LongList.class).getList();
+		return restTemplate.getForObject(buildUri("statuses/" + tweetId + "/retweeted_by/ids.json"), IdList.class);
 	}
 
 	public List<Tweet> getFavorites() {
@@ -146,4 +168,20 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		restTemplate.postForObject(buildUri("favorites/destroy/" + tweetId + ".json"), data, String.class);
 	}
 
+	// internal helpers
+
+	private Map<String, String> windowParams(long sinceId, long maxId, int count) {
+		Map<String, String> params = new TreeMap<String, String>();
+		if (count > 0) {
+			params.put("count", String.valueOf(count));
+		}
+		if (maxId > 0) {
+			params.put("max_id", String.valueOf(maxId));
+		}
+		if (sinceId > 0) {
+			params.put("since_id", String.valueOf(sinceId));
+		}
+		return params;
+	}
+
 }
@@ -19,6 +19,11 @@ package org.springframework.social.twitter;
  * Interface specifying a basic set of operations for interacting with Twitter.
  * Implemented by TwitterTemplate. Not often used directly, but a useful option
  * to enhance testability, as it can easily be mocked or stubbed.
+ * <p>
+ * Operations block the calling thread for the whole HTTP exchange. To fan out across many users, submit the calls to an
+ * application-managed executor, for example <code>executor.submit(new Callable&lt;List&lt;Tweet&gt;&gt;() { ... twitter.timelineOperations().getHomeTimeline() ... })</code>,
+ * sized to the number of requests that may be in flight at once; each in-flight request holds one of its threads.
+ * </p>
  *
  * @author Craig Walls
  */
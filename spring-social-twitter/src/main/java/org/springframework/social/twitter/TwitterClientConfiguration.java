@@ -0,0 +1,97 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonHttpMessageConverter;
+import org.springframework.social.twitter.support.TwitterErrorHandler;
+import org.springframework.social.twitter.support.json.TwitterModule;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * The message converters and error handler every TwitterTemplate's RestTemplate is configured with.
+ * Built once and shared: the ObjectMapper with the TwitterModule registered is costly to create and caches deserializers as it is used,
+ * so sharing it keeps template construction cheap and the caches warm across users.
+ * All members are thread-safe once configured and are never modified; each RestTemplate is given its own copy of the converter list.
+ * Templates that read extra tweet fields need a differently configured TweetDeserializer, so they share a configuration per set of fields instead.
+ * @author agent
+ */
+final class TwitterClientConfiguration {
+
+	static final TwitterClientConfiguration INSTANCE = new TwitterClientConfiguration();
+
+	private static final ConcurrentMap<Set<String>, TwitterClientConfiguration> extraTweetFieldConfigurations = new ConcurrentHashMap<Set<String>, TwitterClientConfiguration>();
+
+	private final ObjectMapper objectMapper;
+
+	private final List<HttpMessageConverter<?>> messageConverters;
+
+	private final TwitterErrorHandler errorHandler;
+
+	private TwitterClientConfiguration(String... extraTweetFields) {
+		objectMapper = new ObjectMapper();
+		objectMapper.registerModule(new TwitterModule(extraTweetFields));
+		List<HttpMessageConverter<?>> messageConverters = new ArrayList<HttpMessageConverter<?>>(new RestTemplate().getMessageConverters());
+		for (HttpMessageConverter<?> converter : messageConverters) {
+			if (converter instanceof MappingJacksonHttpMessageConverter) {
+				((MappingJacksonHttpMessageConverter) converter).setObjectMapper(objectMapper);
+			}
+		}
+		this.messageConverters = Collections.unmodifiableList(messageConverters);
+		errorHandler = new TwitterErrorHandler(objectMapper);
+	}
+
+	/**
+	 * Returns the configuration whose tweets also carry the given fields in their extra data, creating it on first use.
+	 * @param extraTweetFields the JSON names of additional top-level tweet fields to read
+	 */
+	public static TwitterClientConfiguration forExtraTweetFields(String... extraTweetFields) {
+		if (extraTweetFields.length == 0) {
+			return INSTANCE;
+		}
+		Set<String> key = new TreeSet<String>(Arrays.asList(extraTweetFields));
+		TwitterClientConfiguration configuration = extraTweetFieldConfigurations.get(key);
+		if (configuration == null) {
+			configuration = new TwitterClientConfiguration(key.toArray(new String[key.size()]));
+			TwitterClientConfiguration existing = extraTweetFieldConfigurations.putIfAbsent(key, configuration);
+			if (existing != null) {
+				configuration = existing;
+			}
+		}
+		return configuration;
+	}
+
+	/**
+	 * Configures the RestTemplate with the shared message converters and error handler.
+	 * The converter instances are shared, but the list holding them is the template's own.
+	 */
+	public void configure(RestTemplate restTemplate) {
+		// each RestTemplate gets its own list, so callers may still add or remove converters on their template
+		restTemplate.setMessageConverters(new ArrayList<HttpMessageConverter<?>>(messageConverters));
+		restTemplate.setErrorHandler(errorHandler);
+	}
+
+}
@@ -15,16 +15,9 @@
  */
 package org.springframework.social.twitter;
 
-import java.util.List;
-
-import org.codehaus.jackson.map.ObjectMapper;
-import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJacksonHttpMessageConverter;
 import org.springframework.social.BadCredentialsException;
 import org.springframework.social.oauth1.ProtectedResourceClientFactory;
 import org.springframework.social.support.ClientHttpRequestFactorySelector;
-import org.springframework.social.twitter.support.TwitterErrorHandler;
-import org.springframework.social.twitter.support.json.TwitterModule;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -87,8 +80,7 @@ public class TwitterTemplate implements TwitterApi {
 	private TwitterTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser) {
 		this.restTemplate = restTemplate;
 		this.isAuthorizedForUser = isAuthorizedForUser;
-		registerTwitterModule(restTemplate);
-		restTemplate.setErrorHandler(new TwitterErrorHandler());
+		TwitterClientConfiguration.INSTANCE.configure(restTemplate);
 		this.userOperations = new UserTemplate(restTemplate, isAuthorizedForUser);
 		this.directMessageOperations = new DirectMessageTemplate(restTemplate, isAuthorizedForUser);
 		this.friendOperations = new FriendTemplate(restTemplate, isAuthorizedForUser);
@@ -99,6 +91,16 @@ public class TwitterTemplate implements TwitterApi {
 		this.listOperations = new ListTemplate(restTemplate, userOperations, isAuthorizedForUser);		
 	}
 
+	/**
+	 * Has the tweets this template reads also carry the given top-level fields, such as "place" or "contributors", in their extra data.
+	 * Replaces the template's message converters, so call it before customizing them.
+	 * @param extraTweetFields the JSON names of additional tweet fields to read
+	 * @see org.springframework.social.twitter.types.Tweet#getExtraData()
+	 */
+	public void setExtraTweetFields(String... extraTweetFields) {
+		TwitterClientConfiguration.forExtraTweetFields(extraTweetFields).configure(restTemplate);
+	}
+
 	public boolean isAuthorizedForUser() {
 		return isAuthorizedForUser;
 	}
@@ -127,20 +129,6 @@ public class TwitterTemplate implements TwitterApi {
 		return userOperations;
 	}
 		
-	// private helper 
-
-	private void registerTwitterModule(RestTemplate restTemplate) {
-		List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
-		for (HttpMessageConverter<?> converter : converters) {
-			if(converter instanceof MappingJacksonHttpMessageConverter) {
-				MappingJacksonHttpMessageConverter jsonConverter = (MappingJacksonHttpMessageConverter) converter;
-				ObjectMapper objectMapper = new ObjectMapper();				
-				objectMapper.registerModule(new TwitterModule());
-				jsonConverter.setObjectMapper(objectMapper);
-			}
-		}
-	}
-	
 	// subclassing hooks
 
 	protected RestTemplate getRestTemplate() {
@@ -40,6 +40,19 @@ import org.springframework.web.client.HttpServerErrorException;
  * @author Craig Walls
  */
 public class TwitterErrorHandler extends DefaultResponseErrorHandler {
+
+	private final ObjectMapper objectMapper;
+
+	public TwitterErrorHandler() {
+		this(new ObjectMapper(new JsonFactory()));
+	}
+
+	/**
+	 * Creates an error handler that reads error details with the given, possibly shared, ObjectMapper.
+	 */
+	public TwitterErrorHandler(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
 		
 	@Override
 	public void handleError(ClientHttpResponse response) throws IOException {
@@ -93,8 +106,7 @@ public class TwitterErrorHandler extends DefaultResponseErrorHandler {
 	}
 
 	private Map<String, String> extractErrorDetailsFromResponse(ClientHttpResponse response) throws IOException {
-		ObjectMapper mapper = new ObjectMapper(new JsonFactory());
-	    return mapper.<Map<String, String>>readValue(response.getBody(), new TypeReference<Map<String, String>>() {});
+	    return objectMapper.<Map<String, String>>readValue(response.getBody(), new TypeReference<Map<String, String>>() {});
 	}
 
 	private static final String INVALID_MESSAGE_RECIPIENT_TEXT = "You cannot send messages to users who are not following you.";
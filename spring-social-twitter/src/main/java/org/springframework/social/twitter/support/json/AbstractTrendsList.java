@@ -15,13 +15,9 @@
  */
 package org.springframework.social.twitter.support.json;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -29,16 +25,17 @@ import java.util.Map.Entry;
 
 import org.springframework.social.twitter.types.Trend;
 import org.springframework.social.twitter.types.Trends;
+import org.springframework.social.util.DateParser;
 
 public class AbstractTrendsList {
 	private final List<Trends> list;
 
-	public AbstractTrendsList(Map<String, List<Trend>> trends, DateFormat dateFormat) {
+	public AbstractTrendsList(Map<String, List<Trend>> trends, DateParser dateParser) {
 		list = new ArrayList<Trends>(trends.size());
 		for(Iterator<Entry<String, List<Trend>>> trendsIt = trends.entrySet().iterator(); trendsIt.hasNext();) {
 			Entry<String, List<Trend>> entry = trendsIt.next();
 			
-			list.add(new Trends(toDate(entry.getKey(), dateFormat), entry.getValue()));
+			list.add(new Trends(dateParser.parse(entry.getKey()), entry.getValue()));
 		}
 		Collections.sort(list, new Comparator<Trends>() {
 			public int compare(Trends t1, Trends t2) {
@@ -51,22 +48,10 @@ public class AbstractTrendsList {
 		return list;
 	}
 	
-    protected Date toDate(String dateString, DateFormat dateFormat) {
-        if (dateString == null) {
-            return null;
-        }
+	public static final DateParser WEEKLY_TREND_DATE_PARSER = DateParser.forPattern("yyyy-MM-dd");
 
-        try {
-            return dateFormat.parse(dateString);
-        } catch (ParseException e) {
-            return null;
-        }
-    }
-    
-	public static final DateFormat WEEKLY_TREND_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
+	public static final DateParser DAILY_TREND_DATE_PARSER = DateParser.forPattern("yyyy-MM-dd HH:mm:ss");
 
-	public static final DateFormat DAILY_TREND_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
-	public static final DateFormat LOCAL_TREND_DATE_FORMAT = new SimpleDateFormat("yyyy-mm-dd'T'HH:mm:ss'Z'");
+	public static final DateParser LOCAL_TREND_DATE_PARSER = DateParser.forPattern("yyyy-MM-dd'T'HH:mm:ssZ");
 
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.support.json;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonProcessingException;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.DeserializationContext;
+import org.codehaus.jackson.map.JsonDeserializer;
+import org.springframework.social.twitter.types.CursoredIdList;
+
+/**
+ * Deserializes a cursored ID response such as <code>{"ids":[...], "next_cursor":..., "previous_cursor":...}</code> into a {@link CursoredIdList}.
+ * @author agent
+ */
+public class CursoredIdListDeserializer extends JsonDeserializer<CursoredIdList> {
+
+	@Override
+	public CursoredIdList deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+		long[] ids = null;
+		long previousCursor = 0;
+		long nextCursor = 0;
+		JsonToken token = jp.getCurrentToken();
+		if (token == JsonToken.START_OBJECT) {
+			token = jp.nextToken();
+		}
+		for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+			String fieldName = jp.getCurrentName();
+			jp.nextToken();
+			if ("ids".equals(fieldName)) {
+				ids = IdArrayReader.readIds(jp, ctxt);
+			} else if ("next_cursor".equals(fieldName)) {
+				nextCursor = jp.getLongValue();
+			} else if ("previous_cursor".equals(fieldName)) {
+				previousCursor = jp.getLongValue();
+			} else {
+				jp.skipChildren();
+			}
+		}
+		if (ids == null) {
+			throw ctxt.mappingException(CursoredIdList.class);
+		}
+		return new CursoredIdList(ids, previousCursor, nextCursor);
+	}
+
+}
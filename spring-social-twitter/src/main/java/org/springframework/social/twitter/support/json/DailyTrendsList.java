@@ -28,7 +28,7 @@ public class DailyTrendsList extends AbstractTrendsList {
 
 	@JsonCreator
 	public DailyTrendsList(@JsonProperty("trends") Map<String, List<Trend>> trends) {
-		super(trends, DAILY_TREND_DATE_FORMAT);
+		super(trends, DAILY_TREND_DATE_PARSER);
 	}
 
 }
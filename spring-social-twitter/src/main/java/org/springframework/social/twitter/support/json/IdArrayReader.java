@@ -0,0 +1,62 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.support.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.DeserializationContext;
+
+/**
+ * Reads a JSON array of IDs straight into a long array, without boxing each ID.
+ * @author agent
+ */
+final class IdArrayReader {
+
+	private static final long[] EMPTY = new long[0];
+
+	private IdArrayReader() {
+	}
+
+	/**
+	 * Reads the array the parser is positioned on, leaving the parser on its END_ARRAY token.
+	 * IDs given as strings are accepted, as Twitter returns them that way in some responses.
+	 */
+	public static long[] readIds(JsonParser jp, DeserializationContext ctxt) throws IOException {
+		if (jp.getCurrentToken() != JsonToken.START_ARRAY) {
+			throw ctxt.mappingException(long[].class);
+		}
+		long[] ids = EMPTY;
+		int count = 0;
+		JsonToken token;
+		while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+			if (count == ids.length) {
+				ids = Arrays.copyOf(ids, Math.max(16, count * 2));
+			}
+			if (token == JsonToken.VALUE_NUMBER_INT) {
+				ids[count++] = jp.getLongValue();
+			} else if (token == JsonToken.VALUE_STRING) {
+				ids[count++] = Long.parseLong(jp.getText().trim());
+			} else {
+				throw ctxt.mappingException(long[].class);
+			}
+		}
+		return count == ids.length ? ids : Arrays.copyOf(ids, count);
+	}
+
+}
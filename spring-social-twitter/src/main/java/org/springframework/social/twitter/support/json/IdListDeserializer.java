@@ -0,0 +1,37 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.support.json;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonProcessingException;
+import org.codehaus.jackson.map.DeserializationContext;
+import org.codehaus.jackson.map.JsonDeserializer;
+import org.springframework.social.twitter.types.IdList;
+
+/**
+ * Deserializes a JSON array of IDs into an {@link IdList} without boxing each ID.
+ * @author agent
+ */
+public class IdListDeserializer extends JsonDeserializer<IdList> {
+
+	@Override
+	public IdList deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+		return new IdList(IdArrayReader.readIds(jp, ctxt));
+	}
+
+}
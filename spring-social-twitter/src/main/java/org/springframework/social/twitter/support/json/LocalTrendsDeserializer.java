@@ -16,9 +16,6 @@
 package org.springframework.social.twitter.support.json;
 
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
@@ -41,7 +38,7 @@ public class LocalTrendsDeserializer extends JsonDeserializer<LocalTrendsHolder>
 		Iterator<JsonNode> dayIt = tree.iterator();
 		if(dayIt.hasNext()) {
 			JsonNode day = dayIt.next();
-			Date createdAt = toDate(day.get("created_at").getValueAsText());
+			Date createdAt = AbstractTrendsList.LOCAL_TREND_DATE_PARSER.parse(day.get("created_at").getValueAsText());
 			JsonNode trendNodes = day.get("trends");
 			List<Trend> trends = new ArrayList<Trend>();
 			for(Iterator<JsonNode> trendsIt = trendNodes.iterator(); trendsIt.hasNext(); ) {
@@ -54,14 +51,4 @@ public class LocalTrendsDeserializer extends JsonDeserializer<LocalTrendsHolder>
 		
 		throw ctxt.mappingException(LocalTrendsHolder.class);
 	}
-	
-	private static final DateFormat LOCAL_TREND_DATE_FORMAT = new SimpleDateFormat("yyyy-mm-dd'T'HH:mm:ss'Z'");
-
-	private static Date toDate(String dateString) {
-		try {
-			return LOCAL_TREND_DATE_FORMAT.parse(dateString);
-		} catch (ParseException e) {
-			return null;
-		}
-	}
 }
@@ -21,6 +21,11 @@ import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 import org.codehaus.jackson.annotate.JsonProperty;
 
+/**
+ * @deprecated ID lists now bind directly to {@link org.springframework.social.twitter.types.CursoredIdList}, which holds the IDs as primitives.
+ * Retained for compatibility and will be removed in a future release.
+ */
+@Deprecated
 @JsonIgnoreProperties(ignoreUnknown=true)
 public class LongIdsList {
 	private final List<Long> list;
@@ -20,6 +20,11 @@ import java.util.List;
 import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonProperty;
 
+/**
+ * @deprecated ID lists now bind directly to {@link org.springframework.social.twitter.types.IdList}, which holds the IDs as primitives.
+ * Retained for compatibility and will be removed in a future release.
+ */
+@Deprecated
 public class LongList {
 	private final List<Long> list;
 
@@ -16,29 +16,22 @@
 package org.springframework.social.twitter.support.json;
 
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Locale;
 
 import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.JsonProcessingException;
 import org.codehaus.jackson.map.DeserializationContext;
 import org.codehaus.jackson.map.JsonDeserializer;
+import org.springframework.social.util.DateParser;
 
 public class SearchDateDeserializer extends JsonDeserializer<Date> {
 
 	@Override
 	public Date deserialize(JsonParser jp, DeserializationContext ctxt)
 			throws IOException, JsonProcessingException {
-        try {
-            return SEARCH_DATE_FORMAT.parse(jp.getText());
-        } catch (ParseException e) {
-            return null;
-        }
+		return SEARCH_DATE_PARSER.parse(jp.getText());
 	}
 
-	private static final DateFormat SEARCH_DATE_FORMAT = new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH);
+	private static final DateParser SEARCH_DATE_PARSER = DateParser.forPattern("EEE MMM dd HH:mm:ss ZZZZZ yyyy");
 
 }
@@ -16,72 +16,131 @@
 package org.springframework.social.twitter.support.json;
 
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
-import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.JsonProcessingException;
+import org.codehaus.jackson.JsonToken;
 import org.codehaus.jackson.map.DeserializationContext;
 import org.codehaus.jackson.map.JsonDeserializer;
 import org.springframework.social.twitter.types.Tweet;
+import org.springframework.social.util.DateParser;
 
 /**
  * Custom Jackson deserializer for tweets. Tweets can't be simply mapped like other Twitter model objects because the JSON structure
  * varies between the search API and the timeline API. This deserializer determine which structure is in play and creates a tweet from it.
+ * Tweets are read straight from the token stream: only the fields a Tweet needs are read and everything else, such as entities, is skipped.
+ * Callers needing more of the tweet may name extra fields, which are bound individually and exposed through {@link Tweet#getExtraData()}.
  * @author Craig Walls
+ * @author agent
  */
 public class TweetDeserializer extends JsonDeserializer<Tweet> {
 
+	private final Set<String> extraFields;
+
+	public TweetDeserializer() {
+		this(new String[0]);
+	}
+
+	/**
+	 * Creates a TweetDeserializer that also reads the given tweet fields into each tweet's extra data.
+	 * @param extraFields the JSON names of the additional top-level tweet fields to read, such as "retweet_count" or "place"
+	 */
+	public TweetDeserializer(String... extraFields) {
+		this.extraFields = new HashSet<String>(Arrays.asList(extraFields));
+	}
+
 	@Override
 	public Tweet deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-		JsonNode tree = jp.readValueAsTree();
-		long id = tree.get("id").getValueAsLong();
-		String text = tree.get("text").getValueAsText();
-		JsonNode fromUserNode = tree.get("user");
+		long id = 0;
+		String text = null;
+		boolean hasUser = false;
 		String fromScreenName = null;
 		long fromId = 0;
 		String fromImageUrl = null;
-		DateFormat dateFormat = TIMELINE_DATE_FORMAT;
-		if(fromUserNode != null) {
-			fromScreenName = fromUserNode.get("screen_name").getValueAsText();
-			fromId = fromUserNode.get("id").getValueAsLong();
-			fromImageUrl = fromUserNode.get("profile_image_url").getValueAsText();
-		} else {
-			fromScreenName = tree.get("from_user").getValueAsText();
-			fromId = tree.get("from_user_id").getValueAsLong();
-			fromImageUrl = tree.get("profile_image_url").getValueAsText();
-			dateFormat = SEARCH_DATE_FORMAT;
+		String createdAtText = null;
+		String source = null;
+		Long toUserId = null;
+		String languageCode = null;
+		Map<String, Object> extraData = null;
+		JsonToken token = jp.getCurrentToken();
+		if (token == JsonToken.START_OBJECT) {
+			token = jp.nextToken();
 		}
-		Date createdAt = toDate(tree.get("created_at").getValueAsText(), dateFormat);
-		String source = tree.get("source").getValueAsText();
-		JsonNode toUserIdNode = tree.get("in_reply_to_user_id");
-		Long toUserId = toUserIdNode != null ? toUserIdNode.getValueAsLong() : null;
-		JsonNode languageCodeNode = tree.get("iso_language_code");
-		String languageCode = languageCodeNode != null ? languageCodeNode.getTextValue() : null;
+		for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+			String fieldName = jp.getCurrentName();
+			jp.nextToken();
+			if ("id".equals(fieldName)) {
+				id = readLong(jp);
+			} else if ("text".equals(fieldName)) {
+				text = jp.getText();
+			} else if ("created_at".equals(fieldName)) {
+				createdAtText = jp.getText();
+			} else if ("user".equals(fieldName) && jp.getCurrentToken() == JsonToken.START_OBJECT) {
+				// timeline tweets carry their author as a nested user object
+				hasUser = true;
+				while (jp.nextToken() == JsonToken.FIELD_NAME) {
+					String userFieldName = jp.getCurrentName();
+					jp.nextToken();
+					if ("screen_name".equals(userFieldName)) {
+						fromScreenName = jp.getText();
+					} else if ("id".equals(userFieldName)) {
+						fromId = readLong(jp);
+					} else if ("profile_image_url".equals(userFieldName)) {
+						fromImageUrl = jp.getText();
+					} else {
+						jp.skipChildren();
+					}
+				}
+			} else if ("from_user".equals(fieldName)) {
+				// search results carry the author in top-level fields
+				if (!hasUser) {
+					fromScreenName = jp.getText();
+				}
+			} else if ("from_user_id".equals(fieldName)) {
+				if (!hasUser) {
+					fromId = readLong(jp);
+				}
+			} else if ("profile_image_url".equals(fieldName)) {
+				if (!hasUser) {
+					fromImageUrl = jp.getText();
+				}
+			} else if ("source".equals(fieldName)) {
+				source = jp.getText();
+			} else if ("in_reply_to_user_id".equals(fieldName)) {
+				toUserId = readLong(jp);
+			} else if ("iso_language_code".equals(fieldName)) {
+				languageCode = jp.getCurrentToken() == JsonToken.VALUE_STRING ? jp.getText() : null;
+			} else if (extraFields.contains(fieldName)) {
+				if (extraData == null) {
+					extraData = new HashMap<String, Object>();
+				}
+				extraData.put(fieldName, jp.readValueAs(Object.class));
+			} else {
+				jp.skipChildren();
+			}
+		}
+		Date createdAt = (hasUser ? TIMELINE_DATE_PARSER : SEARCH_DATE_PARSER).parse(createdAtText);
 		Tweet tweet = new Tweet(id, text, createdAt, fromScreenName, fromImageUrl, toUserId, fromId, languageCode, source);
-		jp.skipChildren();
+		if (extraData != null) {
+			tweet.setExtraData(Collections.unmodifiableMap(extraData));
+		}
 		return tweet;
 	}
-	
-    private Date toDate(String dateString, DateFormat dateFormat) {
-        if (dateString == null) {
-            return null;
-        }
-
-        try {
-            return dateFormat.parse(dateString);
-        } catch (ParseException e) {
-            return null;
-        }
-    }
 
+	// Jackson 1.7's no-argument getValueAsLong() reads through getValueAsInt() and fails on IDs beyond the int range
+	private static long readLong(JsonParser jp) throws IOException {
+		return jp.getValueAsLong(0);
+	}
 
-	private static final DateFormat TIMELINE_DATE_FORMAT = new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH);
+	private static final DateParser TIMELINE_DATE_PARSER = DateParser.forPattern("EEE MMM dd HH:mm:ss ZZZZZ yyyy");
 
-	private static final DateFormat SEARCH_DATE_FORMAT = new SimpleDateFormat("EEE, d MMM yyyy HH:mm:ss Z", Locale.ENGLISH);
+	private static final DateParser SEARCH_DATE_PARSER = DateParser.forPattern("EEE, d MMM yyyy HH:mm:ss Z");
 
 }
@@ -16,9 +16,7 @@
 package org.springframework.social.twitter.support.json;
 
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
-import org.codehaus.jackson.map.annotate.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-@JsonDeserialize(using = TweetDeserializer.class)
 public interface TweetMixin {
 }
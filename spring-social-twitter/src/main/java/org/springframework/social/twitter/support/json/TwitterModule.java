@@ -17,7 +17,9 @@ package org.springframework.social.twitter.support.json;
 
 import org.codehaus.jackson.Version;
 import org.codehaus.jackson.map.module.SimpleModule;
+import org.springframework.social.twitter.types.CursoredIdList;
 import org.springframework.social.twitter.types.DirectMessage;
+import org.springframework.social.twitter.types.IdList;
 import org.springframework.social.twitter.types.SavedSearch;
 import org.springframework.social.twitter.types.SearchResults;
 import org.springframework.social.twitter.types.SuggestionCategory;
@@ -29,11 +31,22 @@ import org.springframework.social.twitter.types.UserList;
 
 public class TwitterModule extends SimpleModule {
 	public TwitterModule() {
+		this(new String[0]);
+	}
+
+	/**
+	 * Creates a TwitterModule whose tweets also carry the given fields in their extra data.
+	 * @param extraTweetFields the JSON names of additional top-level tweet fields to read
+	 * @see Tweet#getExtraData()
+	 */
+	public TwitterModule(String... extraTweetFields) {
 		super("TwitterModule", new Version(1, 0, 0, null));
+		addDeserializer(Tweet.class, new TweetDeserializer(extraTweetFields));
 	}
 	
 	@Override
 	public void setupModule(SetupContext context) {
+		super.setupModule(context);
 		context.setMixInAnnotations(TwitterProfile.class, TwitterProfileMixin.class);
 		context.setMixInAnnotations(SavedSearch.class, SavedSearchMixin.class);
 		context.setMixInAnnotations(Trend.class, TrendMixin.class);
@@ -43,5 +56,7 @@ public class TwitterModule extends SimpleModule {
 		context.setMixInAnnotations(UserList.class, UserListMixin.class);
 		context.setMixInAnnotations(Tweet.class, TweetMixin.class);
 		context.setMixInAnnotations(SearchResults.class, SearchResultsMixin.class);
+		context.setMixInAnnotations(IdList.class, IdListMixin.class);
+		context.setMixInAnnotations(CursoredIdList.class, CursoredIdListMixin.class);
 	}
 }
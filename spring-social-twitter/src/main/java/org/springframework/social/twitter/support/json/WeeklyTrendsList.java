@@ -28,7 +28,7 @@ public class WeeklyTrendsList extends AbstractTrendsList {
 
 	@JsonCreator
 	public WeeklyTrendsList(@JsonProperty("trends") Map<String, List<Trend>> trends) {
-		super(trends, WEEKLY_TREND_DATE_FORMAT);
+		super(trends, WEEKLY_TREND_DATE_PARSER);
 	}
 
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.types;
+
+/**
+ * One page of a cursored list of Twitter IDs, such as a user's follower or friend IDs.
+ * Twitter returns these lists in pages of up to 5000 IDs. Pass {@link #getNextCursor()} back to fetch the following page.
+ * @author agent
+ */
+public class CursoredIdList extends IdList {
+
+	/**
+	 * The cursor that retrieves the first page of a list.
+	 */
+	public static final long FIRST_CURSOR = -1;
+
+	private final long previousCursor;
+
+	private final long nextCursor;
+
+	public CursoredIdList(long[] ids, long previousCursor, long nextCursor) {
+		super(ids);
+		this.previousCursor = previousCursor;
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * The cursor for the preceding page, or 0 if this is the first page.
+	 */
+	public long getPreviousCursor() {
+		return previousCursor;
+	}
+
+	/**
+	 * The cursor for the following page, or 0 if this is the last page.
+	 */
+	public long getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * Whether there is another page after this one.
+	 */
+	public boolean hasNext() {
+		return nextCursor != 0;
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of Twitter user or status IDs, backed by a primitive long array.
+ * Holds each ID in 8 bytes rather than as a boxed Long, which matters for lists that run to many thousands of IDs.
+ * Use {@link #getId(int)} to read an ID without boxing it; the {@link java.util.List} methods box on access.
+ * @author agent
+ */
+public class IdList extends AbstractList<Long> implements RandomAccess {
+
+	private final long[] ids;
+
+	/**
+	 * Constructs an IdList holding the given IDs. The array is not copied and must not be modified afterwards.
+	 * @param ids the IDs
+	 */
+	public IdList(long[] ids) {
+		this.ids = ids;
+	}
+
+	/**
+	 * The ID at the given position in the list.
+	 */
+	public long getId(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * A copy of the IDs as a long array.
+	 */
+	public long[] toLongArray() {
+		return ids.clone();
+	}
+
+	@Override
+	public Long get(int index) {
+		if (index < 0 || index >= ids.length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ids.length);
+		}
+		return ids[index];
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(ids);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof IdList) {
+			return Arrays.equals(ids, ((IdList) o).ids);
+		}
+		return super.equals(o);
+	}
+
+}
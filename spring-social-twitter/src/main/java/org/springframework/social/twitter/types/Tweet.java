@@ -15,7 +15,9 @@
  */
 package org.springframework.social.twitter.types;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * Represents a Twitter status update (e.g., a "tweet").
@@ -31,6 +33,7 @@ public class Tweet {
 	private long fromUserId;
 	private String languageCode;
 	private String source;
+	private Map<String, Object> extraData = Collections.emptyMap();
 	
 	public Tweet(long id, String text, Date createdAt, String fromUser, String profileImageUrl, Long toUserId, long fromUserId, String languageCode, String source) {
 		this.id = id;
@@ -115,4 +118,15 @@ public class Tweet {
 	public void setSource(String source) {
 		this.source = source;
 	}
+
+	/**
+	 * Extra tweet fields requested through the TwitterModule, keyed by JSON field name. Empty if none were requested.
+	 */
+	public Map<String, Object> getExtraData() {
+		return extraData;
+	}
+
+	public void setExtraData(Map<String, Object> extraData) {
+		this.extraData = extraData;
+	}
 }
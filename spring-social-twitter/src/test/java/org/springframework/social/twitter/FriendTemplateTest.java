@@ -20,10 +20,14 @@ import static org.springframework.http.HttpMethod.*;
 import static org.springframework.social.test.client.RequestMatchers.*;
 import static org.springframework.social.test.client.ResponseCreators.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.types.CursoredIdList;
+import org.springframework.social.twitter.types.IdList;
 import org.springframework.social.twitter.types.TwitterProfile;
 
 
@@ -69,6 +73,18 @@ public class FriendTemplateTest extends AbstractTwitterApiTest {
 		assertEquals(34567L, (long) followerIds.get(2));
 	}
 
+	@Test
+	public void getFriendIdList_byUserId() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/friends/ids.json?user_id=98765"))
+			.andExpect(method(GET))
+			.andRespond(withResponse(new ClassPathResource("testdata/list-of-profile-ids.json", getClass()), responseHeaders));
+		
+		IdList followerIds = twitter.friendOperations().getFriendIdList(98765L);
+		assertEquals(3, followerIds.size());
+		assertEquals(9223372036854775807L, followerIds.getId(1));
+		assertArrayEquals(new long[] { 12345L, 9223372036854775807L, 34567L }, followerIds.toLongArray());
+	}
+
 	@Test
 	public void getFriendIds_byScreenName() {
 		mockServer.expect(requestTo("https://api.twitter.com/1/friends/ids.json?screen_name=habuma"))
@@ -119,6 +135,53 @@ public class FriendTemplateTest extends AbstractTwitterApiTest {
 		assertEquals(34567L, (long) followerIds.get(2));
 	}
 
+	@Test
+	public void getFollowerIds_byUserIdAndCursor() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/followers/ids.json?cursor=-1&user_id=98765"))
+			.andExpect(method(GET))
+			.andRespond(withResponse(new ClassPathResource("testdata/cursored-ids-page1.json", getClass()), responseHeaders));
+
+		CursoredIdList followerIds = twitter.friendOperations().getFollowerIds(98765L, CursoredIdList.FIRST_CURSOR);
+		assertEquals(3, followerIds.size());
+		assertEquals(12345L, followerIds.getId(0));
+		assertEquals(9223372036854775807L, followerIds.getId(1));
+		assertEquals(34567L, (long) followerIds.get(2));
+		assertEquals(0, followerIds.getPreviousCursor());
+		assertEquals(1353982394583921537L, followerIds.getNextCursor());
+		assertTrue(followerIds.hasNext());
+	}
+
+	@Test
+	public void getFollowerIdPages_byScreenName() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/followers/ids.json?cursor=-1&screen_name=habuma"))
+			.andExpect(method(GET))
+			.andRespond(withResponse(new ClassPathResource("testdata/cursored-ids-page1.json", getClass()), responseHeaders));
+		mockServer.expect(requestTo("https://api.twitter.com/1/followers/ids.json?cursor=1353982394583921537&screen_name=habuma"))
+			.andExpect(method(GET))
+			.andRespond(withResponse(new ClassPathResource("testdata/cursored-ids-page2.json", getClass()), responseHeaders));
+
+		List<Long> followerIds = new ArrayList<Long>();
+		for (CursoredIdList page : twitter.friendOperations().getFollowerIdPages("habuma")) {
+			for (int i = 0; i < page.size(); i++) {
+				followerIds.add(page.getId(i));
+			}
+		}
+		assertEquals(Arrays.asList(12345L, 9223372036854775807L, 34567L, 45678L, 56789L), followerIds);
+		mockServer.verify();
+	}
+
+	@Test
+	public void getFriendIds_byScreenNameAndCursor() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/friends/ids.json?cursor=1353982394583921537&screen_name=habuma"))
+			.andExpect(method(GET))
+			.andRespond(withResponse(new ClassPathResource("testdata/cursored-ids-page2.json", getClass()), responseHeaders));
+
+		CursoredIdList friendIds = twitter.friendOperations().getFriendIds("habuma", 1353982394583921537L);
+		assertEquals(2, friendIds.size());
+		assertEquals(45678L, friendIds.getId(0));
+		assertFalse(friendIds.hasNext());
+	}
+
 	@Test
 	public void getFollowerIds_byScreenName() {
 		mockServer.expect(requestTo("https://api.twitter.com/1/followers/ids.json?screen_name=habuma"))
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpMethod.*;
+import static org.springframework.social.test.client.RequestMatchers.*;
+import static org.springframework.social.test.client.ResponseCreators.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.social.twitter.types.Tweet;
+
+/**
+ * @author agent
+ */
+public class TimelinePollerTest extends AbstractTwitterApiTest {
+
+	@Test
+	public void poll_firstPoll() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/home_timeline.json?count=200"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(30, 20), responseHeaders));
+		SinceIdStore sinceIdStore = new InMemorySinceIdStore();
+		TimelinePoller poller = TimelinePoller.homeTimeline(twitter.timelineOperations(), sinceIdStore, "home:112233");
+		assertEquals(2, drain(poller.poll()).size());
+		assertEquals(30, sinceIdStore.getSinceId("home:112233"));
+		mockServer.verify();
+	}
+
+	@Test
+	public void poll_backFillsGap() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/mentions.json?count=2&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(50, 40), responseHeaders));
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/mentions.json?count=2&max_id=39&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(30, 20), responseHeaders));
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/mentions.json?count=2&max_id=19&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(15), responseHeaders));
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/mentions.json?count=2&max_id=14&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse("[]", responseHeaders));
+		SinceIdStore sinceIdStore = new InMemorySinceIdStore();
+		sinceIdStore.saveSinceId("mentions:112233", 10);
+		TimelinePoller poller = TimelinePoller.mentions(twitter.timelineOperations(), sinceIdStore, "mentions:112233");
+		poller.setPageSize(2);
+		List<Tweet> tweets = drain(poller.poll());
+		assertEquals(5, tweets.size());
+		assertEquals(50, tweets.get(0).getId());
+		assertEquals(15, tweets.get(4).getId());
+		assertEquals(50, sinceIdStore.getSinceId("mentions:112233"));
+		mockServer.verify();
+	}
+
+	@Test
+	public void poll_shortPageDoesNotEndBackFill() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/home_timeline.json?count=3&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(50), responseHeaders));
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/home_timeline.json?count=3&max_id=49&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(40, 30, 20), responseHeaders));
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/home_timeline.json?count=3&max_id=19&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(11), responseHeaders));
+		SinceIdStore sinceIdStore = new InMemorySinceIdStore();
+		sinceIdStore.saveSinceId("home:112233", 10);
+		TimelinePoller poller = TimelinePoller.homeTimeline(twitter.timelineOperations(), sinceIdStore, "home:112233");
+		poller.setPageSize(3);
+		List<Tweet> tweets = drain(poller.poll());
+		assertEquals(5, tweets.size());
+		assertEquals(11, tweets.get(4).getId());
+		assertEquals(50, sinceIdStore.getSinceId("home:112233"));
+		mockServer.verify();
+	}
+
+	@Test
+	public void poll_nothingNew() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/user_timeline.json?count=200&since_id=50&user_id=112233"))
+				.andExpect(method(GET))
+				.andRespond(withResponse("[]", responseHeaders));
+		SinceIdStore sinceIdStore = new InMemorySinceIdStore();
+		sinceIdStore.saveSinceId("user:112233", 50);
+		TimelinePoller poller = TimelinePoller.userTimeline(twitter.timelineOperations(), 112233, sinceIdStore, "user:112233");
+		assertFalse(poller.poll().hasNext());
+		assertEquals(50, sinceIdStore.getSinceId("user:112233"));
+	}
+
+	@Test
+	public void poll_abandoned() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/home_timeline.json?count=200&since_id=10"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(tweets(30, 20), responseHeaders));
+		SinceIdStore sinceIdStore = new InMemorySinceIdStore();
+		sinceIdStore.saveSinceId("home:112233", 10);
+		TimelinePoller poller = TimelinePoller.homeTimeline(twitter.timelineOperations(), sinceIdStore, "home:112233");
+		Iterator<Tweet> newTweets = poller.poll();
+		assertEquals(30, newTweets.next().getId());
+		assertEquals(10, sinceIdStore.getSinceId("home:112233"));
+	}
+
+	private List<Tweet> drain(Iterator<Tweet> tweets) {
+		List<Tweet> drained = new ArrayList<Tweet>();
+		while (tweets.hasNext()) {
+			drained.add(tweets.next());
+		}
+		return drained;
+	}
+
+	private String tweets(long... ids) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < ids.length; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":").append(ids[i]).append(",\"text\":\"Tweet ").append(ids[i]).append("\",")
+				.append("\"user\":{\"id\":112233,\"screen_name\":\"habuma\"},\"created_at\":\"Tue Jul 13 17:38:21 +0000 2010\"}");
+		}
+		return json.append(']').toString();
+	}
+
+}
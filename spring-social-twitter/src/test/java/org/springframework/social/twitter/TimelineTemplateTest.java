@@ -22,6 +22,7 @@ import static org.springframework.social.test.client.RequestMatchers.*;
 import static org.springframework.social.test.client.ResponseCreators.*;
 
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
@@ -139,6 +140,37 @@ public class TimelineTemplateTest extends AbstractTwitterApiTest {
 		assertTimelineTweets(mentions);
 	}
 
+	@Test
+	public void getMentions_window() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/mentions.json?count=50&max_id=99999&since_id=12000"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(new ClassPathResource("testdata/timeline.json", getClass()), responseHeaders));
+		List<Tweet> mentions = twitter.timelineOperations().getMentions(12000, 99999, 50);
+		assertTimelineTweets(mentions);
+	}
+
+	@Test
+	public void getMentions_extraTweetFields() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/mentions.json"))
+				.andExpect(method(GET))
+				.andRespond(withResponse("[{\"id\":12345,\"text\":\"Tweet 1\",\"user\":{\"id\":112233,\"screen_name\":\"habuma\"}," +
+						"\"created_at\":\"Tue Jul 13 17:38:21 +0000 2010\",\"place\":{\"full_name\":\"Plano, TX\"},\"contributors\":null}]", responseHeaders));
+		twitter.setExtraTweetFields("place");
+		Tweet tweet = twitter.timelineOperations().getMentions().get(0);
+		assertEquals("Tweet 1", tweet.getText());
+		assertEquals("Plano, TX", ((Map<?, ?>) tweet.getExtraData().get("place")).get("full_name"));
+		assertFalse(tweet.getExtraData().containsKey("contributors"));
+	}
+
+	@Test
+	public void getHomeTimeline_sinceId() {
+		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/home_timeline.json?since_id=12000"))
+				.andExpect(method(GET))
+				.andRespond(withResponse(new ClassPathResource("testdata/timeline.json", getClass()), responseHeaders));
+		List<Tweet> timeline = twitter.timelineOperations().getHomeTimeline(12000, 0, 0);
+		assertTimelineTweets(timeline);
+	}
+
 	@Test
 	public void getPublicTimeline() {
 		mockServer.expect(requestTo("https://api.twitter.com/1/statuses/public_timeline.json"))
@@ -18,6 +18,7 @@ package org.springframework.social.twitter;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.springframework.http.converter.StringHttpMessageConverter;
 
 public class TwitterTemplateTest {
 	
@@ -33,4 +34,14 @@ public class TwitterTemplateTest {
 		assertFalse(twitter.isAuthorizedForUser());
 	}
 
+	@Test
+	public void messageConverters_perTemplate() {
+		TwitterTemplate twitter = new TwitterTemplate();
+		TwitterTemplate otherTwitter = new TwitterTemplate();
+		int converterCount = otherTwitter.getRestTemplate().getMessageConverters().size();
+		twitter.getRestTemplate().getMessageConverters().add(new StringHttpMessageConverter());
+		assertEquals(converterCount + 1, twitter.getRestTemplate().getMessageConverters().size());
+		assertEquals(converterCount, otherTwitter.getRestTemplate().getMessageConverters().size());
+	}
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.support.json;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+import org.springframework.social.twitter.types.Tweet;
+
+public class TweetDeserializerTest {
+
+	private static final String TIMELINE_TWEET = "{\"created_at\":\"Thu Mar 17 12:34:22 +0000 2011\",\"id\":12345,\"text\":\"Tweet 1\"," +
+			"\"entities\":{\"urls\":[{\"url\":\"http://t.co/x\",\"indices\":[0,10]}],\"hashtags\":[]}," +
+			"\"user\":{\"id\":112233,\"screen_name\":\"habuma\",\"entities\":{\"url\":{}},\"profile_image_url\":\"http://a3.twimg.com/1.jpg\"}," +
+			"\"source\":\"web\",\"in_reply_to_user_id\":332211,\"retweet_count\":7,\"place\":{\"id\":\"abc\",\"name\":\"Plano\"}}";
+
+	private static final String SEARCH_TWEET = "{\"from_user_id\":112233,\"profile_image_url\":\"http://a3.twimg.com/1.jpg\"," +
+			"\"created_at\":\"Tue, 13 Jul 2010 17:38:21 +0000\",\"from_user\":\"habuma\",\"id\":12345,\"text\":\"Tweet 1\"," +
+			"\"iso_language_code\":\"en\",\"metadata\":{\"result_type\":\"recent\"},\"source\":\"web\"}";
+
+	@Test
+	public void deserialize_timelineTweet() throws Exception {
+		Tweet tweet = mapper(new TwitterModule()).readValue(TIMELINE_TWEET, Tweet.class);
+		assertEquals(12345, tweet.getId());
+		assertEquals("Tweet 1", tweet.getText());
+		assertEquals("habuma", tweet.getFromUser());
+		assertEquals(112233, tweet.getFromUserId());
+		assertEquals("http://a3.twimg.com/1.jpg", tweet.getProfileImageUrl());
+		assertEquals(332211, tweet.getToUserId().longValue());
+		assertEquals(1300365262000L, tweet.getCreatedAt().getTime());
+		assertEquals("web", tweet.getSource());
+		assertTrue(tweet.getExtraData().isEmpty());
+	}
+
+	@Test
+	public void deserialize_searchTweet() throws Exception {
+		Tweet tweet = mapper(new TwitterModule()).readValue(SEARCH_TWEET, Tweet.class);
+		assertEquals(12345, tweet.getId());
+		assertEquals("habuma", tweet.getFromUser());
+		assertEquals(112233, tweet.getFromUserId());
+		assertEquals("en", tweet.getLanguageCode());
+		assertNull(tweet.getToUserId());
+		assertEquals(1279042701000L, tweet.getCreatedAt().getTime());
+	}
+
+	@Test
+	public void deserialize_idBeyondIntRange() throws Exception {
+		Tweet tweet = mapper(new TwitterModule()).readValue(TIMELINE_TWEET.replace("\"id\":12345", "\"id\":48395026740174848"), Tweet.class);
+		assertEquals(48395026740174848L, tweet.getId());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deserialize_extraFields() throws Exception {
+		Tweet tweet = mapper(new TwitterModule("retweet_count", "place", "geo")).readValue(TIMELINE_TWEET, Tweet.class);
+		assertEquals("Tweet 1", tweet.getText());
+		assertEquals(2, tweet.getExtraData().size());
+		assertEquals(7, tweet.getExtraData().get("retweet_count"));
+		assertEquals("Plano", ((Map<String, Object>) tweet.getExtraData().get("place")).get("name"));
+		assertFalse(tweet.getExtraData().containsKey("geo"));
+	}
+
+	private ObjectMapper mapper(TwitterModule module) {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.registerModule(module);
+		return mapper;
+	}
+
+}